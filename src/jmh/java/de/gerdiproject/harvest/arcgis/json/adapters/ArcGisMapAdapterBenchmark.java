@@ -0,0 +1,164 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.arcgis.json.adapters;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.reflect.TypeToken;
+
+import de.gerdiproject.harvest.arcgis.constants.ArcGisConstants;
+import de.gerdiproject.harvest.arcgis.json.ArcGisMap;
+import de.gerdiproject.harvest.arcgis.json.generic.GenericArcGisResponse;
+import de.gerdiproject.json.GsonUtils;
+
+/**
+ * This class measures the parsing of a search page of 100 maps, once into the
+ * model that {@linkplain ArcGisMap} had before it was parsed by the {@linkplain ArcGisMapAdapter},
+ * and once via the adapter. The maps are copies of the map of the "input-mocked.json" fixture
+ * of the ArcGisTransformerTest. Running it with "-prof gc" shows the bytes that are allocated
+ * per page by either model.
+ *
+ * @author Robin Weiss
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArcGisMapAdapterBenchmark
+{
+    private static final String FIXTURE_RESOURCE =
+        "/de/gerdiproject/harvest/etls/transformers/ArcGisTransformerTest/input-mocked.json";
+    private static final String PAGE_FORMAT =
+        "{\"query\":\" group:MockedGroupID \",\"total\":%1$d,\"start\":1,\"num\":%1$d,\"nextStart\":-1,\"results\":%2$s}";
+    private static final Type LEGACY_RESPONSE_TYPE = new TypeToken<GenericArcGisResponse<LegacyArcGisMap>>() {} .getType();
+
+    private Gson gson;
+    private String searchPage;
+
+
+    /**
+     * Creates a search page of the fixture map.
+     *
+     * @throws IOException thrown when the fixture could not be read
+     */
+    @Setup
+    public void createSearchPage() throws IOException
+    {
+        gson = GsonUtils.createGerdiDocumentGsonBuilder().create();
+        final InputStream resource = ArcGisMapAdapterBenchmark.class.getResourceAsStream(FIXTURE_RESOURCE);
+        final JsonObject map;
+
+        try (Reader reader = new InputStreamReader(resource, StandardCharsets.UTF_8)) {
+            map = gson.fromJson(reader, JsonObject.class).getAsJsonObject("map");
+        }
+
+        final JsonArray results = new JsonArray();
+
+        for (int i = 0; i < ArcGisConstants.MAPS_PER_PAGE; i++)
+            results.add(map);
+
+        searchPage = String.format(PAGE_FORMAT, ArcGisConstants.MAPS_PER_PAGE, results);
+    }
+
+
+    /**
+     * Parses the search page into the model that retained all fields.
+     *
+     * @return the parsed search page
+     */
+    @Benchmark
+    public GenericArcGisResponse<LegacyArcGisMap> legacyModel()
+    {
+        return gson.fromJson(searchPage, LEGACY_RESPONSE_TYPE);
+    }
+
+
+    /**
+     * Parses the search page via the {@linkplain ArcGisMapAdapter}.
+     *
+     * @return the parsed search page
+     */
+    @Benchmark
+    public GenericArcGisResponse<ArcGisMap> adapter()
+    {
+        return gson.fromJson(searchPage, ArcGisConstants.MAPS_RESPONSE_TYPE);
+    }
+
+
+    /**
+     * The fields of an {@linkplain ArcGisMap} before it was parsed by the
+     * {@linkplain ArcGisMapAdapter}, which Gson parses via reflection.
+     */
+    @SuppressWarnings("unused") // the fields are assigned by Gson
+    public static class LegacyArcGisMap
+    {
+        private String id;
+        private String owner;
+        private Long created;
+        private Long modified;
+        private String name;
+        private String title;
+        private String type;
+        private List<String> typeKeywords;
+        private String description;
+        private List<String> tags;
+        private String snippet;
+        private String thumbnail;
+        private List<List<Double>> extent;
+        private JsonArray categories;
+        private String spatialReference;
+        private String accessInformation;
+        private String licenseInfo;
+        private String culture;
+        private String url;
+        private String access;
+        private int size;
+        private JsonArray appCategories;
+        private JsonArray industries;
+        private JsonArray languages;
+        private String largeThumbnail;
+        private JsonArray screenshots;
+        private boolean listed;
+        private int numComments;
+        private int numRatings;
+        private float avgRating;
+        private int numViews;
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import de.gerdiproject.harvest.arcgis.constants.ArcGisConstants;
+import de.gerdiproject.harvest.utils.data.HttpRequester;
+
+/**
+ * This class measures the time per search request against a local stub server,
+ * once via the {@linkplain HttpRequester} of the library, which sent all requests
+ * before direct requests became the default, and once via the default path of the
+ * {@linkplain ArcGisHttpClient}, which sends the requests through its
+ * {@linkplain ArcGisConnectionPool}. Both parse the same search response.
+ *
+ * @author Robin Weiss
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+// without TCP_NODELAY, the stub server delays each response on reused connections by the delayed ACK timeout
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+public class ArcGisConnectionPoolBenchmark
+{
+    private static final String URL_FORMAT = "http://localhost:%d/sharing/rest/search?f=json";
+    private static final byte[] RESPONSE_BODY =
+        "{\"total\":1,\"start\":1,\"num\":100,\"nextStart\":-1,\"results\":[{\"id\":\"mocked\"}]}"
+        .getBytes(StandardCharsets.UTF_8);
+
+    private HttpServer stubServer;
+    private ExecutorService serverExecutor;
+    private HttpRequester httpRequester;
+    private ArcGisHttpClient httpClient;
+    private String searchUrl;
+
+
+    /**
+     * Starts the stub server on a free local port.
+     *
+     * @throws IOException thrown when the server could not be started
+     */
+    @Setup(Level.Trial)
+    public void startServer() throws IOException
+    {
+        stubServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        stubServer.createContext("/", ArcGisConnectionPoolBenchmark::respond);
+
+        serverExecutor = Executors.newFixedThreadPool(4);
+        stubServer.setExecutor(serverExecutor);
+        stubServer.start();
+
+        searchUrl = String.format(URL_FORMAT, stubServer.getAddress().getPort());
+        httpRequester = new HttpRequester();
+        httpClient = ArcGisHttpClient.getInstance();
+    }
+
+
+    /**
+     * Stops the stub server.
+     */
+    @TearDown(Level.Trial)
+    public void stopServer()
+    {
+        stubServer.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+
+    /**
+     * Retrieves a search response via the {@linkplain HttpRequester}.
+     *
+     * @return the parsed search response
+     */
+    @Benchmark
+    public Object httpRequester()
+    {
+        return httpRequester.getObjectFromUrl(searchUrl, ArcGisConstants.MAPS_RESPONSE_TYPE);
+    }
+
+
+    /**
+     * Retrieves a search response via the default path of the {@linkplain ArcGisHttpClient}.
+     *
+     * @return the parsed search response
+     */
+    @Benchmark
+    public Object pooledClient()
+    {
+        return httpClient.getObjectFromUrl(searchUrl, ArcGisConstants.MAPS_RESPONSE_TYPE);
+    }
+
+
+    /**
+     * Responds with a small search result.
+     *
+     * @param exchange the request and response of the stub server
+     *
+     * @throws IOException thrown when the response could not be sent
+     */
+    private static void respond(final HttpExchange exchange) throws IOException
+    {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, RESPONSE_BODY.length);
+
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(RESPONSE_BODY);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.transformers;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.gerdiproject.harvest.etls.extractors.ArcGisMapVO;
+import de.gerdiproject.harvest.etls.transformers.utils.ArcGisValueInterner;
+import de.gerdiproject.json.datacite.DataCiteJson;
+
+/**
+ * This class measures the transformation of a corpus of maps with and without
+ * {@linkplain ArcGisValueInterner}s. The documents of the corpus are retained
+ * until the whole corpus is transformed, as they would be in a harvest that
+ * buffers documents. Running it with "-prof gc" reports the allocation rate
+ * and the heap of both variants; no figures have been recorded so far, so any
+ * savings of interning are yet to be measured.
+ *
+ * @author Robin Weiss
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArcGisInterningBenchmark
+{
+    private static final int CORPUS_SIZE = 4000;
+
+    @Param({"0", "10000"})
+    private int internedValues;
+
+    private ArcGisTransformer transformer;
+    private List<ArcGisMapVO> corpus;
+
+
+    /**
+     * Loads the corpus and enables or disables interning.
+     *
+     * @throws IOException thrown when a fixture could not be read
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException
+    {
+        transformer = new ArcGisTransformer("www.mo.ck/");
+        corpus = ArcGisTransformerFixtures.createCorpus(CORPUS_SIZE);
+        ArcGisTransformer.setMaxInternedValues(internedValues);
+    }
+
+
+    /**
+     * Disables interning again.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        ArcGisTransformer.setMaxInternedValues(0);
+    }
+
+
+    /**
+     * Transforms all maps of the corpus.
+     *
+     * @return the transformed documents
+     */
+    @Benchmark
+    public List<DataCiteJson> transformCorpus()
+    {
+        final List<DataCiteJson> documents = new ArrayList<>(CORPUS_SIZE);
+
+        for (final ArcGisMapVO vo : corpus)
+            documents.add(transformer.transformElement(vo));
+
+        return documents;
+    }
+}
@@ -0,0 +1,409 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.transformers;
+
+import java.io.IOException;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import de.gerdiproject.harvest.arcgis.constants.ArcGisDataCiteConstants;
+import de.gerdiproject.harvest.arcgis.constants.LinkAssemblerConstants;
+import de.gerdiproject.harvest.arcgis.json.ArcGisMap;
+import de.gerdiproject.harvest.etls.transformers.utils.ArcGisLinkHelper;
+import de.gerdiproject.json.datacite.extension.generic.ResearchData;
+import de.gerdiproject.json.datacite.extension.generic.WebLink;
+import de.gerdiproject.json.datacite.extension.generic.enums.WebLinkType;
+
+/**
+ * This class measures each method of the {@linkplain ArcGisLinkHelper} for the map
+ * of each fixture type of the ArcGisTransformerTest, reporting throughput and average time.
+ * It also compares the assembly of all links of a map via the type dispatch tables
+ * with the former approach, which called every link method for every map, matched
+ * the type string in each of them, and formatted each URL with
+ * {@linkplain String#format(String, Object...)}.
+ *
+ * @author Robin Weiss
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArcGisLinkHelperBenchmark
+{
+    private static final String BASE_URL = "www.mo.ck/";
+
+    @Param({"mocked", "documentLink", "imageService", "layerPackage", "mobileApplication", "vectorTileService", "webMap", "webScene"})
+    private String mapType;
+
+    private ArcGisMap map;
+
+
+    /**
+     * Loads the fixture of the map type.
+     *
+     * @throws IOException thrown when the fixture could not be read
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException
+    {
+        map = ArcGisTransformerFixtures.load(mapType).getMap();
+    }
+
+
+    /**
+     * Retrieves all web links of the map via {@linkplain ArcGisLinkHelper#getWebLinks}.
+     *
+     * @return all web links of the map
+     */
+    @Benchmark
+    public List<WebLink> getWebLinks()
+    {
+        return ArcGisLinkHelper.getWebLinks(map, BASE_URL);
+    }
+
+
+    /**
+     * Retrieves all files of the map via {@linkplain ArcGisLinkHelper#getResearchData}.
+     *
+     * @return all files of the map
+     */
+    @Benchmark
+    public List<ResearchData> getResearchData()
+    {
+        return ArcGisLinkHelper.getResearchData(map);
+    }
+
+
+    /**
+     * Retrieves the Map Viewer link via {@linkplain ArcGisLinkHelper#getMapViewerLink}.
+     *
+     * @return the Map Viewer link, or null if the map type does not provide it
+     */
+    @Benchmark
+    public WebLink getMapViewerLink()
+    {
+        return ArcGisLinkHelper.getMapViewerLink(map.getType(), map.getId());
+    }
+
+
+    /**
+     * Retrieves the Scene Viewer link via {@linkplain ArcGisLinkHelper#getSceneViewerLink}.
+     *
+     * @return the Scene Viewer link, or null if the map type does not provide it
+     */
+    @Benchmark
+    public WebLink getSceneViewerLink()
+    {
+        return ArcGisLinkHelper.getSceneViewerLink(map.getType(), map.getId());
+    }
+
+
+    /**
+     * Retrieves the ArcGis Desktop file via {@linkplain ArcGisLinkHelper#getArcGisDesktopLink}.
+     *
+     * @return the ArcGis Desktop file, or null if the map type does not provide it
+     */
+    @Benchmark
+    public ResearchData getArcGisDesktopLink()
+    {
+        return ArcGisLinkHelper.getArcGisDesktopLink(map.getType(), map.getId());
+    }
+
+
+    /**
+     * Retrieves the download file via {@linkplain ArcGisLinkHelper#getDownloadLink}.
+     *
+     * @return the download file, or null if the map type does not provide it
+     */
+    @Benchmark
+    public ResearchData getDownloadLink()
+    {
+        return ArcGisLinkHelper.getDownloadLink(map.getType(), map.getId(), map.getName());
+    }
+
+
+    /**
+     * Retrieves the style viewer link via {@linkplain ArcGisLinkHelper#getStyleViewerLink}.
+     *
+     * @return the style viewer link, or null if the map type does not provide it
+     */
+    @Benchmark
+    public WebLink getStyleViewerLink()
+    {
+        return ArcGisLinkHelper.getStyleViewerLink(map.getType(), map.getId());
+    }
+
+
+    /**
+     * Retrieves the metadata link via {@linkplain ArcGisLinkHelper#getMetadataLink}.
+     *
+     * @return the metadata link, or null if the map type does not provide it
+     */
+    @Benchmark
+    public WebLink getMetadataLink()
+    {
+        return ArcGisLinkHelper.getMetadataLink(map.getId(), map.getTypeKeywords());
+    }
+
+
+    /**
+     * Retrieves the document link via {@linkplain ArcGisLinkHelper#getOpenDocumentLink}.
+     *
+     * @return the document link, or null if the map type does not provide it
+     */
+    @Benchmark
+    public WebLink getOpenDocumentLink()
+    {
+        return ArcGisLinkHelper.getOpenDocumentLink(map.getType(), map.getUrl());
+    }
+
+
+    /**
+     * Retrieves the application link via {@linkplain ArcGisLinkHelper#getApplicationViewLink}.
+     *
+     * @return the application link, or null if the map type does not provide it
+     */
+    @Benchmark
+    public WebLink getApplicationViewLink()
+    {
+        return ArcGisLinkHelper.getApplicationViewLink(map.getType(), map.getUrl());
+    }
+
+
+    /**
+     * Retrieves the thumbnail link via {@linkplain ArcGisLinkHelper#getThumbnailLink}.
+     *
+     * @return the thumbnail link, or null if the map type does not provide it
+     */
+    @Benchmark
+    public WebLink getThumbnailLink()
+    {
+        return ArcGisLinkHelper.getThumbnailLink(map.getId(), map.getThumbnail(), map.getLargeThumbnail(), BASE_URL);
+    }
+
+
+    /**
+     * Retrieves the view link via {@linkplain ArcGisLinkHelper#getViewLink}.
+     *
+     * @return the view link
+     */
+    @Benchmark
+    public WebLink getViewLink()
+    {
+        return ArcGisLinkHelper.getViewLink(map.getId(), BASE_URL);
+    }
+
+
+    /**
+     * Assembles all links of the map via the dispatch tables.
+     *
+     * @param blackhole consumes the links
+     */
+    @Benchmark
+    public void dispatchTable(final Blackhole blackhole)
+    {
+        blackhole.consume(ArcGisLinkHelper.getWebLinks(map, BASE_URL));
+        blackhole.consume(ArcGisLinkHelper.getResearchData(map));
+    }
+
+
+    /**
+     * Assembles all links of the map the way it was done before the dispatch tables existed.
+     *
+     * @param blackhole consumes the links
+     */
+    @Benchmark
+    public void formatPerLink(final Blackhole blackhole)
+    {
+        blackhole.consume(getLegacyWebLinks(map));
+        blackhole.consume(getLegacyResearchData(map));
+    }
+
+
+    /**
+     * Calls every link method, formatting each URL and removing the
+     * links that do not apply to the map type afterwards.
+     *
+     * @param map the map for which the links are being generated
+     *
+     * @return a list of weblinks that are related to the map
+     */
+    private static List<WebLink> getLegacyWebLinks(final ArcGisMap map)
+    {
+        final String mapId = map.getId();
+        final String type = map.getType().trim();
+        final String thumbnailPath = map.getLargeThumbnail() != null ? map.getLargeThumbnail() : map.getThumbnail();
+        final List<String> keywords = map.getTypeKeywords();
+
+        final List<WebLink> webLinks = new LinkedList<>();
+        webLinks.add(ArcGisLinkHelper.createLink(
+                         String.format(ArcGisDataCiteConstants.VIEW_URL, BASE_URL, mapId),
+                         LinkAssemblerConstants.VIEW_URL_NAME,
+                         WebLinkType.ViewURL));
+        webLinks.add(thumbnailPath == null ? null : ArcGisLinkHelper.createLink(
+                         String.format(LinkAssemblerConstants.THUMBNAIL_URL, BASE_URL, mapId, thumbnailPath),
+                         LinkAssemblerConstants.THUMBNAIL_NAME,
+                         WebLinkType.ThumbnailURL));
+        webLinks.add(ArcGisLinkHelper.createLink(
+                         formatLegacySceneViewerUrl(type, mapId),
+                         LinkAssemblerConstants.SCENE_VIEWER_NAME,
+                         null));
+        webLinks.add(ArcGisLinkHelper.createLink(
+                         formatLegacyMapViewerUrl(type, mapId),
+                         LinkAssemblerConstants.VIEW_URL_NAME,
+                         null));
+        webLinks.add(!type.equals(LinkAssemblerConstants.VECTOR_TILE_SERVICE_TYPE) ? null : ArcGisLinkHelper.createLink(
+                         String.format(LinkAssemblerConstants.STYLE_VIEWER_URL, mapId),
+                         LinkAssemblerConstants.STYLE_VIEWER_NAME,
+                         null));
+        webLinks.add(keywords == null || !keywords.contains(LinkAssemblerConstants.METADATA_TYPE_KEYWORD) ? null : ArcGisLinkHelper.createLink(
+                         String.format(LinkAssemblerConstants.METADATA_URL, mapId),
+                         LinkAssemblerConstants.METADATA_VIEWER_NAME,
+                         null));
+        webLinks.add(!type.equals(LinkAssemblerConstants.MOBILE_APP_TYPE) && !type.equals(LinkAssemblerConstants.WEB_APP_TYPE)
+                     ? null
+                     : ArcGisLinkHelper.createLink(map.getUrl(), LinkAssemblerConstants.APPLICATION_VIEWER_NAME, null));
+        webLinks.add(!type.equals(LinkAssemblerConstants.DOCUMENT_LINK_TYPE)
+                     ? null
+                     : ArcGisLinkHelper.createLink(map.getUrl(), LinkAssemblerConstants.DOCUMENT_VIEWER_NAME, null));
+
+        webLinks.removeIf((final WebLink link) -> link == null);
+        return webLinks;
+    }
+
+
+    /**
+     * Calls every file method, formatting each URL.
+     *
+     * @param map the map for which the files are being generated
+     *
+     * @return a list of {@linkplain ResearchData} that are related to a map
+     */
+    private static List<ResearchData> getLegacyResearchData(final ArcGisMap map)
+    {
+        final List<ResearchData> files = new LinkedList<>();
+        final String mapId = map.getId();
+        final String type = map.getType();
+
+        switch (type) {
+            case LinkAssemblerConstants.MAP_SERVICE_TYPE:
+            case LinkAssemblerConstants.IMAGE_SERVICE_TYPE:
+            case LinkAssemblerConstants.WMS_TYPE:
+            case LinkAssemblerConstants.FEATURE_SERVICE_TYPE:
+                files.add(ArcGisLinkHelper.createFile(
+                              String.format(LinkAssemblerConstants.ARC_GIS_DESKTOP_URL_MAP_SERVICE, mapId),
+                              LinkAssemblerConstants.ARC_GIS_DESKTOP_FILE_NAME,
+                              LinkAssemblerConstants.ARC_GIS_DESKTOP_FILE_TYPE_MAPSERVICE));
+                break;
+
+            case LinkAssemblerConstants.WEB_MAP_TYPE:
+                files.add(ArcGisLinkHelper.createFile(
+                              String.format(LinkAssemblerConstants.ARC_GIS_DESKTOP_URL_WEB_MAP, mapId),
+                              LinkAssemblerConstants.ARC_GIS_DESKTOP_FILE_NAME,
+                              LinkAssemblerConstants.ARC_GIS_DESKTOP_FILE_TYPE_WEBMAP));
+                break;
+
+            default:
+                break;
+        }
+
+        if (type.equals(LinkAssemblerConstants.LAYER_PACKAGE_TYPE)
+            || type.equals(LinkAssemblerConstants.CODE_ATTACHMENT_TYPE)
+            || type.equals(LinkAssemblerConstants.RULE_PACKAGE_TYPE)) {
+            final String mapName = map.getName();
+            files.add(ArcGisLinkHelper.createFile(
+                          String.format(LinkAssemblerConstants.DOWNLOAD_URL, mapId),
+                          mapName.substring(mapName.lastIndexOf('.') + 1),
+                          type));
+        }
+
+        return files.isEmpty() ? null : files;
+    }
+
+
+    /**
+     * Formats the Map Viewer URL of a map type.
+     *
+     * @param type the type of the ArcGis map
+     * @param mapId the unique identifier of the map
+     *
+     * @return the URL or null if no URL is defined for the map type
+     */
+    private static String formatLegacyMapViewerUrl(final String type, final String mapId)
+    {
+        switch (type) {
+            case LinkAssemblerConstants.MAP_SERVICE_TYPE:
+            case LinkAssemblerConstants.IMAGE_SERVICE_TYPE:
+                return String.format(LinkAssemblerConstants.MAP_VIEWER_URL_MAP_SERVICE, mapId);
+
+            case LinkAssemblerConstants.FEATURE_COLLECTION_TYPE:
+            case LinkAssemblerConstants.VECTOR_TILE_SERVICE_TYPE:
+            case LinkAssemblerConstants.FEATURE_SERVICE_TYPE:
+            case LinkAssemblerConstants.WMS_TYPE:
+                return String.format(LinkAssemblerConstants.MAP_VIEWER_URL_FEATURE_SERVICE, mapId);
+
+            case LinkAssemblerConstants.WEB_MAP_TYPE:
+                return String.format(LinkAssemblerConstants.MAP_VIEWER_URL_WEB_MAP, mapId);
+
+            default:
+                return null;
+        }
+    }
+
+
+    /**
+     * Formats the Scene Viewer URL of a map type.
+     *
+     * @param type the type of the ArcGis map
+     * @param mapId the unique identifier of the map
+     *
+     * @return the URL or null if no URL is defined for the map type
+     */
+    private static String formatLegacySceneViewerUrl(final String type, final String mapId)
+    {
+        switch (type) {
+            case LinkAssemblerConstants.MAP_SERVICE_TYPE:
+            case LinkAssemblerConstants.IMAGE_SERVICE_TYPE:
+            case LinkAssemblerConstants.VECTOR_TILE_SERVICE_TYPE:
+            case LinkAssemblerConstants.FEATURE_SERVICE_TYPE:
+                return String.format(LinkAssemblerConstants.SCENE_VIEWER_URL_MAP_SERVICE, mapId);
+
+            case LinkAssemblerConstants.WEB_SCENE_TYPE:
+                return String.format(LinkAssemblerConstants.SCENE_VIEWER_URL_WEB_SCENE, mapId);
+
+            default:
+                return null;
+        }
+    }
+}
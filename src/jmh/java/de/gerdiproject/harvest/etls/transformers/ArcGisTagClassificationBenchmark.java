@@ -0,0 +1,129 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.transformers;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import de.gerdiproject.json.datacite.Date;
+import de.gerdiproject.json.datacite.Subject;
+import de.gerdiproject.json.datacite.abstr.AbstractDate;
+import de.gerdiproject.json.datacite.enums.DateType;
+
+/**
+ * This class compares the single pass over the tags of a map, which tells years apart
+ * from subjects with {@linkplain ArcGisTransformer#isYear(String)}, with the former
+ * approach of matching a year {@linkplain Pattern} against every tag in two passes.
+ *
+ * @author Robin Weiss
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArcGisTagClassificationBenchmark
+{
+    private static final Pattern YEAR_PATTERN = Pattern.compile("\\d\\d\\d\\d");
+    private static final int YEAR_INTERVAL = 10;
+
+    @Param({"10", "100", "500"})
+    private int tagCount;
+
+    private List<String> tags;
+
+
+    /**
+     * Creates the tags, every tenth of which is a year.
+     */
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        tags = new ArrayList<>(tagCount);
+
+        for (int i = 0; i < tagCount; i++)
+            tags.add(i % YEAR_INTERVAL == 0 ? String.valueOf(1900 + i % 120) : "tag number " + i);
+    }
+
+
+    /**
+     * Splits the tags into dates and subjects in a single pass.
+     *
+     * @param blackhole consumes the dates and subjects
+     */
+    @Benchmark
+    public void singlePass(final Blackhole blackhole)
+    {
+        final List<AbstractDate> dates = new LinkedList<>();
+        final List<Subject> subjects = new LinkedList<>();
+
+        for (final String tag : tags) {
+            if (ArcGisTransformer.isYear(tag))
+                dates.add(new Date(tag, DateType.Collected));
+            else
+                subjects.add(new Subject(tag));
+        }
+
+        blackhole.consume(dates);
+        blackhole.consume(subjects);
+    }
+
+
+    /**
+     * Matches the year pattern against every tag once for the dates and
+     * once for the subjects.
+     *
+     * @param blackhole consumes the dates and subjects
+     */
+    @Benchmark
+    public void regexTwoPasses(final Blackhole blackhole)
+    {
+        final List<AbstractDate> dates = new LinkedList<>();
+        final List<Subject> subjects = new LinkedList<>();
+
+        for (final String tag : tags) {
+            if (YEAR_PATTERN.matcher(tag).matches())
+                dates.add(new Date(tag, DateType.Collected));
+        }
+
+        for (final String tag : tags) {
+            if (!YEAR_PATTERN.matcher(tag).matches())
+                subjects.add(new Subject(tag));
+        }
+
+        blackhole.consume(dates);
+        blackhole.consume(subjects);
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.transformers;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import de.gerdiproject.harvest.etls.extractors.ArcGisMapVO;
+import de.gerdiproject.json.datacite.DataCiteJson;
+
+/**
+ * This class measures {@linkplain ArcGisTransformer#transformElement(ArcGisMapVO)}
+ * for a single map of each fixture type of the ArcGisTransformerTest, and for
+ * synthetically scaled corpora that repeat all fixtures.
+ * Both throughput and average time are reported. When the benchmarks are run with
+ * "-prof gc", which the benchmark profile does by default, the normalized allocation
+ * rate (gc.alloc.rate.norm) is the number of bytes that are allocated per operation.
+ *
+ * @author Robin Weiss
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArcGisTransformerBenchmark
+{
+    private static final String BASE_URL = "www.mo.ck/";
+
+
+    /**
+     * Transforms the map of a single fixture. The gc.alloc.rate.norm of this
+     * benchmark is the number of bytes that are allocated per document, against
+     * which changes of the transformation are accepted. No reference figure
+     * has been measured yet.
+     *
+     * @param state the fixture and the transformer
+     *
+     * @return the transformed document
+     */
+    @Benchmark
+    public DataCiteJson transformFixture(final FixtureState state)
+    {
+        return state.transformer.transformElement(state.vo);
+    }
+
+
+    /**
+     * Transforms all maps of a corpus.
+     *
+     * @param state the corpus and the transformer
+     * @param blackhole consumes the transformed documents
+     */
+    @Benchmark
+    public void transformCorpus(final CorpusState state, final Blackhole blackhole)
+    {
+        for (final ArcGisMapVO vo : state.corpus)
+            blackhole.consume(state.transformer.transformElement(vo));
+    }
+
+
+    /**
+     * The map of a single fixture type.
+     */
+    @State(Scope.Benchmark)
+    public static class FixtureState
+    {
+        @Param({"mocked", "documentLink", "imageService", "layerPackage", "mobileApplication", "vectorTileService", "webMap", "webScene"})
+        private String mapType;
+
+        private ArcGisTransformer transformer;
+        private ArcGisMapVO vo;
+
+
+        /**
+         * Loads the fixture of the map type and creates the transformer.
+         *
+         * @throws IOException thrown when the fixture could not be read
+         */
+        @Setup(Level.Trial)
+        public void setUp() throws IOException
+        {
+            transformer = new ArcGisTransformer(BASE_URL);
+            vo = ArcGisTransformerFixtures.load(mapType);
+        }
+    }
+
+
+    /**
+     * A corpus that repeats all fixtures until it has the specified size.
+     */
+    @State(Scope.Benchmark)
+    public static class CorpusState
+    {
+        @Param({"1000", "10000"})
+        private int corpusSize;
+
+        private ArcGisTransformer transformer;
+        private List<ArcGisMapVO> corpus;
+
+
+        /**
+         * Creates the corpus and the transformer.
+         *
+         * @throws IOException thrown when a fixture could not be read
+         */
+        @Setup(Level.Trial)
+        public void setUp() throws IOException
+        {
+            transformer = new ArcGisTransformer(BASE_URL);
+            corpus = ArcGisTransformerFixtures.createCorpus(corpusSize);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.transformers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gson.Gson;
+
+import de.gerdiproject.harvest.etls.extractors.ArcGisMapVO;
+import de.gerdiproject.json.GsonUtils;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * This class loads the input fixtures of the ArcGisTransformerTest,
+ * which cover all map types that are treated differently by the transformer.
+ *
+ * @author Robin Weiss
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class ArcGisTransformerFixtures
+{
+    public static final String[] MAP_TYPES = {
+        "mocked",
+        "documentLink",
+        "imageService",
+        "layerPackage",
+        "mobileApplication",
+        "vectorTileService",
+        "webMap",
+        "webScene"
+    };
+
+    private static final String INPUT_RESOURCE_FORMAT =
+        "/de/gerdiproject/harvest/etls/transformers/ArcGisTransformerTest/input-%s.json";
+
+
+    /**
+     * Loads the fixture of a single map type.
+     *
+     * @param mapType one of the {@linkplain #MAP_TYPES}
+     *
+     * @throws IOException thrown when the fixture could not be read
+     *
+     * @return the map of the fixture
+     */
+    public static ArcGisMapVO load(final String mapType) throws IOException
+    {
+        final Gson gson = GsonUtils.createGerdiDocumentGsonBuilder().create();
+        final InputStream resource = ArcGisTransformerFixtures.class.getResourceAsStream(String.format(INPUT_RESOURCE_FORMAT, mapType));
+
+        try (Reader reader = new InputStreamReader(resource, StandardCharsets.UTF_8)) {
+            return gson.fromJson(reader, ArcGisMapVO.class);
+        }
+    }
+
+
+    /**
+     * Creates a corpus that contains all fixtures in turn.
+     *
+     * @param size the number of maps of the corpus
+     *
+     * @throws IOException thrown when a fixture could not be read
+     *
+     * @return a list of maps that repeats the fixtures
+     */
+    public static List<ArcGisMapVO> createCorpus(final int size) throws IOException
+    {
+        final List<ArcGisMapVO> fixtures = new ArrayList<>(MAP_TYPES.length);
+
+        for (final String mapType : MAP_TYPES)
+            fixtures.add(load(mapType));
+
+        final List<ArcGisMapVO> corpus = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++)
+            corpus.add(fixtures.get(i % fixtures.size()));
+
+        return corpus;
+    }
+}
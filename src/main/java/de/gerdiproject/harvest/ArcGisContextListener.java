@@ -15,58 +15,143 @@
  */
 package de.gerdiproject.harvest;
 
+import java.io.File;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.servlet.annotation.WebListener;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import de.gerdiproject.harvest.application.ContextListener;
 import de.gerdiproject.harvest.arcgis.constants.ArcGisConstants;
 import de.gerdiproject.harvest.arcgis.json.ArcGisFeaturedGroup;
 import de.gerdiproject.harvest.arcgis.json.ArcGisOverview;
 import de.gerdiproject.harvest.etls.AbstractETL;
 import de.gerdiproject.harvest.etls.ArcGisETL;
-import de.gerdiproject.harvest.etls.extractors.ArcGisExtractor;
-import de.gerdiproject.harvest.utils.data.HttpRequester;
+import de.gerdiproject.harvest.etls.extractors.utils.ArcGisFeaturedGroupRegistry;
+import de.gerdiproject.harvest.etls.extractors.utils.ArcGisGroupSnapshot;
+import de.gerdiproject.harvest.etls.extractors.utils.ArcGisHttpClient;
+import de.gerdiproject.harvest.etls.extractors.utils.DaemonThreadFactory;
 
 /**
  * This class initializes the ArcGis harvester and all mandatory objects.
+ * The ETLs are created from the featured groups that were retrieved during the
+ * last start of the service, while the portals are queried in the background.
+ * Only if no such snapshot exists, the service waits for the portals to respond
+ * and fails to start if none of them can be reached.
  *
  * @author Robin Weiss
  */
 @WebListener
 public class ArcGisContextListener extends ContextListener
 {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ArcGisContextListener.class);
+
+    private static volatile File groupSnapshotFile = new File(ArcGisConstants.GROUP_SNAPSHOT_FILE);
+
+
     @Override
     protected List<? extends AbstractETL<?, ?>> createETLs()
     {
+        final ArcGisGroupSnapshot snapshot = new ArcGisGroupSnapshot(groupSnapshotFile);
+        final Map<String, List<ArcGisFeaturedGroup>> snapshotGroups = snapshot.load();
+        final CompletableFuture<Map<String, List<ArcGisFeaturedGroup>>> freshGroups = resolvePortals();
+
+        final Map<String, List<ArcGisFeaturedGroup>> groupsByPortal;
+
+        if (snapshotGroups == null) {
+            // without a snapshot, the ETLs cannot be created before the portals respond
+            groupsByPortal = awaitPortals(freshGroups);
+            updateSnapshot(snapshot, null, groupsByPortal);
+        } else {
+            groupsByPortal = snapshotGroups;
+            freshGroups.thenAccept((final Map<String, List<ArcGisFeaturedGroup>> fresh) ->
+                                   updateSnapshot(snapshot, snapshotGroups, fresh));
+        }
+
         final List<AbstractETL<?, ?>> etlList = new LinkedList<>();
 
         // add Esri harvesters
-        etlList.addAll(createETLsForURL(ArcGisConstants.ESRI_BASE_URL, ArcGisConstants.ESRI_SUFFIX));
+        etlList.addAll(createETLsForPortal(
+                           ArcGisConstants.ESRI_BASE_URL,
+                           ArcGisConstants.ESRI_SUFFIX,
+                           groupsByPortal.get(ArcGisConstants.ESRI_BASE_URL)));
 
         // add ArcGis harvesters
-        etlList.addAll(createETLsForURL(ArcGisConstants.ARC_GIS_BASE_URL, ArcGisConstants.ARC_GIS_SUFFIX));
+        etlList.addAll(createETLsForPortal(
+                           ArcGisConstants.ARC_GIS_BASE_URL,
+                           ArcGisConstants.ARC_GIS_SUFFIX,
+                           groupsByPortal.get(ArcGisConstants.ARC_GIS_BASE_URL)));
 
         return etlList;
     }
 
 
+    /**
+     * Changes the file in which the featured groups of all portals are stored
+     * between two starts of the service.
+     *
+     * @param snapshotFile the file in which the featured groups are stored
+     */
+    public static void setGroupSnapshotFile(final File snapshotFile)
+    {
+        groupSnapshotFile = snapshotFile;
+    }
+
+
+    /**
+     * Waits for the featured groups of the portals and queries the portals again
+     * if none of them could be reached.
+     *
+     * @param freshGroups the featured groups that are currently being retrieved
+     *
+     * @throws IllegalStateException thrown when no portal could be reached after all attempts
+     *
+     * @return a map of ArcGis base URLs to their featured groups, containing at least one portal
+     */
+    private static Map<String, List<ArcGisFeaturedGroup>> awaitPortals(final CompletableFuture<Map<String, List<ArcGisFeaturedGroup>>> freshGroups)
+    {
+        Map<String, List<ArcGisFeaturedGroup>> groupsByPortal = freshGroups.join();
+
+        for (int attempt = 1; groupsByPortal.isEmpty() && attempt < ArcGisConstants.PORTAL_RESOLVE_ATTEMPTS; attempt++) {
+            LOGGER.warn(String.format(ArcGisConstants.PORTAL_RESOLVE_RETRY, attempt, ArcGisConstants.PORTAL_RESOLVE_ATTEMPTS));
+            groupsByPortal = resolvePortals().join();
+        }
+
+        // starting without any ETL would silently harvest nothing
+        if (groupsByPortal.isEmpty())
+            throw new IllegalStateException(String.format(ArcGisConstants.NO_PORTAL_RESOLVED, ArcGisConstants.PORTAL_RESOLVE_ATTEMPTS));
+
+        return groupsByPortal;
+    }
+
+
     /**
      * Creates a list of {@linkplain AbstractETL}s for harvesting all featured groups of an ArcGis host.
      *
      * @param baseUrl the host of an ArcGis repository that contains featured groups
      * @param nameSuffix a name suffix used to distinguish sub-harvesters
+     * @param groups the featured groups of the host, or null if they are unknown
      *
      * @return a list of {@linkplain AbstractETL}s for harvesting all featured groups of an ArcGis host
      */
-    private static List<AbstractETL<?, ?>> createETLsForURL(final String baseUrl, final String nameSuffix)
+    private static List<AbstractETL<?, ?>> createETLsForPortal(final String baseUrl, final String nameSuffix, final List<ArcGisFeaturedGroup> groups)
     {
-        // retrieve list of groups from ArcGis
-        final List<ArcGisFeaturedGroup> groups = getFeaturedGroupsFromOverview(baseUrl);
-
         final List<AbstractETL<?, ?>> arcGisHarvesters = new LinkedList<>();
 
+        if (groups == null)
+            return arcGisHarvesters;
+
         // create sub-harvesters
         for (final ArcGisFeaturedGroup g : groups) {
             final String groupId = g.getId();
@@ -79,6 +164,120 @@ public class ArcGisContextListener extends ContextListener
     }
 
 
+    /**
+     * Retrieves the featured groups of all ArcGis portals in parallel.
+     * Portals that cannot be reached are missing in the resulting map.
+     *
+     * @return a future map of ArcGis base URLs to their featured groups
+     */
+    private static CompletableFuture<Map<String, List<ArcGisFeaturedGroup>>> resolvePortals()
+    {
+        final ExecutorService executor =
+            Executors.newFixedThreadPool(2, new DaemonThreadFactory(ArcGisConstants.PORTAL_RESOLVER_THREAD_NAME));
+
+        final CompletableFuture<List<ArcGisFeaturedGroup>> esriGroups = resolvePortal(ArcGisConstants.ESRI_BASE_URL, executor);
+        final CompletableFuture<List<ArcGisFeaturedGroup>> arcGisGroups = resolvePortal(ArcGisConstants.ARC_GIS_BASE_URL, executor);
+
+        return esriGroups.thenCombine(arcGisGroups, (
+                                          final List<ArcGisFeaturedGroup> esri,
+                                          final List<ArcGisFeaturedGroup> arcGis) -> {
+            final Map<String, List<ArcGisFeaturedGroup>> groupsByPortal = new LinkedHashMap<>();
+
+            if (esri != null)
+                groupsByPortal.put(ArcGisConstants.ESRI_BASE_URL, esri);
+
+            if (arcGis != null)
+                groupsByPortal.put(ArcGisConstants.ARC_GIS_BASE_URL, arcGis);
+
+            executor.shutdown();
+            return groupsByPortal;
+        });
+    }
+
+
+    /**
+     * Retrieves the featured groups of an ArcGis portal in the background.
+     *
+     * @param baseUrl the host of the ArcGis portal
+     * @param executor the executor that sends the requests
+     *
+     * @return the future featured groups, or a future null value if the portal could not be reached
+     */
+    private static CompletableFuture<List<ArcGisFeaturedGroup>> resolvePortal(final String baseUrl, final ExecutorService executor)
+    {
+        return CompletableFuture
+               .supplyAsync(() -> getFeaturedGroupsFromOverview(baseUrl), executor)
+        .exceptionally((final Throwable reason) -> {
+            LOGGER.warn(String.format(ArcGisConstants.PORTAL_RESOLVE_FAILED, baseUrl));
+            return null;
+        });
+    }
+
+
+    /**
+     * Stores freshly retrieved featured groups in the snapshot and logs
+     * groups that were added or removed since the last snapshot.
+     * Portals that could not be reached keep their previous groups.
+     *
+     * @param snapshot the snapshot that is to be updated
+     * @param oldGroups the previous groups of all portals, or null if there was no snapshot
+     * @param freshGroups the freshly retrieved groups of all reachable portals
+     */
+    private static void updateSnapshot(final ArcGisGroupSnapshot snapshot, final Map<String, List<ArcGisFeaturedGroup>> oldGroups, final Map<String, List<ArcGisFeaturedGroup>> freshGroups)
+    {
+        final Map<String, List<ArcGisFeaturedGroup>> mergedGroups = new LinkedHashMap<>();
+
+        if (oldGroups != null)
+            mergedGroups.putAll(oldGroups);
+
+        mergedGroups.putAll(freshGroups);
+
+        if (mergedGroups.isEmpty())
+            return;
+
+        snapshot.save(mergedGroups);
+
+        if (oldGroups == null)
+            return;
+
+        // log differences between the ETLs and the fresh groups
+        for (final Map.Entry<String, List<ArcGisFeaturedGroup>> portal : freshGroups.entrySet()) {
+            final String baseUrl = portal.getKey();
+            final List<ArcGisFeaturedGroup> oldPortalGroups = oldGroups.getOrDefault(baseUrl, Collections.emptyList());
+            final Set<String> oldIds = getGroupIds(oldPortalGroups);
+            final Set<String> freshIds = getGroupIds(portal.getValue());
+
+            for (final ArcGisFeaturedGroup group : portal.getValue()) {
+                if (!oldIds.contains(group.getId()))
+                    LOGGER.info(String.format(ArcGisConstants.GROUP_ADDED, group.getTitle(), baseUrl));
+            }
+
+            for (final ArcGisFeaturedGroup group : oldPortalGroups) {
+                if (!freshIds.contains(group.getId()))
+                    LOGGER.warn(String.format(ArcGisConstants.GROUP_REMOVED, group.getTitle(), baseUrl));
+            }
+        }
+    }
+
+
+    /**
+     * Collects the IDs of a list of featured groups.
+     *
+     * @param groups a list of featured groups
+     *
+     * @return a set of group IDs
+     */
+    private static Set<String> getGroupIds(final List<ArcGisFeaturedGroup> groups)
+    {
+        final Set<String> ids = new HashSet<>();
+
+        for (final ArcGisFeaturedGroup group : groups)
+            ids.add(group.getId());
+
+        return ids;
+    }
+
+
     /**
      * Retrieves a list of featured groups from an ArcGis map host.
      *
@@ -88,11 +287,11 @@ public class ArcGisContextListener extends ContextListener
      */
     private static List<ArcGisFeaturedGroup> getFeaturedGroupsFromOverview(final String baseUrl)
     {
-        final HttpRequester httpRequester = new HttpRequester();
+        final ArcGisHttpClient httpClient = ArcGisHttpClient.getInstance();
 
         // get overview object
         final String overviewUrl = baseUrl + ArcGisConstants.OVERVIEW_URL_SUFFIX;
-        final ArcGisOverview overviewObj = httpRequester.getObjectFromUrl(overviewUrl, ArcGisOverview.class);
+        final ArcGisOverview overviewObj = httpClient.getObjectFromUrl(overviewUrl, ArcGisOverview.class);
 
         List<ArcGisFeaturedGroup> featuredGroups;
 
@@ -104,7 +303,7 @@ public class ArcGisContextListener extends ContextListener
         else {
             // if the featured groups are missing IDs, get them via another request
             final String galleryQuery = overviewObj.getLivingAtlasGroupQuery();
-            featuredGroups = ArcGisExtractor.getFeaturedGroupsByQuery(httpRequester, baseUrl, galleryQuery);
+            featuredGroups = ArcGisFeaturedGroupRegistry.getGroupsByQuery(httpClient, baseUrl, galleryQuery);
         }
 
         return featuredGroups;
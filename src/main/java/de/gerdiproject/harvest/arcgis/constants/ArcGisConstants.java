@@ -16,7 +16,8 @@
 package de.gerdiproject.harvest.arcgis.constants;
 
 import java.lang.reflect.Type;
-import java.util.regex.Pattern;
+import java.util.List;
+import java.util.Map;
 
 import com.google.gson.reflect.TypeToken;
 
@@ -35,8 +36,18 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class ArcGisConstants
 {
-    public static final String MAPS_URL = "%s/sharing/rest/search?q=%%20group%%3A%s%%20&sortField=title&sortOrder=asc&start=%d&num=100&f=json";
-    public static final String MAPS_INFO_URL = "%s/sharing/rest/search?q=%%20group%%3A%s%%20&num=0&f=json";
+    public static final String MAPS_URL = "%s/sharing/rest/search?q=%s&sortField=title&sortOrder=asc&start=%d&num=100&f=json";
+    public static final int MAPS_PER_PAGE = 100;
+    public static final String MAPS_FINGERPRINT_URL = "%s/sharing/rest/search?q=%s&sortField=modified&sortOrder=desc&num=1&f=json";
+    public static final String FINGERPRINT_ALGORITHM = "SHA-256";
+    public static final String FINGERPRINT_FAILED = "Could not retrieve the most recently modified map of %s";
+    public static final String PAGE_FAILED = "Could not retrieve the maps of %s";
+    public static final String MAPS_COUNT_URL = "%s/sharing/rest/search?q=%s&num=0&f=json";
+    public static final String MAPS_COUNT_FAILED = "Could not count the maps of %s";
+    public static final int SEARCH_WINDOW_LIMIT = 10000;
+    public static final String CREATED_RANGE_FILTER = "%%20AND%%20created%%3A%%5B%019d%%20TO%%20%019d%%5D";
+    public static final String GROUP_QUERY = "%%20group%%3A%s%%20";
+    public static final String MODIFIED_SINCE_FILTER = "AND%%20modified%%3A%%5B%019d%%20TO%%209999999999999999999%%5D";
 
     public static final String ARC_GIS_BASE_URL = "http://arcgis.com";
     public static final String ESRI_BASE_URL = "http://esri.maps.arcgis.com";
@@ -46,11 +57,90 @@ public class ArcGisConstants
     public static final String ARC_GIS_SUFFIX = "_ArcGisETL";
     public static final String ESRI_SUFFIX = "_EsriETL";
 
-    public static final Pattern YEAR_PATTERN = Pattern.compile("\\d\\d\\d\\d");
+    public static final int YEAR_LENGTH = 4;
 
     public static final String USER_PROFILE_URL = "http://www.arcgis.com/sharing/rest/community/users/%s?f=json";
+    public static final int OWNER_RESOLVER_THREAD_COUNT = 8;
+    public static final String OWNER_RESOLVER_THREAD_NAME = "ArcGisOwnerResolver-";
+    public static final String PAGE_PREFETCHER_THREAD_NAME = "ArcGisPagePrefetcher-";
+    public static final String PAGE_FAN_OUT_THREAD_NAME = "ArcGisPageFanOut-";
+    public static final String PARTITION_THREAD_NAME = "ArcGisPartition-";
+    public static final int PARTITION_THREAD_COUNT = 4;
+    public static final String PARTITION_INFO = "%s: splitting %d maps into %d ranges of creation dates";
+    public static final String PARTITION_TOO_LARGE = "Cannot split the %2$d maps that were created at %1$d, some of them may be missing";
+    public static final long HARVEST_CYCLE_TIMEOUT_HOURS = 12;
+    public static final String DUPLICATE_MAPS_SKIPPED = "%s: skipped %d maps that were already harvested by other ETLs (%d in total since startup)";
+    public static final String DUPLICATE_MAPS_FOUND = "%s: %d maps were already harvested by other ETLs (%d in total since startup)";
+    public static final String CONCURRENT_EXTRACTION_THREAD_NAME = "ArcGisConcurrentExtraction-";
+    public static final int CONCURRENT_EXTRACTION_BUFFER_SIZE = 2 * MAPS_PER_PAGE;
+    public static final long CONCURRENT_EXTRACTION_SHUTDOWN_SECONDS = 10;
+    public static final String CONCURRENT_EXTRACTION_INFO = "Started extracting %d ETLs concurrently";
+    public static final String TRANSFORMER_THREAD_NAME = "ArcGisTransformer-";
+    public static final char INTERNED_LANGUAGE_SEPARATOR = '\u0000';
+    public static final String UNSUPPORTED_LINK_TEMPLATE = "Link template '%s' may only contain '%%s' and '%%%%'";
+    public static final String GROUP_REFRESH_THREAD_NAME = "ArcGisGroupRefresh-";
+    public static final long GROUP_REFRESH_INTERVAL_HOURS = 24;
+    public static final String GROUP_REFRESH_FAILED = "Could not refresh featured groups of query '%s' on %s";
+    public static final String GROUP_SNAPSHOT_FILE = "cache/arcgis/featuredGroups.json";
+    public static final String PORTAL_RESOLVER_THREAD_NAME = "ArcGisPortalResolver-";
+    public static final String PORTAL_RESOLVE_FAILED = "Could not retrieve featured groups of %s";
+    public static final int PORTAL_RESOLVE_ATTEMPTS = 3;
+    public static final String PORTAL_RESOLVE_RETRY = "No ArcGis portal could be reached (attempt %d of %d), retrying";
+    public static final String NO_PORTAL_RESOLVED = "No ArcGis portal could be reached after %d attempts and no snapshot of featured groups exists";
+    public static final String GROUP_ADDED = "Featured group '%s' was added to %s and will be harvested after the next restart";
+    public static final String GROUP_REMOVED = "Featured group '%s' was removed from %s";
+    public static final String OWNER_CACHE_FOLDER = "cache/arcgis/owners";
+    public static final String OWNER_CACHE_STATS = "Owner cache of %s: %d hits, %d misses, %d expired profiles were downloaded again without modifications";
+    public static final String JSON_FILE_EXTENSION = ".json";
+    public static final String WATERMARK_FOLDER = "cache/arcgis/watermarks";
+    public static final String INCREMENTAL_HARVEST_INFO = "%s: harvesting only maps that were modified since %s";
+    public static final String CHECKPOINT_FOLDER = "cache/arcgis/checkpoints";
+    public static final String JOURNAL_FILE_EXTENSION = ".jsonl";
+    public static final String CHECKPOINT_READ_FAILED = "%s: could not read the checkpoint of the interrupted harvest";
+    public static final String CHECKPOINT_WRITE_FAILED = "%s: could not write the checkpoint of the harvest";
+    public static final String RESUME_HARVEST_INFO = "%s: resuming the interrupted harvest at map %d, skipping %d maps that were already extracted";
+
+    public static final String ETAG_HEADER = "ETag";
+    public static final String LAST_MODIFIED_HEADER = "Last-Modified";
+    public static final String IF_NONE_MATCH_HEADER = "If-None-Match";
+    public static final String IF_MODIFIED_SINCE_HEADER = "If-Modified-Since";
+    public static final String HTTP_STATUS_ERROR = "Unexpected HTTP status %d";
+    public static final String HTTP_REQUEST_FAILED = "Could not retrieve %s";
+    public static final String UNKNOWN_HOST_KEY = "unknownHost";
+    public static final String UNKNOWN_HOST = "Cannot determine the host of %s, it shares its rate limit with other such URLs";
+    public static final int CONNECT_TIMEOUT_MILLIS = 10000;
+    public static final int READ_TIMEOUT_MILLIS = 60000;
+    public static final String ACCEPT_ENCODING_HEADER = "Accept-Encoding";
+    public static final String ACCEPTED_ENCODINGS = "gzip, deflate";
+    public static final String GZIP_ENCODING = "gzip";
+    public static final String X_GZIP_ENCODING = "x-gzip";
+    public static final String DEFLATE_ENCODING = "deflate";
+    public static final String TRANSFER_STATS = "Transferred bytes since startup (compressed/uncompressed): %s";
+    public static final String TRANSFER_STATS_ENTRY = "%s: %d/%d";
+    public static final String RECORDED_RESPONSES_FOLDER = "cache/arcgis/mockedHttpResponses";
+    public static final String MOCKED_RESPONSE_MISSING = "No mocked response of %s in %s, asking the HttpRequester instead";
+    public static final String RECORD_FAILED = "Could not record the response of %s";
+    public static final String PROTOCOL_SEPARATOR = "://";
+    public static final String QUERY_FOLDER = "/%query%/";
+    public static final String RESPONSE_FILE_EXTENSION = ".response";
+    public static final String TIMING_FILE_EXTENSION = ".timing.json";
+    public static final String RETRY_AFTER_HEADER = "Retry-After";
+    public static final int HTTP_TOO_MANY_REQUESTS = 429;
+    public static final String HTTP_RETRY = "Could not retrieve %s, retrying in %d ms (attempt %d of %d)";
+    public static final long BACKOFF_BASE_MILLIS = 500;
+    public static final long BACKOFF_MAX_MILLIS = 30000;
+    public static final long RETRY_AFTER_MAX_MILLIS = 60000;
+    public static final double MIN_REQUESTS_PER_SECOND = 0.5;
+    public static final double RATE_INCREASE_STEP = 0.1;
+    public static final double RATE_DECREASE_FACTOR = 0.5;
+    public static final double RATE_LATENCY_DECREASE_FACTOR = 0.9;
+    public static final double LATENCY_THRESHOLD_FACTOR = 4;
+    public static final double LATENCY_SMOOTHING_FACTOR = 0.2;
+    public static final double LATENCY_BASELINE_DRIFT = 0.01;
+    public static final long RATE_DECREASE_INTERVAL_MILLIS = 1000;
 
     public static final Type MAPS_RESPONSE_TYPE = new TypeToken<GenericArcGisResponse<ArcGisMap>>() {} .getType();
     public static final Type FEATURED_GROUPS_RESPONSE_TYPE = new TypeToken<GenericArcGisResponse<ArcGisFeaturedGroup>>() {} .getType();
+    public static final Type GROUP_SNAPSHOT_TYPE = new TypeToken<Map<String, List<ArcGisFeaturedGroup>>>() {} .getType();
 
 }
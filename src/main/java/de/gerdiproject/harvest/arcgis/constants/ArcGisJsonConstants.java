@@ -0,0 +1,55 @@
+/**
+ * Copyright © 2019 Robin Weiss (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.arcgis.constants;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+
+/**
+ * A static collection of field names of ArcGis JSON responses,
+ * used for parsing the responses as streams.
+ *
+ * @author Robin Weiss
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ArcGisJsonConstants
+{
+    // search responses
+    public static final String TOTAL = "total";
+    public static final String NEXT_START = "nextStart";
+    public static final String RESULTS = "results";
+
+    // maps
+    public static final String ID = "id";
+    public static final String OWNER = "owner";
+    public static final String CREATED = "created";
+    public static final String MODIFIED = "modified";
+    public static final String NAME = "name";
+    public static final String TITLE = "title";
+    public static final String TYPE = "type";
+    public static final String TYPE_KEYWORDS = "typeKeywords";
+    public static final String DESCRIPTION = "description";
+    public static final String TAGS = "tags";
+    public static final String SNIPPET = "snippet";
+    public static final String THUMBNAIL = "thumbnail";
+    public static final String EXTENT = "extent";
+    public static final String SPATIAL_REFERENCE = "spatialReference";
+    public static final String LICENSE_INFO = "licenseInfo";
+    public static final String CULTURE = "culture";
+    public static final String URL = "url";
+    public static final String LARGE_THUMBNAIL = "largeThumbnail";
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright © 2019 Robin Weiss (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.arcgis.constants;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+
+/**
+ * A static collection of keys and default values of
+ * configurable parameters that tune the ArcGis harvest.
+ *
+ * @author Robin Weiss
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ArcGisParameterConstants
+{
+    public static final String CATEGORY = "ArcGIS";
+
+    public static final String OWNER_CACHE_TTL_KEY = "ownerCacheHours";
+    public static final int OWNER_CACHE_TTL_DEFAULT = 168;
+
+    public static final String PREFETCH_DEPTH_KEY = "pagePrefetchDepth";
+    public static final int PREFETCH_DEPTH_DEFAULT = 1;
+
+    public static final String FAN_OUT_PARALLELISM_KEY = "pageFanOutParallelism";
+    public static final int FAN_OUT_PARALLELISM_DEFAULT = 0;
+
+    public static final String STREAM_PAGES_KEY = "streamPages";
+    public static final boolean STREAM_PAGES_DEFAULT = false;
+
+    public static final String INCREMENTAL_KEY = "incrementalHarvest";
+    public static final boolean INCREMENTAL_DEFAULT = false;
+
+    public static final String SKIP_DUPLICATES_KEY = "skipDuplicateMaps";
+    public static final boolean SKIP_DUPLICATES_DEFAULT = false;
+
+    public static final String DIRECT_REQUESTS_KEY = "directRequests";
+    public static final boolean DIRECT_REQUESTS_DEFAULT = true;
+
+    // parameter of the library that enables the replay of mocked HTTP responses
+    public static final String READ_FROM_DISK_CATEGORY = "HttpRequests";
+    public static final String READ_FROM_DISK_KEY = "readFromDisk";
+    public static final boolean READ_FROM_DISK_DEFAULT = false;
+
+    public static final String HTTP_CACHE_ENTRIES_KEY = "httpCacheEntries";
+    public static final int HTTP_CACHE_ENTRIES_DEFAULT = 0;
+
+    public static final String HTTP_CACHE_KILOBYTES_KEY = "httpCacheKilobytes";
+    public static final int HTTP_CACHE_KILOBYTES_DEFAULT = 16384;
+
+    public static final String REQUESTS_PER_SECOND_KEY = "requestsPerSecond";
+    public static final int REQUESTS_PER_SECOND_DEFAULT = 50;
+
+    public static final String MAX_REQUESTS_PER_SECOND_KEY = "maxRequestsPerSecond";
+    public static final int MAX_REQUESTS_PER_SECOND_DEFAULT = 50;
+
+    public static final String CONNECTIONS_PER_HOST_KEY = "connectionsPerHost";
+    // the default size of the keep-alive cache of the JVM
+    public static final int CONNECTIONS_PER_HOST_DEFAULT = 5;
+
+    public static final String HTTP_RETRIES_KEY = "httpRetries";
+    public static final int HTTP_RETRIES_DEFAULT = 3;
+
+    public static final String MAX_IN_FLIGHT_REQUESTS_KEY = "maxInFlightRequests";
+    public static final int MAX_IN_FLIGHT_REQUESTS_DEFAULT = 16;
+
+    public static final String CONCURRENT_EXTRACTION_KEY = "concurrentExtraction";
+    public static final boolean CONCURRENT_EXTRACTION_DEFAULT = false;
+
+    public static final String CHECKPOINTS_KEY = "resumeInterruptedHarvests";
+    public static final boolean CHECKPOINTS_DEFAULT = false;
+
+    public static final String RECORD_RESPONSES_KEY = "recordResponses";
+    public static final boolean RECORD_RESPONSES_DEFAULT = false;
+
+    public static final String TRANSFORM_PARALLELISM_KEY = "transformParallelism";
+    public static final int TRANSFORM_PARALLELISM_DEFAULT = 0;
+
+    public static final String INTERNED_VALUES_KEY = "internedValues";
+    public static final int INTERNED_VALUES_DEFAULT = 0;
+}
@@ -17,16 +17,21 @@ package de.gerdiproject.harvest.arcgis.json;
 
 import java.util.List;
 
-import com.google.gson.JsonArray;
+import com.google.gson.annotations.JsonAdapter;
 
+import de.gerdiproject.harvest.arcgis.json.adapters.ArcGisMapAdapter;
 import lombok.Value;
 
 /**
  * Information about an ArcGis map.
+ * Only fields that are needed for the harvest are parsed. All other fields
+ * are skipped by the {@linkplain ArcGisMapAdapter} without being deserialized.
+ * The extent is stored as a flat array of two corner points: [x1, y1, x2, y2].
  *
  * @author Robin Weiss
  */
 @Value
+@JsonAdapter(ArcGisMapAdapter.class)
 public class ArcGisMap
 {
     private final String id;
@@ -41,23 +46,10 @@ public class ArcGisMap
     private final List<String> tags;
     private final String snippet;
     private final String thumbnail;
-    private final List<List<Double>> extent;
-    private final JsonArray categories;
+    private final double[] extent;
     private final String spatialReference;
-    private final String accessInformation;
     private final String licenseInfo;
     private final String culture;
     private final String url;
-    private final String access;
-    private final int size;
-    private final JsonArray appCategories;
-    private final JsonArray industries;
-    private final JsonArray languages;
     private final String largeThumbnail;
-    private final JsonArray screenshots;
-    private final boolean listed;
-    private final int numComments;
-    private final int numRatings;
-    private final float avgRating;
-    private final int numViews;
 }
@@ -0,0 +1,297 @@
+/**
+ * Copyright © 2019 Robin Weiss (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.arcgis.json.adapters;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import de.gerdiproject.harvest.arcgis.constants.ArcGisJsonConstants;
+import de.gerdiproject.harvest.arcgis.json.ArcGisMap;
+
+/**
+ * This adapter parses {@linkplain ArcGisMap}s from a JSON stream.
+ * Fields that are not part of the {@linkplain ArcGisMap} are skipped on
+ * the token level, without creating any intermediate JSON objects.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisMapAdapter extends TypeAdapter<ArcGisMap>
+{
+    @Override
+    public void write(final JsonWriter out, final ArcGisMap map) throws IOException
+    {
+        if (map == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name(ArcGisJsonConstants.ID).value(map.getId());
+        out.name(ArcGisJsonConstants.OWNER).value(map.getOwner());
+        out.name(ArcGisJsonConstants.CREATED).value(map.getCreated());
+        out.name(ArcGisJsonConstants.MODIFIED).value(map.getModified());
+        out.name(ArcGisJsonConstants.NAME).value(map.getName());
+        out.name(ArcGisJsonConstants.TITLE).value(map.getTitle());
+        out.name(ArcGisJsonConstants.TYPE).value(map.getType());
+        writeStringList(out, ArcGisJsonConstants.TYPE_KEYWORDS, map.getTypeKeywords());
+        out.name(ArcGisJsonConstants.DESCRIPTION).value(map.getDescription());
+        writeStringList(out, ArcGisJsonConstants.TAGS, map.getTags());
+        out.name(ArcGisJsonConstants.SNIPPET).value(map.getSnippet());
+        out.name(ArcGisJsonConstants.THUMBNAIL).value(map.getThumbnail());
+        writeExtent(out, map.getExtent());
+        out.name(ArcGisJsonConstants.SPATIAL_REFERENCE).value(map.getSpatialReference());
+        out.name(ArcGisJsonConstants.LICENSE_INFO).value(map.getLicenseInfo());
+        out.name(ArcGisJsonConstants.CULTURE).value(map.getCulture());
+        out.name(ArcGisJsonConstants.URL).value(map.getUrl());
+        out.name(ArcGisJsonConstants.LARGE_THUMBNAIL).value(map.getLargeThumbnail());
+        out.endObject();
+    }
+
+
+    @Override
+    public ArcGisMap read(final JsonReader in) throws IOException
+    {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        String id = null;
+        String owner = null;
+        Long created = null;
+        Long modified = null;
+        String name = null;
+        String title = null;
+        String type = null;
+        List<String> typeKeywords = null;
+        String description = null;
+        List<String> tags = null;
+        String snippet = null;
+        String thumbnail = null;
+        double[] extent = null;
+        String spatialReference = null;
+        String licenseInfo = null;
+        String culture = null;
+        String url = null;
+        String largeThumbnail = null;
+
+        in.beginObject();
+
+        while (in.hasNext()) {
+            final String fieldName = in.nextName();
+
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+
+            switch (fieldName) {
+                case ArcGisJsonConstants.ID:
+                    id = in.nextString();
+                    break;
+
+                case ArcGisJsonConstants.OWNER:
+                    owner = in.nextString();
+                    break;
+
+                case ArcGisJsonConstants.CREATED:
+                    created = in.nextLong();
+                    break;
+
+                case ArcGisJsonConstants.MODIFIED:
+                    modified = in.nextLong();
+                    break;
+
+                case ArcGisJsonConstants.NAME:
+                    name = in.nextString();
+                    break;
+
+                case ArcGisJsonConstants.TITLE:
+                    title = in.nextString();
+                    break;
+
+                case ArcGisJsonConstants.TYPE:
+                    type = in.nextString();
+                    break;
+
+                case ArcGisJsonConstants.TYPE_KEYWORDS:
+                    typeKeywords = readStringList(in);
+                    break;
+
+                case ArcGisJsonConstants.DESCRIPTION:
+                    description = in.nextString();
+                    break;
+
+                case ArcGisJsonConstants.TAGS:
+                    tags = readStringList(in);
+                    break;
+
+                case ArcGisJsonConstants.SNIPPET:
+                    snippet = in.nextString();
+                    break;
+
+                case ArcGisJsonConstants.THUMBNAIL:
+                    thumbnail = in.nextString();
+                    break;
+
+                case ArcGisJsonConstants.EXTENT:
+                    extent = readExtent(in);
+                    break;
+
+                case ArcGisJsonConstants.SPATIAL_REFERENCE:
+                    spatialReference = in.nextString();
+                    break;
+
+                case ArcGisJsonConstants.LICENSE_INFO:
+                    licenseInfo = in.nextString();
+                    break;
+
+                case ArcGisJsonConstants.CULTURE:
+                    culture = in.nextString();
+                    break;
+
+                case ArcGisJsonConstants.URL:
+                    url = in.nextString();
+                    break;
+
+                case ArcGisJsonConstants.LARGE_THUMBNAIL:
+                    largeThumbnail = in.nextString();
+                    break;
+
+                default:
+                    in.skipValue();
+            }
+        }
+
+        in.endObject();
+
+        return new ArcGisMap(
+                   id, owner, created, modified, name, title, type, typeKeywords, description, tags,
+                   snippet, thumbnail, extent, spatialReference, licenseInfo, culture, url, largeThumbnail);
+    }
+
+
+    /**
+     * Reads a JSON array of strings.
+     *
+     * @param in the reader of the JSON stream
+     *
+     * @return a list of strings
+     *
+     * @throws IOException thrown when the stream could not be read
+     */
+    private static List<String> readStringList(final JsonReader in) throws IOException
+    {
+        final List<String> list = new ArrayList<>();
+        in.beginArray();
+
+        while (in.hasNext())
+            list.add(in.nextString());
+
+        in.endArray();
+        return list;
+    }
+
+
+    /**
+     * Reads an extent that consists of two points, flattening it to an array
+     * of four primitive values.
+     *
+     * @param in the reader of the JSON stream
+     *
+     * @return an array of the form [x1, y1, x2, y2], or null if the extent has fewer than two points
+     *
+     * @throws IOException thrown when the stream could not be read
+     */
+    private static double[] readExtent(final JsonReader in) throws IOException
+    {
+        final double[] extent = new double[4];
+        int pointCount = 0;
+        in.beginArray();
+
+        while (in.hasNext()) {
+            int coordinateCount = 0;
+            in.beginArray();
+
+            // only the first two coordinates of the first two points are relevant
+            while (in.hasNext()) {
+                if (pointCount < 2 && coordinateCount < 2)
+                    extent[2 * pointCount + coordinateCount] = in.nextDouble();
+                else
+                    in.skipValue();
+
+                coordinateCount++;
+            }
+
+            in.endArray();
+
+            if (coordinateCount >= 2)
+                pointCount++;
+        }
+
+        in.endArray();
+        return pointCount >= 2 ? extent : null;
+    }
+
+
+    /**
+     * Writes a list of strings as a JSON array, unless the list is null.
+     *
+     * @param out the writer of the JSON stream
+     * @param fieldName the name of the field
+     * @param list the list that is to be written
+     *
+     * @throws IOException thrown when the stream could not be written
+     */
+    private static void writeStringList(final JsonWriter out, final String fieldName, final List<String> list) throws IOException
+    {
+        if (list == null)
+            return;
+
+        out.name(fieldName).beginArray();
+
+        for (final String value : list)
+            out.value(value);
+
+        out.endArray();
+    }
+
+
+    /**
+     * Writes a flat extent array as a JSON array of two points, unless the extent is null.
+     *
+     * @param out the writer of the JSON stream
+     * @param extent an array of the form [x1, y1, x2, y2]
+     *
+     * @throws IOException thrown when the stream could not be written
+     */
+    private static void writeExtent(final JsonWriter out, final double[] extent) throws IOException
+    {
+        if (extent == null)
+            return;
+
+        out.name(ArcGisJsonConstants.EXTENT).beginArray();
+        out.beginArray().value(extent[0]).value(extent[1]).endArray();
+        out.beginArray().value(extent[2]).value(extent[3]).endArray();
+        out.endArray();
+    }
+}
@@ -27,6 +27,9 @@ import de.gerdiproject.json.datacite.DataCiteJson;
  */
 public class ArcGisETL extends StaticIteratorETL<ArcGisMapVO, DataCiteJson>
 {
+    private final ArcGisExtractor arcGisExtractor;
+
+
     /**
      * Creates an ETL for a group of maps. Each group has a unique groupId.
      *
@@ -35,11 +38,35 @@ public class ArcGisETL extends StaticIteratorETL<ArcGisMapVO, DataCiteJson>
      * @param groupId the unique ID of the group of maps that is to be harvested
      */
     public ArcGisETL(final String groupName, final String baseUrl, final String groupId)
+    {
+        this(groupName, baseUrl, new ArcGisExtractor(baseUrl, groupId));
+    }
+
+
+    /**
+     * Creates an ETL for a group of maps that are retrieved by a specified extractor.
+     *
+     * @param groupName the title of the group of maps that is to be harvested
+     * @param baseUrl the host of the maps
+     * @param extractor the extractor that retrieves the maps of the group
+     */
+    private ArcGisETL(final String groupName, final String baseUrl, final ArcGisExtractor extractor)
     {
         super(
             groupName,
-            new ArcGisExtractor(baseUrl, groupId),
+            extractor,
             new ArcGisTransformer(baseUrl)
         );
+        this.arcGisExtractor = extractor;
+    }
+
+
+    @Override
+    protected void harvestInternal()
+    {
+        super.harvestInternal();
+
+        // the harvest is only complete after all documents were loaded
+        arcGisExtractor.commitHarvest();
     }
 }
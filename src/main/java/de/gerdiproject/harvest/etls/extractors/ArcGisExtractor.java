@@ -16,19 +16,56 @@
  */
 package de.gerdiproject.harvest.etls.extractors;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
 
 import de.gerdiproject.harvest.arcgis.constants.ArcGisConstants;
+import de.gerdiproject.harvest.arcgis.constants.ArcGisParameterConstants;
 import de.gerdiproject.harvest.arcgis.json.ArcGisFeaturedGroup;
 import de.gerdiproject.harvest.arcgis.json.ArcGisMap;
-import de.gerdiproject.harvest.arcgis.json.ArcGisUser;
 import de.gerdiproject.harvest.arcgis.json.generic.GenericArcGisResponse;
+import de.gerdiproject.harvest.config.Configuration;
+import de.gerdiproject.harvest.config.parameters.BooleanParameter;
+import de.gerdiproject.harvest.config.parameters.IntegerParameter;
 import de.gerdiproject.harvest.etls.AbstractETL;
-import de.gerdiproject.harvest.utils.data.HttpRequester;
+import de.gerdiproject.harvest.etls.extractors.utils.ArcGisBackgroundIterator;
+import de.gerdiproject.harvest.etls.extractors.utils.ArcGisCheckpoint;
+import de.gerdiproject.harvest.etls.extractors.utils.ArcGisCheckpointStore;
+import de.gerdiproject.harvest.etls.extractors.utils.ArcGisDatePartitioner;
+import de.gerdiproject.harvest.etls.extractors.utils.ArcGisDateRange;
+import de.gerdiproject.harvest.etls.extractors.utils.ArcGisExtractionScheduler;
+import de.gerdiproject.harvest.etls.extractors.utils.ArcGisFeaturedGroupRegistry;
+import de.gerdiproject.harvest.etls.extractors.utils.ArcGisFingerprintHelper;
+import de.gerdiproject.harvest.etls.extractors.utils.ArcGisHarvestedMapRegistry;
+import de.gerdiproject.harvest.etls.extractors.utils.ArcGisHttpClient;
+import de.gerdiproject.harvest.etls.extractors.utils.ArcGisOwnerCache;
+import de.gerdiproject.harvest.etls.extractors.utils.ArcGisOwnerResolver;
+import de.gerdiproject.harvest.etls.extractors.utils.ArcGisPageFanOut;
+import de.gerdiproject.harvest.etls.extractors.utils.ArcGisPagePrefetcher;
+import de.gerdiproject.harvest.etls.extractors.utils.ArcGisPartitionedPageSource;
+import de.gerdiproject.harvest.etls.extractors.utils.ArcGisSearchPageReader;
+import de.gerdiproject.harvest.etls.extractors.utils.ArcGisWatermarkStore;
+import de.gerdiproject.harvest.etls.extractors.utils.IArcGisPageSource;
+import de.gerdiproject.json.GsonUtils;
 
 /**
  * This extractor retrieves {@linkplain ArcGisMap}s from a specified URL and GroupID.
@@ -37,13 +74,42 @@ import de.gerdiproject.harvest.utils.data.HttpRequester;
  */
 public class ArcGisExtractor extends AbstractIteratorExtractor<ArcGisMapVO>
 {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ArcGisExtractor.class);
+    private static final ArcGisExtractionScheduler<ArcGisMapVO> EXTRACTION_SCHEDULER =
+        new ArcGisExtractionScheduler<>(ArcGisConstants.CONCURRENT_EXTRACTION_BUFFER_SIZE);
+    private static volatile File ownerCacheFolder = new File(ArcGisConstants.OWNER_CACHE_FOLDER);
+    private static volatile File watermarkFolder = new File(ArcGisConstants.WATERMARK_FOLDER);
+    private static volatile File checkpointFolder = new File(ArcGisConstants.CHECKPOINT_FOLDER);
+
     // protected fields accessed by the inner iterator class
-    protected final HttpRequester httpRequester;
+    protected final ArcGisHttpClient httpClient;
     protected final String baseUrl;
     protected final String groupId;
     protected List<ArcGisFeaturedGroup> featuredGroups;
-
+    protected ArcGisOwnerResolver ownerResolver;
+    protected IArcGisPageSource pageSource;
+    protected ArcGisSearchPageReader streamedPage;
+    protected String searchQuery;
+    protected long highestModified;
+    protected boolean isExtractionComplete;
+    protected int duplicateMapCount;
+
+    private final IntegerParameter ownerCacheHoursParam;
+    private final IntegerParameter prefetchDepthParam;
+    private final IntegerParameter fanOutParallelismParam;
+    private final BooleanParameter streamPagesParam;
+    private final BooleanParameter incrementalParam;
+    private final BooleanParameter skipDuplicatesParam;
+    private final BooleanParameter concurrentExtractionParam;
+    private final BooleanParameter checkpointsParam;
+    private final Gson gson;
+    private ArcGisOwnerCache ownerCache;
+    private ArcGisWatermarkStore watermarkStore;
+    private ArcGisCheckpointStore checkpointStore;
+    private ArcGisBackgroundIterator<ArcGisMapVO> backgroundExtraction;
+    private String etlName;
     private int mapCount;
+    private long latestModified;
     private String version;
 
 
@@ -62,7 +128,48 @@ public class ArcGisExtractor extends AbstractIteratorExtractor<ArcGisMapVO>
         this.baseUrl = baseUrl;
         this.groupId = groupId;
 
-        this.httpRequester = new HttpRequester();
+        this.httpClient = ArcGisHttpClient.getInstance().withFairnessKey(groupId);
+        this.gson = GsonUtils.createGerdiDocumentGsonBuilder().create();
+        this.ownerCacheHoursParam = Configuration.registerParameter(
+                                        new IntegerParameter(
+                                            ArcGisParameterConstants.OWNER_CACHE_TTL_KEY,
+                                            ArcGisParameterConstants.CATEGORY,
+                                            ArcGisParameterConstants.OWNER_CACHE_TTL_DEFAULT));
+        this.prefetchDepthParam = Configuration.registerParameter(
+                                      new IntegerParameter(
+                                          ArcGisParameterConstants.PREFETCH_DEPTH_KEY,
+                                          ArcGisParameterConstants.CATEGORY,
+                                          ArcGisParameterConstants.PREFETCH_DEPTH_DEFAULT));
+        this.fanOutParallelismParam = Configuration.registerParameter(
+                                          new IntegerParameter(
+                                              ArcGisParameterConstants.FAN_OUT_PARALLELISM_KEY,
+                                              ArcGisParameterConstants.CATEGORY,
+                                              ArcGisParameterConstants.FAN_OUT_PARALLELISM_DEFAULT));
+        this.streamPagesParam = Configuration.registerParameter(
+                                    new BooleanParameter(
+                                        ArcGisParameterConstants.STREAM_PAGES_KEY,
+                                        ArcGisParameterConstants.CATEGORY,
+                                        ArcGisParameterConstants.STREAM_PAGES_DEFAULT));
+        this.incrementalParam = Configuration.registerParameter(
+                                    new BooleanParameter(
+                                        ArcGisParameterConstants.INCREMENTAL_KEY,
+                                        ArcGisParameterConstants.CATEGORY,
+                                        ArcGisParameterConstants.INCREMENTAL_DEFAULT));
+        this.skipDuplicatesParam = Configuration.registerParameter(
+                                       new BooleanParameter(
+                                           ArcGisParameterConstants.SKIP_DUPLICATES_KEY,
+                                           ArcGisParameterConstants.CATEGORY,
+                                           ArcGisParameterConstants.SKIP_DUPLICATES_DEFAULT));
+        this.concurrentExtractionParam = Configuration.registerParameter(
+                                             new BooleanParameter(
+                                                 ArcGisParameterConstants.CONCURRENT_EXTRACTION_KEY,
+                                                 ArcGisParameterConstants.CATEGORY,
+                                                 ArcGisParameterConstants.CONCURRENT_EXTRACTION_DEFAULT));
+        this.checkpointsParam = Configuration.registerParameter(
+                                    new BooleanParameter(
+                                        ArcGisParameterConstants.CHECKPOINTS_KEY,
+                                        ArcGisParameterConstants.CATEGORY,
+                                        ArcGisParameterConstants.CHECKPOINTS_DEFAULT));
     }
 
 
@@ -71,14 +178,110 @@ public class ArcGisExtractor extends AbstractIteratorExtractor<ArcGisMapVO>
     {
         super.init(etl);
 
-        final String mapsUrl = String.format(ArcGisConstants.MAPS_INFO_URL, baseUrl, groupId);
+        this.etlName = etl.getName();
+        this.watermarkStore = new ArcGisWatermarkStore(watermarkFolder);
+        this.checkpointStore = new ArcGisCheckpointStore(checkpointFolder);
+        this.searchQuery = createSearchQuery();
+
+        // the most recently modified map reveals both the map count and any changes of the group
+        final String mapsUrl = String.format(ArcGisConstants.MAPS_FINGERPRINT_URL, baseUrl, searchQuery);
         final GenericArcGisResponse<ArcGisMap> mapsQueryResult =
-            httpRequester.getObjectFromUrl(mapsUrl, ArcGisConstants.MAPS_RESPONSE_TYPE);
+            httpClient.getObjectFromUrl(mapsUrl, ArcGisConstants.MAPS_RESPONSE_TYPE);
+
+        if (mapsQueryResult == null)
+            throw new ExtractorException(String.format(ArcGisConstants.FINGERPRINT_FAILED, mapsUrl));
+
         this.mapCount = mapsQueryResult.getTotal();
-        this.version = mapsQueryResult.getQuery() + mapCount;
+        this.latestModified = getLatestModified(mapsQueryResult);
+        this.version = ArcGisFingerprintHelper.createFingerprint(mapsQueryResult);
 
         // get featured groups related to the maps
-        this.featuredGroups = getFeaturedGroupsByQuery(httpRequester, baseUrl, groupId);
+        this.featuredGroups = ArcGisFeaturedGroupRegistry.getGroupsByQuery(httpClient, baseUrl, groupId);
+
+        // let the extraction start together with the extractions of all other prepared ETLs
+        if (concurrentExtractionParam.getValue())
+            EXTRACTION_SCHEDULER.prepare(this, this::startExtraction);
+        else
+            EXTRACTION_SCHEDULER.cancel(this);
+    }
+
+
+    /**
+     * Retrieves the modification date of the most recently modified map.
+     * No map of the group can have been created after this date.
+     *
+     * @param mapsQueryResult the response that contains the most recently modified map
+     *
+     * @return the modification date of the most recently modified map,
+     * or the current time if it is unknown
+     */
+    private static long getLatestModified(final GenericArcGisResponse<ArcGisMap> mapsQueryResult)
+    {
+        final List<ArcGisMap> maps = mapsQueryResult.getResults();
+
+        return maps == null || maps.isEmpty() || maps.get(0).getModified() == null
+               ? System.currentTimeMillis()
+               : maps.get(0).getModified();
+    }
+
+
+    /**
+     * Creates the URL encoded search query that retrieves all maps of the group.
+     * If incremental harvesting is enabled, the query is restricted to maps
+     * that were modified since the last completed harvest.
+     *
+     * @return the URL encoded search query
+     */
+    private String createSearchQuery()
+    {
+        final String groupQuery = String.format(ArcGisConstants.GROUP_QUERY, groupId);
+
+        if (!incrementalParam.getValue())
+            return groupQuery;
+
+        final Long watermark = watermarkStore.get(etlName);
+
+        if (watermark == null)
+            return groupQuery;
+
+        LOGGER.info(String.format(ArcGisConstants.INCREMENTAL_HARVEST_INFO, etlName, new Date(watermark)));
+        return groupQuery + String.format(ArcGisConstants.MODIFIED_SINCE_FILTER, watermark);
+    }
+
+
+    /**
+     * Changes the folder in which the profiles of map owners are cached
+     * by all extractions that start afterwards.
+     *
+     * @param folder the folder in which the profiles of map owners are cached
+     */
+    public static void setOwnerCacheFolder(final File folder)
+    {
+        ownerCacheFolder = folder;
+    }
+
+
+    /**
+     * Changes the folder in which the watermarks of incremental harvests
+     * are stored by all extractors that are initialized afterwards.
+     *
+     * @param folder the folder in which the watermarks are stored
+     */
+    public static void setWatermarkFolder(final File folder)
+    {
+        watermarkFolder = folder;
+    }
+
+
+    /**
+     * Changes the folder in which the checkpoints of interrupted harvests
+     * are stored by all extractors that are initialized afterwards.
+     *
+     * @param folder the folder in which the checkpoints are stored
+     */
+    public static void setCheckpointFolder(final File folder)
+    {
+        checkpointFolder = folder;
     }
 
 
@@ -99,6 +302,31 @@ public class ArcGisExtractor extends AbstractIteratorExtractor<ArcGisMapVO>
     @Override
     protected Iterator<ArcGisMapVO> extractAll() throws ExtractorException
     {
+        if (!concurrentExtractionParam.getValue())
+            return startExtraction();
+
+        backgroundExtraction = EXTRACTION_SCHEDULER.claim(this, this::startExtraction);
+        return backgroundExtraction;
+    }
+
+
+    /**
+     * Resets the state of a previous extraction and creates an iterator
+     * that retrieves all maps of the group.
+     *
+     * @return an iterator of all maps of the group
+     */
+    private Iterator<ArcGisMapVO> startExtraction()
+    {
+        finishExtraction();
+
+        this.highestModified = 0;
+        this.isExtractionComplete = false;
+        this.duplicateMapCount = 0;
+        ArcGisHarvestedMapRegistry.startHarvest(etlName);
+
+        this.ownerCache = new ArcGisOwnerCache(ownerCacheFolder, ownerCacheHoursParam.getValue());
+        this.ownerResolver = new ArcGisOwnerResolver(httpClient, ownerCache);
         return new ArcGisMapsIterator();
     }
 
@@ -106,21 +334,188 @@ public class ArcGisExtractor extends AbstractIteratorExtractor<ArcGisMapVO>
     @Override
     public void clear()
     {
-        // nothing to clean up
+        // the background extraction must be stopped first, because it modifies the same fields
+        if (backgroundExtraction != null) {
+            backgroundExtraction.shutdown();
+
+            if (!backgroundExtraction.isExhausted())
+                isExtractionComplete = false;
+
+            backgroundExtraction = null;
+        }
+
+        finishExtraction();
+    }
+
+
+    /**
+     * Stops all background downloads of the extraction and logs its statistics.
+     */
+    private void finishExtraction()
+    {
+        if (pageSource != null) {
+            pageSource.shutdown();
+            pageSource = null;
+        }
+
+        if (streamedPage != null) {
+            try {
+                streamedPage.close();
+            } catch (final IOException e) {
+                LOGGER.warn(e.getMessage());
+            }
+
+            streamedPage = null;
+        }
+
+        if (ownerResolver != null) {
+            ownerResolver.shutdown();
+            ownerResolver = null;
+        }
+
+        if (ownerCache != null) {
+            LOGGER.info(String.format(
+                            ArcGisConstants.OWNER_CACHE_STATS,
+                            groupId,
+                            ownerCache.getHits(),
+                            ownerCache.getMisses(),
+                            ownerCache.getUnmodifiedRefreshes()));
+            ownerCache = null;
+        }
+
+        if (duplicateMapCount > 0) {
+            LOGGER.info(String.format(
+                            skipDuplicatesParam.getValue()
+                            ? ArcGisConstants.DUPLICATE_MAPS_SKIPPED
+                            : ArcGisConstants.DUPLICATE_MAPS_FOUND,
+                            etlName,
+                            duplicateMapCount,
+                            ArcGisHarvestedMapRegistry.getDuplicateCount()));
+            duplicateMapCount = 0;
+        }
+
+        final String transferStats = httpClient.getTransferStats().toString();
+
+        if (!transferStats.isEmpty())
+            LOGGER.info(String.format(ArcGisConstants.TRANSFER_STATS, transferStats));
+    }
+
+
+    /**
+     * Removes the checkpoint of the ETL and, if incremental harvesting is enabled,
+     * advances its watermark, if all maps were extracted. This method must only be
+     * called after all extracted maps were loaded successfully, because the next
+     * harvest would skip them otherwise.
+     */
+    public void commitHarvest()
+    {
+        // maps that were buffered by a concurrent extraction may not have been retrieved
+        if (backgroundExtraction != null && !backgroundExtraction.isExhausted())
+            isExtractionComplete = false;
+
+        if (!isExtractionComplete)
+            return;
+
+        // full harvests must not leave behind watermarks that nobody asked for
+        if (incrementalParam.getValue()) {
+            final Long oldWatermark = watermarkStore.get(etlName);
+
+            if (oldWatermark == null || oldWatermark < highestModified)
+                watermarkStore.put(etlName, highestModified);
+        }
+
+        checkpointStore.remove(etlName);
+
+        isExtractionComplete = false;
+    }
+
+
+    /**
+     * Splits the search query into ranges of creation dates, if the group contains
+     * more maps than can be paged through by a single query.
+     *
+     * @return a list of search queries that cover all maps of the group,
+     *          or null if the group does not need to be split
+     */
+    private List<String> createPartitionQueries()
+    {
+        if (mapCount <= ArcGisConstants.SEARCH_WINDOW_LIMIT)
+            return null;
+
+        final ArcGisDatePartitioner partitioner = new ArcGisDatePartitioner(
+            (final ArcGisDateRange range) -> countMaps(searchQuery + range.toQueryFilter()),
+            ArcGisConstants.SEARCH_WINDOW_LIMIT);
+
+        final List<ArcGisDateRange> ranges = partitioner.partition(new ArcGisDateRange(0, latestModified));
+        LOGGER.info(String.format(ArcGisConstants.PARTITION_INFO, etlName, mapCount, ranges.size()));
+
+        final List<String> queries = new ArrayList<>(ranges.size());
+
+        for (final ArcGisDateRange range : ranges)
+            queries.add(searchQuery + range.toQueryFilter());
+
+        return queries;
+    }
+
+
+    /**
+     * Retrieves the number of maps that match a search query.
+     *
+     * @param query a URL encoded search query
+     *
+     * @throws ExtractorException thrown when the maps could not be counted
+     *
+     * @return the number of maps that match the query
+     */
+    private int countMaps(final String query) throws ExtractorException
+    {
+        final String countUrl = String.format(ArcGisConstants.MAPS_COUNT_URL, baseUrl, query);
+        final GenericArcGisResponse<ArcGisMap> countResult =
+            httpClient.getObjectFromUrl(countUrl, ArcGisConstants.MAPS_RESPONSE_TYPE);
+
+        // a missing count would leave out the maps of the whole range
+        if (countResult == null)
+            throw new ExtractorException(String.format(ArcGisConstants.MAPS_COUNT_FAILED, countUrl));
+
+        return countResult.getTotal();
     }
 
 
     /**
      * This class is an iterator for retrieving {@linkplain ArcGisMap} from ArcGis.
      * The underlying implementation in the ArcGis API returns the maps in batches
-     * of 100 max.
+     * of 100 max. If prefetching is enabled, the succeeding batches are downloaded
+     * in the background while the current batch is being processed. If the fan-out
+     * is enabled, all batches are downloaded in parallel. If neither is enabled,
+     * batches can be streamed, returning maps while the response is still being parsed.
+     * <br><br>
+     * Groups that contain more maps than the search result window allows, are split
+     * into ranges of creation dates that are paged through in parallel. Maps that
+     * appear in more than one range, because they were changed during the harvest,
+     * are only returned once.
+     * Maps that were already harvested by another ETL during the current harvest cycle
+     * are counted, and skipped if the corresponding parameter is enabled.
+     * <br><br>
+     * If checkpoints are enabled, the maps of each page of groups that are paged through by
+     * a single query are appended to the checkpoint of the harvest, as soon as the map that
+     * follows the last map of the page is requested, because the loader has processed all
+     * maps of the page by then. If the harvest is
+     * interrupted, the next harvest of the same version of the group resumes at the last
+     * checkpoint, skipping the maps that were already extracted.
      *
      * @author Robin Weiss
      */
     private class ArcGisMapsIterator implements Iterator<ArcGisMapVO>
     {
+        private final Set<String> extractedMapIds;
+        private final boolean isSkippingDuplicates;
+        private final boolean isPartitioned;
+        private final boolean isCheckpointing;
+        private Set<String> pageMapIds;
         private Iterator<ArcGisMap> currentBatch;
+        private ArcGisMap nextMap;
         private int startIndex;
+        private boolean hasMorePages;
 
         /**
          * Constructor.
@@ -128,58 +523,295 @@ public class ArcGisExtractor extends AbstractIteratorExtractor<ArcGisMapVO>
         public ArcGisMapsIterator()
         {
             this.startIndex = 1;
-            downloadNextBatch();
+            this.hasMorePages = true;
+            this.currentBatch = Collections.emptyIterator();
+            this.isSkippingDuplicates = skipDuplicatesParam.getValue();
+
+            final List<String> partitionQueries = createPartitionQueries();
+            final int fanOutParallelism = fanOutParallelismParam.getValue();
+            final int prefetchDepth = prefetchDepthParam.getValue();
+
+            // partitions have no common start index, and maps that are buffered
+            // by a concurrent extraction may not have been harvested yet
+            this.isPartitioned = partitionQueries != null;
+            this.isCheckpointing = !isPartitioned
+                                   && checkpointsParam.getValue()
+                                   && !concurrentExtractionParam.getValue();
+
+            this.extractedMapIds = isPartitioned || isCheckpointing
+                                   ? new HashSet<>()
+                                   : null;
+
+            if (isCheckpointing) {
+                this.pageMapIds = new HashSet<>();
+                resumeFromCheckpoint();
+            }
+
+            if (isPartitioned) {
+                pageSource = new ArcGisPartitionedPageSource(
+                    this::downloadBatch,
+                    partitionQueries,
+                    fanOutParallelism > 0 ? fanOutParallelism : ArcGisConstants.PARTITION_THREAD_COUNT);
+
+            } else if (hasMorePages) {
+                if (fanOutParallelism > 0)
+                    pageSource = new ArcGisPageFanOut(this::downloadBatch, startIndex, mapCount, fanOutParallelism);
+
+                else if (prefetchDepth > 0)
+                    pageSource = new ArcGisPagePrefetcher(this::downloadBatch, startIndex, prefetchDepth);
+            }
+        }
+
+
+        /**
+         * Continues an interrupted harvest of the same version of the group,
+         * if a checkpoint was recorded.
+         */
+        private void resumeFromCheckpoint()
+        {
+            final ArcGisCheckpoint checkpoint = checkpointStore.resume(etlName, version);
+
+            if (checkpoint == null)
+                return;
+
+            LOGGER.info(String.format(
+                            ArcGisConstants.RESUME_HARVEST_INFO,
+                            etlName,
+                            checkpoint.getStartIndex(),
+                            checkpoint.getExtractedMapIds().size()));
+
+            this.startIndex = checkpoint.getStartIndex();
+            this.hasMorePages = startIndex != -1;
+            extractedMapIds.addAll(checkpoint.getExtractedMapIds());
+            highestModified = Math.max(highestModified, checkpoint.getHighestModified());
         }
 
 
         @Override
         public boolean hasNext()
         {
-            return currentBatch.hasNext() || startIndex != -1;
+            while (nextMap == null) {
+                if (currentBatch.hasNext()) {
+                    final ArcGisMap candidate = currentBatch.next();
+
+                    if (isAccepted(candidate))
+                        nextMap = candidate;
+
+                } else if (hasMorePages)
+                    downloadNextBatch();
+                else {
+                    saveCheckpoint();
+                    isExtractionComplete = true;
+                    return false;
+                }
+            }
+
+            return true;
         }
 
 
         @Override
         public ArcGisMapVO next()
         {
-            // request the next batch of 100 maps
-            if (!currentBatch.hasNext())
-                downloadNextBatch();
+            if (!hasNext())
+                throw new NoSuchElementException();
+
+            final ArcGisMap map = nextMap;
+            nextMap = null;
+
+            if (map.getModified() != null)
+                highestModified = Math.max(highestModified, map.getModified());
+
+            if (isCheckpointing)
+                pageMapIds.add(map.getId());
 
-            final ArcGisMap map = currentBatch.next();
             return new ArcGisMapVO(
                        map,
-                       getUser(map),
+                       ownerResolver.getOwner(map.getOwner()),
                        featuredGroups
                    );
         }
 
 
         /**
-         * Extracts a batch of {@linkplain ArcGisMap}s.
+         * Checks if a map is to be returned, registering it as harvested.
+         *
+         * @param map a retrieved map
+         *
+         * @return false if the map was already returned from another partition or
+         *          before the checkpoint of a resumed harvest, or if it was harvested
+         *          by another ETL and duplicates are skipped
+         */
+        private boolean isAccepted(final ArcGisMap map)
+        {
+            if (extractedMapIds != null && !extractedMapIds.add(map.getId()))
+                return false;
+
+            if (ArcGisHarvestedMapRegistry.register(map.getId()))
+                return true;
+
+            duplicateMapCount++;
+            return !isSkippingDuplicates;
+        }
+
+
+        /**
+         * Appends the maps of the finished page to the checkpoint of the harvest, if checkpoints are enabled.
+         * This is only called when the map that follows the last map of the page is requested,
+         * because the loader has processed all maps of the page by then.
+         */
+        private void saveCheckpoint()
+        {
+            if (!isCheckpointing || pageMapIds.isEmpty())
+                return;
+
+            checkpointStore.append(etlName, new ArcGisCheckpoint(version, startIndex, highestModified, pageMapIds));
+            pageMapIds = new HashSet<>();
+        }
+
+
+        /**
+         * Retrieves the next batch of {@linkplain ArcGisMap}s, either from the
+         * page source or by downloading it.
+         * If checkpoints are enabled, the previous batch is persisted beforehand,
+         * because all of its maps were processed.
          */
         private void downloadNextBatch()
         {
-            final String mapsUrl = String.format(ArcGisConstants.MAPS_URL, baseUrl, groupId, startIndex);
-            final GenericArcGisResponse<ArcGisMap> mapsQueryResult =
-                httpRequester.getObjectFromUrl(mapsUrl, ArcGisConstants.MAPS_RESPONSE_TYPE);
+            if (isPartitioned) {
+                nextPartitionedBatch();
+                return;
+            }
+
+            saveCheckpoint();
+
+            if (pageSource == null && streamPagesParam.getValue()) {
+                streamedPage = streamBatch(startIndex);
+
+                this.currentBatch = streamedPage;
+                this.startIndex = streamedPage.getNextStart();
+                this.hasMorePages = startIndex != -1;
+                return;
+            }
+
+            final GenericArcGisResponse<ArcGisMap> mapsQueryResult = pageSource == null
+                                                                     ? downloadBatch(startIndex)
+                                                                     : pageSource.nextPage();
 
             this.currentBatch = mapsQueryResult.getResults().iterator();
             this.startIndex = mapsQueryResult.getNextStart();
+            this.hasMorePages = startIndex != -1;
+
+            // stop background downloads after the last batch
+            if (!hasMorePages && pageSource != null) {
+                pageSource.shutdown();
+                pageSource = null;
+            }
+        }
+
+
+        /**
+         * Retrieves the next batch of a partitioned group.
+         */
+        private void nextPartitionedBatch()
+        {
+            final GenericArcGisResponse<ArcGisMap> page = pageSource.nextPage();
+
+            if (page == null) {
+                this.currentBatch = Collections.emptyIterator();
+                this.hasMorePages = false;
+                pageSource.shutdown();
+                pageSource = null;
+                return;
+            }
+
+            this.currentBatch = page.getResults().iterator();
+        }
+
+
+        /**
+         * Downloads a batch of {@linkplain ArcGisMap}s of the search query of the group.
+         *
+         * @param batchStartIndex the index of the first map of the batch
+         *
+         * @return the downloaded batch
+         */
+        private GenericArcGisResponse<ArcGisMap> downloadBatch(final int batchStartIndex)
+        {
+            return downloadBatch(searchQuery, batchStartIndex);
+        }
+
+
+        /**
+         * Downloads a batch of {@linkplain ArcGisMap}s and starts resolving
+         * the owners of all maps of the batch in the background.
+         *
+         * @param query the URL encoded search query
+         * @param batchStartIndex the index of the first map of the batch
+         *
+         * @return the downloaded batch
+         */
+        private GenericArcGisResponse<ArcGisMap> downloadBatch(final String query, final int batchStartIndex)
+        {
+            final String mapsUrl = String.format(ArcGisConstants.MAPS_URL, baseUrl, query, batchStartIndex);
+            final GenericArcGisResponse<ArcGisMap> mapsQueryResult =
+                httpClient.getObjectFromUrl(mapsUrl, ArcGisConstants.MAPS_RESPONSE_TYPE);
+
+            if (mapsQueryResult == null)
+                throw new ExtractorException(String.format(ArcGisConstants.PAGE_FAILED, mapsUrl));
+
+            prefetchOwners(mapsQueryResult.getResults());
+            return mapsQueryResult;
+        }
+
+
+        /**
+         * Starts resolving the owners of maps in the background.
+         *
+         * @param maps the maps of which the owners are to be resolved
+         */
+        private void prefetchOwners(final Collection<ArcGisMap> maps)
+        {
+            // do not resolve the owners of maps that are going to be skipped
+            ownerResolver.prefetch(isSkippingDuplicates
+                                   ? ArcGisHarvestedMapRegistry.removeHarvested(maps)
+                                   : maps);
         }
 
 
         /**
-         * Extracts details of a map owner.
+         * Opens a batch of {@linkplain ArcGisMap}s as a stream, which returns each map
+         * as soon as it is parsed. The maps are parsed a few maps ahead, so that
+         * their owners are resolved in the background.
          *
-         * @param map the map of which the owner is to be extracted
+         * @param batchStartIndex the index of the first map of the batch
          *
-         * @return details of the map owner
+         * @return a reader that parses the maps of the batch one by one
          */
-        private ArcGisUser getUser(final ArcGisMap map)
+        private ArcGisSearchPageReader streamBatch(final int batchStartIndex)
         {
-            final String url = String.format(ArcGisConstants.USER_PROFILE_URL, map.getOwner());
-            return httpRequester.getObjectFromUrl(url, ArcGisUser.class);
+            final String mapsUrl = String.format(ArcGisConstants.MAPS_URL, baseUrl, searchQuery, batchStartIndex);
+            final InputStream responseStream = httpClient.openStream(mapsUrl);
+
+            if (responseStream == null)
+                throw new ExtractorException(String.format(ArcGisConstants.PAGE_FAILED, mapsUrl));
+
+            try {
+                return new ArcGisSearchPageReader(
+                           new InputStreamReader(responseStream, StandardCharsets.UTF_8),
+                           gson,
+                           ArcGisConstants.OWNER_RESOLVER_THREAD_COUNT,
+                           (final ArcGisMap map) -> prefetchOwners(Collections.singletonList(map)));
+
+            } catch (final IOException | RuntimeException e) {
+                try {
+                    responseStream.close();
+                } catch (final IOException closeException) {
+                    e.addSuppressed(closeException);
+                }
+
+                throw new ExtractorException(String.format(ArcGisConstants.PAGE_FAILED, mapsUrl), e);
+            }
         }
     }
 
@@ -187,13 +819,13 @@ public class ArcGisExtractor extends AbstractIteratorExtractor<ArcGisMapVO>
     /**
      * Retrieves detailed featured groups from a query request.
      *
-     * @param httpRequester the {@linkplain HttpRequester} that sends the request
+     * @param httpClient the {@linkplain ArcGisHttpClient} that sends the request
      * @param baseUrl the host of the ArcGis map URL
      * @param query the groups query
      *
      * @return a list of detailed featured groups
      */
-    public static List<ArcGisFeaturedGroup> getFeaturedGroupsByQuery(final HttpRequester httpRequester, final String baseUrl, final String query)
+    public static List<ArcGisFeaturedGroup> getFeaturedGroupsByQuery(final ArcGisHttpClient httpClient, final String baseUrl, final String query)
     {
         try {
             String groupDetailsUrl = baseUrl + ArcGisConstants.GROUP_DETAILS_URL_SUFFIX;
@@ -201,7 +833,7 @@ public class ArcGisExtractor extends AbstractIteratorExtractor<ArcGisMapVO>
 
             // retrieve details of gallery group
             final GenericArcGisResponse<ArcGisFeaturedGroup> response =
-                httpRequester.getObjectFromUrl(groupDetailsUrl, ArcGisConstants.FEATURED_GROUPS_RESPONSE_TYPE);
+                httpClient.getObjectFromUrl(groupDetailsUrl, ArcGisConstants.FEATURED_GROUPS_RESPONSE_TYPE);
 
             return response.getResults();
 
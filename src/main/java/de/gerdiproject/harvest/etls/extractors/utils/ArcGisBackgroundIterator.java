@@ -0,0 +1,156 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import de.gerdiproject.harvest.arcgis.constants.ArcGisConstants;
+
+/**
+ * This iterator runs another iterator on a dedicated background thread and
+ * buffers its elements until they are retrieved. The number of buffered elements is
+ * limited, so the background thread pauses if the elements are not retrieved.
+ * Exceptions of the background thread are rethrown when the element that
+ * would have followed is retrieved.
+ *
+ * @param <T> the type of the iterated elements
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisBackgroundIterator<T> implements Iterator<T>
+{
+    private static final Object END_OF_ELEMENTS = new Object();
+
+    private final ExecutorService executor;
+    private final BlockingQueue<Object> bufferedElements;
+    private volatile RuntimeException failure;
+    private Object nextElement;
+
+
+    /**
+     * Constructor that immediately starts iterating in the background.
+     *
+     * @param iteratorSupplier a function that creates the iterator on the background thread
+     * @param bufferSize the maximum number of elements that are buffered
+     */
+    public ArcGisBackgroundIterator(final Supplier<Iterator<T>> iteratorSupplier, final int bufferSize)
+    {
+        this.executor = Executors.newSingleThreadExecutor(new DaemonThreadFactory(ArcGisConstants.CONCURRENT_EXTRACTION_THREAD_NAME));
+        this.bufferedElements = new LinkedBlockingQueue<>(bufferSize);
+
+        executor.execute(() -> iterate(iteratorSupplier));
+        executor.shutdown();
+    }
+
+
+    @Override
+    public boolean hasNext()
+    {
+        if (nextElement == null) {
+            try {
+                nextElement = bufferedElements.take();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        if (nextElement != END_OF_ELEMENTS)
+            return true;
+
+        if (failure != null)
+            throw failure;
+
+        return false;
+    }
+
+
+    @SuppressWarnings("unchecked") // only elements of the background iterator are buffered besides the end marker
+    @Override
+    public T next()
+    {
+        if (!hasNext())
+            throw new NoSuchElementException();
+
+        final T element = (T) nextElement;
+        nextElement = null;
+        return element;
+    }
+
+
+    /**
+     * Checks if all elements of the background iterator were retrieved.
+     *
+     * @return true if the background iterator completed without failure
+     * and all of its elements were retrieved
+     */
+    public boolean isExhausted()
+    {
+        return nextElement == END_OF_ELEMENTS && failure == null;
+    }
+
+
+    /**
+     * Stops the background thread and discards all buffered elements.
+     * Waits for the background thread to finish, so that it no longer
+     * modifies any state after this method returns.
+     */
+    public void shutdown()
+    {
+        executor.shutdownNow();
+        bufferedElements.clear();
+
+        try {
+            executor.awaitTermination(ArcGisConstants.CONCURRENT_EXTRACTION_SHUTDOWN_SECONDS, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /**
+     * Retrieves all elements of an iterator and buffers them.
+     *
+     * @param iteratorSupplier a function that creates the iterator
+     */
+    private void iterate(final Supplier<Iterator<T>> iteratorSupplier)
+    {
+        try {
+            final Iterator<T> iterator = iteratorSupplier.get();
+
+            while (iterator.hasNext())
+                bufferedElements.put(iterator.next());
+
+            bufferedElements.put(END_OF_ELEMENTS);
+
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+        } catch (final RuntimeException e) { // NOPMD the exception is rethrown by the consuming thread
+            failure = e;
+            bufferedElements.clear();
+            bufferedElements.offer(END_OF_ELEMENTS);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import java.io.File;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * A static class for mapping names of ETLs and users to the files in which
+ * their data is stored on disk.
+ *
+ * @author Robin Weiss
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ArcGisCacheFileHelper
+{
+    /**
+     * Returns the file in which the data of a specified name is stored.
+     * The name is URL encoded, so that it cannot escape the folder.
+     *
+     * @param folder the folder in which the file is stored
+     * @param name the name of an ETL or a user
+     * @param fileExtension the extension of the file
+     *
+     * @return the file in which the data of the name is stored
+     */
+    public static File getCacheFile(final File folder, final String name, final String fileExtension)
+    {
+        String fileName;
+
+        try {
+            fileName = URLEncoder.encode(name, StandardCharsets.UTF_8.displayName());
+        } catch (final UnsupportedEncodingException e) {
+            // this should never happen, because UTF-8 is a valid encoding
+            fileName = name;
+        }
+
+        return new File(folder, fileName + fileExtension);
+    }
+}
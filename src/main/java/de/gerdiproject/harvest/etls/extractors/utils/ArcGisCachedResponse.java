@@ -0,0 +1,73 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+
+import com.google.gson.Gson;
+
+import lombok.Value;
+
+/**
+ * This class represents a cached HTTP response body together with the
+ * validators that are required for sending conditional requests.
+ * Compressed bodies are cached as they were transferred.
+ * The object that was parsed from the body is kept as well, so that
+ * unchanged responses do not need to be parsed again.
+ *
+ * @author Robin Weiss
+ */
+@Value
+public class ArcGisCachedResponse
+{
+    private final String eTag;
+    private final String lastModified;
+    private final String contentEncoding;
+    private final byte[] body;
+    private final Type parsedType;
+    private final Object parsedObject;
+
+
+    /**
+     * Returns the object that is represented by the response body,
+     * parsing the body only if it was not yet parsed as the requested type.
+     *
+     * @param targetType the type of the requested object
+     * @param gson the Gson instance that parses the body if necessary
+     *
+     * @throws IOException thrown when a compressed body could not be decompressed
+     *
+     * @return the object that is represented by the response body
+     */
+    public Object getObject(final Type targetType, final Gson gson) throws IOException
+    {
+        if (targetType.equals(parsedType))
+            return parsedObject;
+
+        final InputStream decompressedBody = ArcGisConnectionPool.decompress(new ByteArrayInputStream(body), contentEncoding);
+
+        try (Reader reader = new InputStreamReader(decompressedBody, StandardCharsets.UTF_8)) {
+            return gson.fromJson(reader, targetType);
+        }
+    }
+}
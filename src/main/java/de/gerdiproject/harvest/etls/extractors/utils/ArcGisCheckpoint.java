@@ -0,0 +1,37 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import java.util.Set;
+
+import lombok.Value;
+
+/**
+ * This value object represents the progress of an interrupted harvest of a group.
+ * It is recorded whenever all maps of a page were loaded, containing only the
+ * IDs of the maps of that page.
+ *
+ * @author Robin Weiss
+ */
+@Value
+public class ArcGisCheckpoint
+{
+    private final String version;
+    private final int startIndex;
+    private final long highestModified;
+    private final Set<String> extractedMapIds;
+}
@@ -0,0 +1,211 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import de.gerdiproject.harvest.arcgis.constants.ArcGisConstants;
+import de.gerdiproject.json.GsonUtils;
+
+/**
+ * This class persists the {@linkplain ArcGisCheckpoint}s of ETLs, so that
+ * a harvest that was interrupted can be resumed after a restart.
+ * Each ETL has a journal file to which one line is appended per finished page,
+ * containing only the IDs of the maps of that page. The checkpoint of the
+ * harvest is the combination of all lines of the journal.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisCheckpointStore
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(ArcGisCheckpointStore.class);
+
+    private final Gson gson;
+    private final File storeFolder;
+
+
+    /**
+     * Constructor that requires the folder in which the checkpoints are stored.
+     *
+     * @param storeFolder the folder in which the checkpoints are stored
+     */
+    public ArcGisCheckpointStore(final File storeFolder)
+    {
+        this.gson = GsonUtils.createGerdiDocumentGsonBuilder().create();
+        this.storeFolder = storeFolder;
+    }
+
+
+    /**
+     * Retrieves the checkpoint of an ETL by combining all pages of its journal.
+     * A page that was only partially written, because the harvester stopped
+     * while writing it, is ignored.
+     *
+     * @param etlName the name of the ETL
+     *
+     * @return the last checkpoint of an unfinished harvest of the ETL,
+     * or null if the last harvest of the ETL was finished
+     */
+    public ArcGisCheckpoint get(final String etlName)
+    {
+        final File checkpointFile = getCheckpointFile(etlName);
+
+        if (!checkpointFile.exists())
+            return null;
+
+        ArcGisCheckpoint lastPage = null;
+        long highestModified = 0;
+        final Set<String> extractedMapIds = new HashSet<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(checkpointFile), StandardCharsets.UTF_8))) {
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                final ArcGisCheckpoint page = parsePage(line);
+
+                if (page == null)
+                    continue;
+
+                // pages of an outdated version of the group are not resumed
+                if (lastPage != null && !lastPage.getVersion().equals(page.getVersion())) {
+                    highestModified = 0;
+                    extractedMapIds.clear();
+                }
+
+                lastPage = page;
+                highestModified = Math.max(highestModified, page.getHighestModified());
+                extractedMapIds.addAll(page.getExtractedMapIds());
+            }
+
+        } catch (final IOException e) {
+            LOGGER.warn(String.format(ArcGisConstants.CHECKPOINT_READ_FAILED, etlName), e);
+            return null;
+        }
+
+        return lastPage == null
+               ? null
+               : new ArcGisCheckpoint(lastPage.getVersion(), lastPage.getStartIndex(), highestModified, extractedMapIds);
+    }
+
+
+    /**
+     * Retrieves the checkpoint of an ETL if it belongs to a specified version of the group.
+     * The checkpoint of any other version is removed, because its pages must not be
+     * combined with the pages of the new harvest.
+     *
+     * @param etlName the name of the ETL
+     * @param version the version of the group that is to be harvested
+     *
+     * @return the checkpoint of an unfinished harvest of the same version,
+     * or null if the harvest is to be started from the beginning
+     */
+    public ArcGisCheckpoint resume(final String etlName, final String version)
+    {
+        final ArcGisCheckpoint checkpoint = get(etlName);
+
+        if (checkpoint != null && version != null && version.equals(checkpoint.getVersion()))
+            return checkpoint;
+
+        remove(etlName);
+        return null;
+    }
+
+
+    /**
+     * Appends a finished page to the checkpoint of an ETL.
+     *
+     * @param etlName the name of the ETL
+     * @param page the progress of the harvest of the ETL, containing
+     *         only the IDs of the maps of the finished page
+     */
+    public void append(final String etlName, final ArcGisCheckpoint page)
+    {
+        storeFolder.mkdirs();
+
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(getCheckpointFile(etlName), true), StandardCharsets.UTF_8)) {
+            writer.write(gson.toJson(page) + System.lineSeparator());
+
+        } catch (final IOException e) {
+            LOGGER.warn(String.format(ArcGisConstants.CHECKPOINT_WRITE_FAILED, etlName), e);
+        }
+    }
+
+
+    /**
+     * Removes the checkpoint of an ETL.
+     *
+     * @param etlName the name of the ETL
+     */
+    public void remove(final String etlName)
+    {
+        final File checkpointFile = getCheckpointFile(etlName);
+
+        if (checkpointFile.exists())
+            checkpointFile.delete();
+    }
+
+
+    /**
+     * Parses a single page of a journal file.
+     *
+     * @param line a line of the journal file
+     *
+     * @return the parsed page, or null if the line is incomplete
+     */
+    private ArcGisCheckpoint parsePage(final String line)
+    {
+        try {
+            final ArcGisCheckpoint page = gson.fromJson(line, ArcGisCheckpoint.class);
+
+            return page == null || page.getVersion() == null || page.getExtractedMapIds() == null
+                   ? null
+                   : page;
+
+        } catch (final JsonParseException e) {
+            return null;
+        }
+    }
+
+
+    /**
+     * Returns the file in which the checkpoint of a specified ETL is stored.
+     *
+     * @param etlName the name of the ETL
+     *
+     * @return the file in which the checkpoint is stored
+     */
+    private File getCheckpointFile(final String etlName)
+    {
+        return ArcGisCacheFileHelper.getCacheFile(storeFolder, etlName, ArcGisConstants.JOURNAL_FILE_EXTENSION);
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.function.IntSupplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import de.gerdiproject.harvest.arcgis.constants.ArcGisConstants;
+
+/**
+ * This class opens HTTP connections that are kept alive and reused by subsequent requests
+ * of the same host, which saves the TCP and TLS handshakes of each request.
+ * The idle connections are kept by the keep-alive cache of the JVM, which keeps up to
+ * "http.maxConnections" connections per host. The property is left to the operator, because
+ * it is read only once, when the first connection of the JVM is opened.
+ * The number of connections that are open at the same time is limited per host, so
+ * that parallel requests do not open more connections than the keep-alive cache can keep.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisConnectionPool
+{
+    private final IntSupplier connectionsPerHost;
+    private final Map<String, Semaphore> hostPermits;
+
+
+    /**
+     * Constructor that requires the maximum number of open connections per host.
+     *
+     * @param connectionsPerHost a supplier of the maximum number of connections per host,
+     *         which is called when the first connection to a host is opened
+     */
+    public ArcGisConnectionPool(final IntSupplier connectionsPerHost)
+    {
+        this.connectionsPerHost = connectionsPerHost;
+        this.hostPermits = new ConcurrentHashMap<>();
+    }
+
+
+    /**
+     * Sends a GET request and processes its response, waiting for a free
+     * connection of the host if necessary.
+     *
+     * @param url the URL of the request
+     * @param requestHeaders additional headers of the request
+     * @param responseHandler a function that processes the response
+     * @param <R> the type of the processed response
+     *
+     * @throws IOException thrown when the request failed
+     * @throws InterruptedException thrown when the thread was interrupted while waiting for a connection
+     *
+     * @return the processed response
+     */
+    public <R> R send(final String url, final Map<String, String> requestHeaders, final IArcGisResponseHandler<R> responseHandler)
+    throws IOException, InterruptedException
+    {
+        final HttpURLConnection connection = open(url, requestHeaders);
+
+        try {
+            return responseHandler.handle(connection);
+        } finally {
+            release(connection);
+        }
+    }
+
+
+    /**
+     * Prepares a GET request, waiting for a free connection of the host if necessary.
+     * The connection counts as open until it is passed to {@linkplain #release(HttpURLConnection)}.
+     *
+     * @param url the URL of the request
+     * @param requestHeaders additional headers of the request
+     *
+     * @throws IOException thrown when the connection could not be created
+     * @throws InterruptedException thrown when the thread was interrupted while waiting for a connection
+     *
+     * @return a connection of which the response was not retrieved yet
+     */
+    public HttpURLConnection open(final String url, final Map<String, String> requestHeaders)
+    throws IOException, InterruptedException
+    {
+        final URL requestUrl = new URL(url);
+        final Semaphore permits = getPermits(requestUrl.getHost());
+        permits.acquire();
+
+        try {
+            final HttpURLConnection connection = (HttpURLConnection) requestUrl.openConnection();
+            connection.setConnectTimeout(ArcGisConstants.CONNECT_TIMEOUT_MILLIS);
+            connection.setReadTimeout(ArcGisConstants.READ_TIMEOUT_MILLIS);
+
+            for (final Map.Entry<String, String> header : requestHeaders.entrySet())
+                connection.setRequestProperty(header.getKey(), header.getValue());
+
+            return connection;
+
+        } catch (final IOException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+
+    /**
+     * Marks a connection that was returned by {@linkplain #open(String, Map)} as closed,
+     * allowing another request to the same host. The response body should be read
+     * completely, in order to allow the connection to be reused. Streamed bodies may
+     * still be read after the connection was released.
+     *
+     * @param connection a connection that is no longer used
+     */
+    public void release(final HttpURLConnection connection)
+    {
+        getPermits(connection.getURL().getHost()).release();
+    }
+
+
+    /**
+     * Retrieves the connection permits of a host, creating them if necessary.
+     *
+     * @param host the host to which connections are opened
+     *
+     * @return the connection permits of the host
+     */
+    private Semaphore getPermits(final String host)
+    {
+        return hostPermits.computeIfAbsent(
+                   host,
+                   (final String h) -> new Semaphore(Math.max(1, connectionsPerHost.getAsInt())));
+    }
+
+
+    /**
+     * Reads the body of a response completely, which allows the connection to be reused.
+     * The bodies of error responses are read as well.
+     *
+     * @param connection a connection of which the response status was already retrieved
+     *
+     * @throws IOException thrown when the body could not be read
+     *
+     * @return the bytes of the response body
+     */
+    public static byte[] readBody(final HttpURLConnection connection) throws IOException
+    {
+        final InputStream responseStream = connection.getResponseCode() >= HttpURLConnection.HTTP_BAD_REQUEST
+                                           ? connection.getErrorStream()
+                                           : connection.getInputStream();
+
+        if (responseStream == null)
+            return new byte[0];
+
+        return readAll(responseStream);
+    }
+
+
+    /**
+     * Reads a stream completely and closes it.
+     *
+     * @param stream the stream that is to be read
+     *
+     * @throws IOException thrown when the stream could not be read
+     *
+     * @return all bytes of the stream
+     */
+    public static byte[] readAll(final InputStream stream) throws IOException
+    {
+        try (InputStream inputStream = stream) {
+            final ByteArrayOutputStream body = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[8192];
+            int readBytes;
+
+            while ((readBytes = inputStream.read(buffer)) != -1)
+                body.write(buffer, 0, readBytes);
+
+            return body.toByteArray();
+        }
+    }
+
+
+    /**
+     * Wraps a response body in a stream that decompresses it on the fly.
+     *
+     * @param body the stream of a response body
+     * @param contentEncoding the value of the Content-Encoding header of the response, or null
+     *
+     * @throws IOException thrown when the header of a compressed body could not be read
+     *
+     * @return a stream of the decompressed body, or the body itself if it is not compressed
+     */
+    public static InputStream decompress(final InputStream body, final String contentEncoding) throws IOException
+    {
+        if (contentEncoding == null)
+            return body;
+
+        switch (contentEncoding.trim().toLowerCase(Locale.ROOT)) {
+            case ArcGisConstants.GZIP_ENCODING:
+            case ArcGisConstants.X_GZIP_ENCODING:
+                return new GZIPInputStream(body);
+
+            case ArcGisConstants.DEFLATE_ENCODING:
+                return new InflaterInputStream(body);
+
+            default:
+                return body;
+        }
+    }
+}
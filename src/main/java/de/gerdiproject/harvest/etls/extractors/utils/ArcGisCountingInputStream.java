@@ -0,0 +1,108 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * This stream counts the bytes that are read from an underlying stream.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisCountingInputStream extends FilterInputStream
+{
+    private long count;
+
+
+    /**
+     * Constructor that requires the stream of which the bytes are counted.
+     *
+     * @param inputStream the stream of which the bytes are counted
+     */
+    public ArcGisCountingInputStream(final InputStream inputStream)
+    {
+        super(inputStream);
+    }
+
+
+    @Override
+    public int read() throws IOException
+    {
+        final int readByte = super.read();
+
+        if (readByte != -1)
+            count++;
+
+        return readByte;
+    }
+
+
+    @Override
+    public int read(final byte[] buffer, final int offset, final int length) throws IOException
+    {
+        final int readBytes = super.read(buffer, offset, length);
+
+        if (readBytes > 0)
+            count += readBytes;
+
+        return readBytes;
+    }
+
+
+    @Override
+    public long skip(final long length) throws IOException
+    {
+        final long skippedBytes = super.skip(length);
+        count += skippedBytes;
+        return skippedBytes;
+    }
+
+
+    @Override
+    public boolean markSupported()
+    {
+        return false;
+    }
+
+
+    /**
+     * Reads and counts all remaining bytes of the stream.
+     *
+     * @throws IOException thrown when the stream could not be read
+     */
+    public void drain() throws IOException
+    {
+        final byte[] buffer = new byte[8192];
+
+        while (read(buffer, 0, buffer.length) != -1) {
+            // the bytes are counted by the read method
+        }
+    }
+
+
+    /**
+     * Returns the number of bytes that were read so far.
+     *
+     * @return the number of bytes that were read so far
+     */
+    public long getCount()
+    {
+        return count;
+    }
+}
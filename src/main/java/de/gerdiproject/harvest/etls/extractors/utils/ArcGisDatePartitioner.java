@@ -0,0 +1,100 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.gerdiproject.harvest.arcgis.constants.ArcGisConstants;
+
+/**
+ * This class splits a range of creation dates into consecutive {@linkplain ArcGisDateRange}s,
+ * each of which contains few enough maps to be paged through completely, despite
+ * the limited result window of the ArcGis search.
+ * Ranges are bisected adaptively, based on the number of maps they contain,
+ * and ranges that contain no maps are dropped.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisDatePartitioner
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(ArcGisDatePartitioner.class);
+
+    private final ToIntFunction<ArcGisDateRange> mapCounter;
+    private final int maxMapsPerRange;
+
+
+    /**
+     * Constructor that requires a function that counts the maps of a range.
+     *
+     * @param mapCounter a function that retrieves the number of maps of a range
+     * @param maxMapsPerRange the maximum number of maps of a single range
+     */
+    public ArcGisDatePartitioner(final ToIntFunction<ArcGisDateRange> mapCounter, final int maxMapsPerRange)
+    {
+        this.mapCounter = mapCounter;
+        this.maxMapsPerRange = maxMapsPerRange;
+    }
+
+
+    /**
+     * Splits a range of creation dates until each part contains
+     * at most the maximum number of maps.
+     *
+     * @param range the range that is to be split
+     *
+     * @return a list of non-empty, consecutive ranges, ordered by their creation dates
+     */
+    public List<ArcGisDateRange> partition(final ArcGisDateRange range)
+    {
+        final List<ArcGisDateRange> partitions = new ArrayList<>();
+        final Deque<ArcGisDateRange> pendingRanges = new ArrayDeque<>();
+        pendingRanges.push(range);
+
+        while (!pendingRanges.isEmpty()) {
+            final ArcGisDateRange pendingRange = pendingRanges.pop();
+            final int mapCount = mapCounter.applyAsInt(pendingRange);
+
+            if (mapCount == 0)
+                continue;
+
+            if (mapCount <= maxMapsPerRange)
+                partitions.add(pendingRange);
+
+            else if (pendingRange.getFrom() >= pendingRange.getTo()) {
+                // a single millisecond cannot be split any further
+                LOGGER.warn(String.format(ArcGisConstants.PARTITION_TOO_LARGE, pendingRange.getFrom(), mapCount));
+                partitions.add(pendingRange);
+
+            } else {
+                final long middle = pendingRange.getFrom() + (pendingRange.getTo() - pendingRange.getFrom()) / 2;
+
+                // push the later half first, so that the earlier half is processed first
+                pendingRanges.push(new ArcGisDateRange(middle + 1, pendingRange.getTo()));
+                pendingRanges.push(new ArcGisDateRange(pendingRange.getFrom(), middle));
+            }
+        }
+
+        return partitions;
+    }
+}
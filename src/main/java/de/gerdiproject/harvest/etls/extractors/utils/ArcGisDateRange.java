@@ -0,0 +1,43 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import de.gerdiproject.harvest.arcgis.constants.ArcGisConstants;
+import lombok.Value;
+
+/**
+ * This class represents an inclusive range of creation dates of ArcGis maps.
+ *
+ * @author Robin Weiss
+ */
+@Value
+public class ArcGisDateRange
+{
+    private final long from;
+    private final long to;
+
+
+    /**
+     * Creates the URL encoded search filter that restricts a query to this range.
+     *
+     * @return a URL encoded search filter
+     */
+    public String toQueryFilter()
+    {
+        return String.format(ArcGisConstants.CREATED_RANGE_FILTER, from, to);
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+/**
+ * This enumeration represents the types of ArcGis REST endpoints that
+ * are requested by the harvester.
+ *
+ * @author Robin Weiss
+ */
+public enum ArcGisEndpoint
+{
+    SEARCH("/sharing/rest/search"),
+    USERS("/sharing/rest/community/users"),
+    GROUPS("/sharing/rest/community/groups"),
+    PORTALS("/sharing/rest/portals"),
+    OTHER(null);
+
+    private final String pathPrefix;
+
+
+    /**
+     * Constructor that requires the path by which the URLs of the endpoint begin.
+     *
+     * @param pathPrefix the path by which the URLs of the endpoint begin
+     */
+    ArcGisEndpoint(final String pathPrefix)
+    {
+        this.pathPrefix = pathPrefix;
+    }
+
+
+    /**
+     * Determines the endpoint of a request path.
+     *
+     * @param path the path of a request URL
+     *
+     * @return the endpoint of the path
+     */
+    public static ArcGisEndpoint fromPath(final String path)
+    {
+        for (final ArcGisEndpoint endpoint : values()) {
+            if (endpoint.pathPrefix != null && path.startsWith(endpoint.pathPrefix))
+                return endpoint;
+        }
+
+        return OTHER;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.gerdiproject.harvest.arcgis.constants.ArcGisConstants;
+
+/**
+ * This class runs the extractions of multiple ETLs at the same time, although
+ * the ETLs are harvested one after the other. All extractions that were prepared
+ * since the previous harvest are started in the background as soon as the first
+ * of them is claimed. Each extraction runs on its own thread and buffers a limited
+ * number of elements until its ETL is harvested and claims it.
+ * The HTTP requests of all extractions are limited by the {@linkplain ArcGisRequestBudget}
+ * of the {@linkplain ArcGisHttpClient}.
+ *
+ * @param <T> the type of the extracted elements
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisExtractionScheduler<T>
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(ArcGisExtractionScheduler.class);
+
+    private final Map<Object, Supplier<Iterator<T>>> preparedExtractions;
+    private final Map<Object, ArcGisBackgroundIterator<T>> runningExtractions;
+    private final int bufferSize;
+
+
+    /**
+     * Constructor that requires the number of elements that are buffered per extraction.
+     *
+     * @param bufferSize the maximum number of elements that are buffered per extraction
+     */
+    public ArcGisExtractionScheduler(final int bufferSize)
+    {
+        this.preparedExtractions = new LinkedHashMap<>();
+        this.runningExtractions = new HashMap<>();
+        this.bufferSize = bufferSize;
+    }
+
+
+    /**
+     * Prepares the extraction of an ETL, discarding a previous extraction of the same ETL
+     * that was never claimed.
+     *
+     * @param owner the object that claims the extraction, usually an extractor
+     * @param extraction a function that creates the iterator of the extraction
+     */
+    public synchronized void prepare(final Object owner, final Supplier<Iterator<T>> extraction)
+    {
+        cancel(owner);
+        preparedExtractions.put(owner, extraction);
+    }
+
+
+    /**
+     * Retrieves the running extraction of an ETL. If it is not running yet,
+     * all prepared extractions are started, including the claimed one.
+     *
+     * @param owner the object that claims the extraction, usually an extractor
+     * @param extraction a function that creates the iterator of the extraction,
+     *          if it was not prepared
+     *
+     * @return an iterator of the elements that are extracted in the background
+     */
+    public synchronized ArcGisBackgroundIterator<T> claim(final Object owner, final Supplier<Iterator<T>> extraction)
+    {
+        final ArcGisBackgroundIterator<T> runningExtraction = runningExtractions.remove(owner);
+
+        if (runningExtraction != null)
+            return runningExtraction;
+
+        preparedExtractions.putIfAbsent(owner, extraction);
+
+        if (preparedExtractions.size() > 1)
+            LOGGER.info(String.format(ArcGisConstants.CONCURRENT_EXTRACTION_INFO, preparedExtractions.size()));
+
+        for (final Map.Entry<Object, Supplier<Iterator<T>>> entry : preparedExtractions.entrySet())
+            runningExtractions.put(entry.getKey(), new ArcGisBackgroundIterator<>(entry.getValue(), bufferSize));
+
+        preparedExtractions.clear();
+
+        return runningExtractions.remove(owner);
+    }
+
+
+    /**
+     * Stops the extraction of an ETL if it is running, or removes it if it is prepared.
+     *
+     * @param owner the object that claims the extraction, usually an extractor
+     */
+    public synchronized void cancel(final Object owner)
+    {
+        preparedExtractions.remove(owner);
+
+        final ArcGisBackgroundIterator<T> runningExtraction = runningExtractions.remove(owner);
+
+        if (runningExtraction != null)
+            runningExtraction.shutdown();
+    }
+}
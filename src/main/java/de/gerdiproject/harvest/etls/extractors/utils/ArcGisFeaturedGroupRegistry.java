@@ -0,0 +1,183 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.gerdiproject.harvest.arcgis.constants.ArcGisConstants;
+import de.gerdiproject.harvest.arcgis.json.ArcGisFeaturedGroup;
+import de.gerdiproject.harvest.etls.extractors.ArcGisExtractor;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * A static, process-wide registry of {@linkplain ArcGisFeaturedGroup}s that is shared
+ * by the context listener and all extractors.
+ * Each query is sent only once per portal, and concurrent callers of the same query
+ * wait for a single request. All cached queries are refreshed periodically in the background.
+ * Groups that were retrieved with their tags are also indexed by their ID, so that
+ * querying a single known group does not require another request.
+ *
+ * @author Robin Weiss
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ArcGisFeaturedGroupRegistry
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(ArcGisFeaturedGroupRegistry.class);
+
+    private static final Map<ArcGisPortalQuery, CompletableFuture<List<ArcGisFeaturedGroup>>> QUERY_RESULTS = new ConcurrentHashMap<>();
+    private static final Map<ArcGisPortalQuery, ArcGisHttpClient> QUERY_CLIENTS = new ConcurrentHashMap<>();
+    private static final Map<ArcGisPortalQuery, ArcGisFeaturedGroup> GROUPS_BY_ID = new ConcurrentHashMap<>();
+    private static final ScheduledExecutorService REFRESH_SCHEDULER = createRefreshScheduler();
+
+
+    /**
+     * Retrieves the featured groups that match a query, sending a request only
+     * if the query was not sent before and the groups are not yet known.
+     *
+     * @param httpClient the {@linkplain ArcGisHttpClient} that sends the request if necessary
+     * @param baseUrl the host of the ArcGis portal
+     * @param query the groups query
+     *
+     * @return a list of detailed featured groups
+     */
+    public static List<ArcGisFeaturedGroup> getGroupsByQuery(final ArcGisHttpClient httpClient, final String baseUrl, final String query)
+    {
+        final ArcGisPortalQuery portalQuery = new ArcGisPortalQuery(baseUrl, query);
+
+        // check if the query is the ID of a group that is already known
+        final ArcGisFeaturedGroup knownGroup = GROUPS_BY_ID.get(portalQuery);
+
+        if (knownGroup != null)
+            return Collections.singletonList(knownGroup);
+
+        // check if the same query was sent before, or is currently being sent
+        final CompletableFuture<List<ArcGisFeaturedGroup>> newResult = new CompletableFuture<>();
+        final CompletableFuture<List<ArcGisFeaturedGroup>> existingResult = QUERY_RESULTS.putIfAbsent(portalQuery, newResult);
+
+        if (existingResult != null)
+            return join(existingResult);
+
+        try {
+            final List<ArcGisFeaturedGroup> groups = ArcGisExtractor.getFeaturedGroupsByQuery(httpClient, baseUrl, query);
+
+            if (groups == null)
+                QUERY_RESULTS.remove(portalQuery, newResult);
+            else {
+                QUERY_CLIENTS.put(portalQuery, httpClient);
+                indexGroups(baseUrl, groups);
+            }
+
+            newResult.complete(groups);
+            return groups;
+
+        } catch (final RuntimeException e) { // NOPMD the exception is rethrown to all waiting callers
+            QUERY_RESULTS.remove(portalQuery, newResult);
+            newResult.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+
+    /**
+     * Sends all cached queries again, replacing the cached groups if the requests succeed.
+     */
+    public static void refresh()
+    {
+        for (final Map.Entry<ArcGisPortalQuery, ArcGisHttpClient> entry : QUERY_CLIENTS.entrySet()) {
+            final ArcGisPortalQuery portalQuery = entry.getKey();
+
+            try {
+                final List<ArcGisFeaturedGroup> groups =
+                    ArcGisExtractor.getFeaturedGroupsByQuery(entry.getValue(), portalQuery.getBaseUrl(), portalQuery.getQuery());
+
+                if (groups != null) {
+                    indexGroups(portalQuery.getBaseUrl(), groups);
+                    QUERY_RESULTS.put(portalQuery, CompletableFuture.completedFuture(groups));
+                }
+            } catch (final RuntimeException e) { // NOPMD keep the cached groups if the refresh fails
+                LOGGER.warn(String.format(ArcGisConstants.GROUP_REFRESH_FAILED, portalQuery.getQuery(), portalQuery.getBaseUrl()));
+            }
+        }
+    }
+
+
+    /**
+     * Indexes groups that provide tags by their IDs.
+     *
+     * @param baseUrl the host of the ArcGis portal
+     * @param groups the groups that are to be indexed
+     */
+    private static void indexGroups(final String baseUrl, final List<ArcGisFeaturedGroup> groups)
+    {
+        for (final ArcGisFeaturedGroup group : groups) {
+            if (group.getId() != null && group.getTags() != null)
+                GROUPS_BY_ID.put(new ArcGisPortalQuery(baseUrl, group.getId()), group);
+        }
+    }
+
+
+    /**
+     * Waits for a pending query result.
+     *
+     * @param result the pending query result
+     *
+     * @return a list of detailed featured groups
+     */
+    private static List<ArcGisFeaturedGroup> join(final CompletableFuture<List<ArcGisFeaturedGroup>> result)
+    {
+        try {
+            return result.join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+
+            throw e;
+        }
+    }
+
+
+    /**
+     * Creates a scheduler that periodically refreshes all cached queries.
+     *
+     * @return a scheduler that periodically refreshes all cached queries
+     */
+    private static ScheduledExecutorService createRefreshScheduler()
+    {
+        final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory(ArcGisConstants.GROUP_REFRESH_THREAD_NAME));
+
+        scheduler.scheduleWithFixedDelay(
+            ArcGisFeaturedGroupRegistry::refresh,
+            ArcGisConstants.GROUP_REFRESH_INTERVAL_HOURS,
+            ArcGisConstants.GROUP_REFRESH_INTERVAL_HOURS,
+            TimeUnit.HOURS);
+
+        return scheduler;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import de.gerdiproject.harvest.arcgis.constants.ArcGisConstants;
+import de.gerdiproject.harvest.arcgis.json.ArcGisMap;
+import de.gerdiproject.harvest.arcgis.json.generic.GenericArcGisResponse;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * A static class for calculating version fingerprints of groups of {@linkplain ArcGisMap}s.
+ * The fingerprint is a hash of the query, the total number of maps and the ID and
+ * modification date of the most recently modified map. Any edit of a map causes the map to
+ * become the most recently modified one, while added or removed maps change the total.
+ *
+ * There is one known gap: if a map is removed from a group while an unmodified map is
+ * added to it, neither the total nor the most recently modified map changes. An interrupted
+ * harvest may then be resumed from a checkpoint whose finished pages miss the added map,
+ * which is only harvested by the next harvest that does not resume. Hashing the IDs of more
+ * maps would merely narrow this gap to swaps within the hashed page, while enlarging the
+ * request of every ETL, so only a single map is retrieved.
+ *
+ * @author Robin Weiss
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ArcGisFingerprintHelper
+{
+    /**
+     * Calculates a fingerprint of a search response that is sorted by modification dates
+     * in descending order.
+     *
+     * @param recentlyModified a search response that contains the most recently modified map of a group
+     *
+     * @return a hexadecimal hash that changes when the maps of the group change
+     */
+    public static String createFingerprint(final GenericArcGisResponse<ArcGisMap> recentlyModified)
+    {
+        final MessageDigest digest;
+
+        try {
+            digest = MessageDigest.getInstance(ArcGisConstants.FINGERPRINT_ALGORITHM);
+        } catch (final NoSuchAlgorithmException e) {
+            // this should never happen, because every JVM must support SHA-256
+            return recentlyModified.getQuery() + recentlyModified.getTotal();
+        }
+
+        update(digest, recentlyModified.getQuery());
+        update(digest, String.valueOf(recentlyModified.getTotal()));
+
+        for (final ArcGisMap map : recentlyModified.getResults()) {
+            update(digest, map.getId());
+            update(digest, String.valueOf(map.getModified()));
+        }
+
+        return new BigInteger(1, digest.digest()).toString(16);
+    }
+
+
+    /**
+     * Adds a string to a digest, followed by a separator that prevents
+     * ambiguities between concatenated strings.
+     *
+     * @param digest the digest that is to be updated
+     * @param value the string that is to be added to the digest
+     */
+    private static void update(final MessageDigest digest, final String value)
+    {
+        if (value != null)
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+
+        digest.update((byte) 0);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import de.gerdiproject.harvest.arcgis.constants.ArcGisConstants;
+import de.gerdiproject.harvest.arcgis.json.ArcGisFeaturedGroup;
+import de.gerdiproject.harvest.utils.data.DiskIO;
+import de.gerdiproject.json.GsonUtils;
+
+/**
+ * This class persists the featured groups of all ArcGis portals, so that ETLs
+ * can be created from the last known groups without waiting for the portals to respond.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisGroupSnapshot
+{
+    private final DiskIO diskIo;
+    private final File snapshotFile;
+
+
+    /**
+     * Constructor that requires the file in which the snapshot is stored.
+     *
+     * @param snapshotFile the file in which the snapshot is stored
+     */
+    public ArcGisGroupSnapshot(final File snapshotFile)
+    {
+        this.diskIo = new DiskIO(GsonUtils.createGerdiDocumentGsonBuilder().create(), StandardCharsets.UTF_8);
+        this.snapshotFile = snapshotFile;
+    }
+
+
+    /**
+     * Loads the featured groups of the last snapshot.
+     *
+     * @return a map of ArcGis base URLs to their featured groups,
+     * or null if no snapshot exists
+     */
+    public Map<String, List<ArcGisFeaturedGroup>> load()
+    {
+        return snapshotFile.exists()
+               ? diskIo.getObject(snapshotFile, ArcGisConstants.GROUP_SNAPSHOT_TYPE)
+               : null;
+    }
+
+
+    /**
+     * Stores the featured groups of all portals.
+     *
+     * @param groupsByPortal a map of ArcGis base URLs to their featured groups
+     */
+    public void save(final Map<String, List<ArcGisFeaturedGroup>> groupsByPortal)
+    {
+        snapshotFile.getParentFile().mkdirs();
+        diskIo.writeObjectToFile(snapshotFile, groupsByPortal);
+    }
+}
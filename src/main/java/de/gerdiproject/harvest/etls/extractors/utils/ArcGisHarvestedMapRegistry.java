@@ -0,0 +1,131 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import de.gerdiproject.harvest.arcgis.constants.ArcGisConstants;
+import de.gerdiproject.harvest.arcgis.json.ArcGisMap;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * A static, process-wide registry of the {@linkplain ArcGisMap}s that were harvested
+ * during the current harvest cycle, which allows ETLs to recognize maps that were already
+ * harvested by another ETL, because they are featured in multiple groups or portals.
+ * A new cycle begins when an ETL that already harvested during the current cycle starts
+ * harvesting again, or when no map was registered for a long time.
+ *
+ * @author Robin Weiss
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ArcGisHarvestedMapRegistry
+{
+    private static final ArcGisMapIdSet HARVESTED_IDS = new ArcGisMapIdSet();
+    private static final Set<String> CYCLE_ETL_NAMES = new HashSet<>();
+    private static long lastActivityTime;
+    private static long duplicateCount;
+
+
+    /**
+     * Registers the start of a harvest, beginning a new cycle if necessary.
+     *
+     * @param etlName the name of the ETL that starts harvesting
+     */
+    public static synchronized void startHarvest(final String etlName)
+    {
+        final long now = System.currentTimeMillis();
+        final boolean isCycleExpired =
+            now - lastActivityTime > TimeUnit.HOURS.toMillis(ArcGisConstants.HARVEST_CYCLE_TIMEOUT_HOURS);
+
+        if (!CYCLE_ETL_NAMES.add(etlName) || isCycleExpired) {
+            HARVESTED_IDS.clear();
+            CYCLE_ETL_NAMES.clear();
+            CYCLE_ETL_NAMES.add(etlName);
+        }
+
+        lastActivityTime = now;
+    }
+
+
+    /**
+     * Registers a harvested map.
+     *
+     * @param mapId the ID of the harvested map
+     *
+     * @return true if the map was not yet harvested during the current cycle
+     */
+    public static synchronized boolean register(final String mapId)
+    {
+        lastActivityTime = System.currentTimeMillis();
+        final boolean isNew = HARVESTED_IDS.add(mapId);
+
+        if (!isNew)
+            duplicateCount++;
+
+        return isNew;
+    }
+
+
+    /**
+     * Filters a collection of maps, removing all maps that were
+     * already harvested during the current cycle.
+     *
+     * @param maps the maps that are to be filtered
+     *
+     * @return a list of maps that were not yet harvested during the current cycle
+     */
+    public static synchronized List<ArcGisMap> removeHarvested(final Collection<ArcGisMap> maps)
+    {
+        final List<ArcGisMap> newMaps = new ArrayList<>(maps.size());
+
+        for (final ArcGisMap map : maps) {
+            if (!HARVESTED_IDS.contains(map.getId()))
+                newMaps.add(map);
+        }
+
+        return newMaps;
+    }
+
+
+    /**
+     * Returns the number of maps that were harvested during the current cycle.
+     *
+     * @return the number of maps that were harvested during the current cycle
+     */
+    public static synchronized int size()
+    {
+        return HARVESTED_IDS.size();
+    }
+
+
+    /**
+     * Returns the number of maps that were registered more than once during a cycle,
+     * since the start of the service.
+     *
+     * @return the number of duplicate maps since the start of the service
+     */
+    public static synchronized long getDuplicateCount()
+    {
+        return duplicateCount;
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import java.util.concurrent.TimeUnit;
+
+import de.gerdiproject.harvest.arcgis.constants.ArcGisConstants;
+
+/**
+ * This class is a token bucket that limits the rate of requests that are sent to a single host.
+ * The rate adapts itself to the responses of the host: it is increased additively after
+ * each fast response, and decreased multiplicatively if the host throttles requests,
+ * is overloaded, or responds considerably slower than its recent baseline.
+ * If a host asks for a delay via the Retry-After header, no requests are permitted until it has passed.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisHostRateLimiter
+{
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final double maxRate;
+    private double rate;
+    private double tokens;
+    private double smoothedLatencyNanos;
+    private double baselineLatencyNanos;
+    private long lastRefillNanos;
+    private long lastDecreaseNanos;
+    private long pausedUntilNanos;
+
+
+    /**
+     * Constructor that requires the initial and the maximum rate.
+     *
+     * @param initialRate the number of requests per second that are permitted initially
+     * @param maxRate the maximum number of requests per second
+     */
+    public ArcGisHostRateLimiter(final double initialRate, final double maxRate)
+    {
+        final long now = System.nanoTime();
+
+        this.maxRate = Math.max(maxRate, ArcGisConstants.MIN_REQUESTS_PER_SECOND);
+        this.rate = Math.max(Math.min(initialRate, this.maxRate), ArcGisConstants.MIN_REQUESTS_PER_SECOND);
+        this.tokens = 1;
+        this.smoothedLatencyNanos = -1;
+        this.baselineLatencyNanos = Double.MAX_VALUE;
+        this.lastRefillNanos = now;
+        this.lastDecreaseNanos = now - TimeUnit.MILLISECONDS.toNanos(ArcGisConstants.RATE_DECREASE_INTERVAL_MILLIS);
+        this.pausedUntilNanos = now;
+    }
+
+
+    /**
+     * Blocks until a request may be sent to the host.
+     *
+     * @throws InterruptedException thrown when the thread was interrupted while waiting
+     */
+    public void acquire() throws InterruptedException
+    {
+        final long waitNanos = reserve();
+
+        if (waitNanos > 0)
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+    }
+
+
+    /**
+     * Adapts the rate to a successful response.
+     *
+     * @param latencyNanos the number of nanoseconds it took to retrieve the response
+     */
+    public synchronized void onSuccess(final long latencyNanos)
+    {
+        smoothedLatencyNanos = smoothedLatencyNanos < 0
+                               ? latencyNanos
+                               : smoothedLatencyNanos + ArcGisConstants.LATENCY_SMOOTHING_FACTOR * (latencyNanos - smoothedLatencyNanos);
+
+        // let the baseline drift upwards, so that it adapts to slower, but stable responses
+        baselineLatencyNanos = Math.min(smoothedLatencyNanos, baselineLatencyNanos * (1 + ArcGisConstants.LATENCY_BASELINE_DRIFT));
+
+        if (smoothedLatencyNanos > baselineLatencyNanos * ArcGisConstants.LATENCY_THRESHOLD_FACTOR)
+            decrease(ArcGisConstants.RATE_LATENCY_DECREASE_FACTOR);
+        else
+            rate = Math.min(maxRate, rate + ArcGisConstants.RATE_INCREASE_STEP);
+    }
+
+
+    /**
+     * Adapts the rate to a response that indicates that the host is throttling
+     * requests or is overloaded.
+     *
+     * @param retryAfterMillis the number of milliseconds the host asked to wait,
+     *         or a negative value if the host did not ask for a delay
+     */
+    public synchronized void onThrottled(final long retryAfterMillis)
+    {
+        decrease(ArcGisConstants.RATE_DECREASE_FACTOR);
+
+        if (retryAfterMillis > 0)
+            pausedUntilNanos = Math.max(pausedUntilNanos, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(retryAfterMillis));
+    }
+
+
+    /**
+     * Returns the number of requests per second that are currently permitted.
+     *
+     * @return the number of requests per second that are currently permitted
+     */
+    public synchronized double getRate()
+    {
+        return rate;
+    }
+
+
+    /**
+     * Takes a token from the bucket, going into debt if the bucket is empty.
+     *
+     * @return the number of nanoseconds to wait until the debt is repaid
+     */
+    private synchronized long reserve()
+    {
+        final long now = System.nanoTime();
+
+        // refill the bucket, allowing bursts of up to one second worth of requests
+        tokens = Math.min(Math.max(1, rate), tokens + (now - lastRefillNanos) * rate / NANOS_PER_SECOND);
+        lastRefillNanos = now;
+        tokens -= 1;
+
+        final long debtNanos = tokens < 0 ? (long) Math.ceil(-tokens * NANOS_PER_SECOND / rate) : 0;
+        return Math.max(debtNanos, pausedUntilNanos - now);
+    }
+
+
+    /**
+     * Decreases the rate, unless it was already decreased recently.
+     * This prevents a single congestion from reducing the rate once per
+     * concurrent request.
+     *
+     * @param factor the factor by which the rate is multiplied
+     */
+    private void decrease(final double factor)
+    {
+        final long now = System.nanoTime();
+
+        if (now - lastDecreaseNanos < TimeUnit.MILLISECONDS.toNanos(ArcGisConstants.RATE_DECREASE_INTERVAL_MILLIS))
+            return;
+
+        rate = Math.max(ArcGisConstants.MIN_REQUESTS_PER_SECOND, rate * factor);
+        lastDecreaseNanos = now;
+    }
+}
@@ -0,0 +1,781 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+
+import de.gerdiproject.harvest.arcgis.constants.ArcGisConstants;
+import de.gerdiproject.harvest.arcgis.constants.ArcGisParameterConstants;
+import de.gerdiproject.harvest.config.Configuration;
+import de.gerdiproject.harvest.config.parameters.BooleanParameter;
+import de.gerdiproject.harvest.config.parameters.IntegerParameter;
+import de.gerdiproject.harvest.utils.data.HttpRequester;
+import de.gerdiproject.json.GsonUtils;
+
+/**
+ * This class retrieves JSON objects from ArcGis portals.
+ * By default, requests are sent directly by this class.
+ * Such requests accept compressed responses, which are decompressed while they are
+ * parsed, and the transferred bytes are counted per {@linkplain ArcGisEndpoint}.
+ * If the response cache is enabled, response bodies are cached together with their
+ * ETag and Last-Modified headers in a process-wide {@linkplain ArcGisResponseCache}.
+ * Subsequent requests of the same URL are sent as conditional requests, and if the
+ * portal responds with 304 (Not Modified), the previously parsed object is returned
+ * without reading or parsing a body.
+ * If responses are recorded, requests are sent by this class as well, and each response
+ * is written to an {@linkplain ArcGisResponseRecorder} in the layout of the mocked responses
+ * of the library. Recorded requests are never conditional, so that every body is recorded.
+ * If direct requests are disabled, all requests are delegated to a {@linkplain HttpRequester}.
+ * If the library is configured to read HTTP responses from disk, responses are read
+ * from the mocked response folder, which has the same layout as the recorded responses.
+ * URLs that have no mocked response there are delegated to the {@linkplain HttpRequester}.
+ * <br><br>
+ * Responses can also be opened as streams via {@linkplain #openStream(String)}, which
+ * hold the connection and the permits of the request until they are closed.
+ * <br><br>
+ * A single instance is shared by all ETLs, so that connections are kept alive and
+ * reused across ETLs by an {@linkplain ArcGisConnectionPool}.
+ * The requests of each host are paced by a process-wide {@linkplain ArcGisHostRateLimiter}.
+ * Requests that fail because the host throttles requests or is temporarily unavailable
+ * are repeated after the delay requested via Retry-After, or after an exponential
+ * backoff with random jitter.
+ * The number of requests that are in flight at the same time is limited by a process-wide
+ * {@linkplain ArcGisRequestBudget}, which hands out permits fairly among hosts and among
+ * the fairness keys of the clients that were created via {@linkplain #withFairnessKey(String)}.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisHttpClient
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(ArcGisHttpClient.class);
+    private static final ArcGisResponseCache RESPONSE_CACHE = new ArcGisResponseCache(0, 0);
+    private static final Map<String, ArcGisHostRateLimiter> RATE_LIMITERS = new ConcurrentHashMap<>();
+    private static final ArcGisTransferStats TRANSFER_STATS = new ArcGisTransferStats();
+    private static final ArcGisRequestBudget REQUEST_BUDGET =
+        new ArcGisRequestBudget(ArcGisParameterConstants.MAX_IN_FLIGHT_REQUESTS_DEFAULT);
+    private static ArcGisHttpClient sharedInstance;
+    private static volatile ArcGisResponseRecorder mockedResponses =
+        new ArcGisResponseRecorder(new File(ArcGisConstants.RECORDED_RESPONSES_FOLDER));
+
+    private final HttpRequester httpRequester;
+    private final Gson gson;
+    private final BooleanParameter directRequestsParam;
+    private final IntegerParameter cacheEntriesParam;
+    private final IntegerParameter cacheKilobytesParam;
+    private final IntegerParameter requestsPerSecondParam;
+    private final IntegerParameter maxRequestsPerSecondParam;
+    private final IntegerParameter retriesParam;
+    private final IntegerParameter connectionsPerHostParam;
+    private final IntegerParameter maxInFlightRequestsParam;
+    private final BooleanParameter recordResponsesParam;
+    private final BooleanParameter readFromDiskParam;
+    private final ArcGisResponseRecorder responseRecorder;
+    private final ArcGisConnectionPool connectionPool;
+    private final String fairnessKey;
+
+
+    /**
+     * Returns the client that is shared by all ETLs and the context listener,
+     * creating it if necessary.
+     *
+     * @return the shared client
+     */
+    public static synchronized ArcGisHttpClient getInstance()
+    {
+        if (sharedInstance == null)
+            sharedInstance = new ArcGisHttpClient();
+
+        return sharedInstance;
+    }
+
+
+    /**
+     * Private constructor that registers the parameters of the client.
+     */
+    private ArcGisHttpClient()
+    {
+        this.httpRequester = new HttpRequester();
+        this.gson = GsonUtils.createGerdiDocumentGsonBuilder().create();
+        this.directRequestsParam = Configuration.registerParameter(
+                                       new BooleanParameter(
+                                           ArcGisParameterConstants.DIRECT_REQUESTS_KEY,
+                                           ArcGisParameterConstants.CATEGORY,
+                                           ArcGisParameterConstants.DIRECT_REQUESTS_DEFAULT));
+        this.cacheEntriesParam = Configuration.registerParameter(
+                                     new IntegerParameter(
+                                         ArcGisParameterConstants.HTTP_CACHE_ENTRIES_KEY,
+                                         ArcGisParameterConstants.CATEGORY,
+                                         ArcGisParameterConstants.HTTP_CACHE_ENTRIES_DEFAULT));
+        this.cacheKilobytesParam = Configuration.registerParameter(
+                                       new IntegerParameter(
+                                           ArcGisParameterConstants.HTTP_CACHE_KILOBYTES_KEY,
+                                           ArcGisParameterConstants.CATEGORY,
+                                           ArcGisParameterConstants.HTTP_CACHE_KILOBYTES_DEFAULT));
+        this.requestsPerSecondParam = Configuration.registerParameter(
+                                          new IntegerParameter(
+                                              ArcGisParameterConstants.REQUESTS_PER_SECOND_KEY,
+                                              ArcGisParameterConstants.CATEGORY,
+                                              ArcGisParameterConstants.REQUESTS_PER_SECOND_DEFAULT));
+        this.maxRequestsPerSecondParam = Configuration.registerParameter(
+                                             new IntegerParameter(
+                                                 ArcGisParameterConstants.MAX_REQUESTS_PER_SECOND_KEY,
+                                                 ArcGisParameterConstants.CATEGORY,
+                                                 ArcGisParameterConstants.MAX_REQUESTS_PER_SECOND_DEFAULT));
+        this.retriesParam = Configuration.registerParameter(
+                                new IntegerParameter(
+                                    ArcGisParameterConstants.HTTP_RETRIES_KEY,
+                                    ArcGisParameterConstants.CATEGORY,
+                                    ArcGisParameterConstants.HTTP_RETRIES_DEFAULT));
+        this.connectionsPerHostParam = Configuration.registerParameter(
+                                           new IntegerParameter(
+                                               ArcGisParameterConstants.CONNECTIONS_PER_HOST_KEY,
+                                               ArcGisParameterConstants.CATEGORY,
+                                               ArcGisParameterConstants.CONNECTIONS_PER_HOST_DEFAULT));
+        this.maxInFlightRequestsParam = Configuration.registerParameter(
+                                            new IntegerParameter(
+                                                ArcGisParameterConstants.MAX_IN_FLIGHT_REQUESTS_KEY,
+                                                ArcGisParameterConstants.CATEGORY,
+                                                ArcGisParameterConstants.MAX_IN_FLIGHT_REQUESTS_DEFAULT));
+        this.recordResponsesParam = Configuration.registerParameter(
+                                        new BooleanParameter(
+                                            ArcGisParameterConstants.RECORD_RESPONSES_KEY,
+                                            ArcGisParameterConstants.CATEGORY,
+                                            ArcGisParameterConstants.RECORD_RESPONSES_DEFAULT));
+        this.readFromDiskParam = Configuration.registerParameter(
+                                     new BooleanParameter(
+                                         ArcGisParameterConstants.READ_FROM_DISK_KEY,
+                                         ArcGisParameterConstants.READ_FROM_DISK_CATEGORY,
+                                         ArcGisParameterConstants.READ_FROM_DISK_DEFAULT));
+        this.responseRecorder = new ArcGisResponseRecorder(new File(ArcGisConstants.RECORDED_RESPONSES_FOLDER));
+        this.connectionPool = new ArcGisConnectionPool(connectionsPerHostParam::getValue);
+        this.fairnessKey = null;
+    }
+
+
+    /**
+     * Private constructor that copies another client, but assigns a different fairness key.
+     *
+     * @param other the client that is copied
+     * @param fairnessKey the key that identifies the requests of the new client
+     */
+    private ArcGisHttpClient(final ArcGisHttpClient other, final String fairnessKey)
+    {
+        this.httpRequester = other.httpRequester;
+        this.gson = other.gson;
+        this.directRequestsParam = other.directRequestsParam;
+        this.cacheEntriesParam = other.cacheEntriesParam;
+        this.cacheKilobytesParam = other.cacheKilobytesParam;
+        this.requestsPerSecondParam = other.requestsPerSecondParam;
+        this.maxRequestsPerSecondParam = other.maxRequestsPerSecondParam;
+        this.retriesParam = other.retriesParam;
+        this.connectionsPerHostParam = other.connectionsPerHostParam;
+        this.maxInFlightRequestsParam = other.maxInFlightRequestsParam;
+        this.recordResponsesParam = other.recordResponsesParam;
+        this.readFromDiskParam = other.readFromDiskParam;
+        this.responseRecorder = other.responseRecorder;
+        this.connectionPool = other.connectionPool;
+        this.fairnessKey = fairnessKey;
+    }
+
+
+    /**
+     * Creates a client that shares the connections, caches, and limits of this client,
+     * but whose requests are queued separately when the maximum number of requests
+     * in flight is reached, so that they get a fair share of the permits.
+     *
+     * @param key a key that identifies the requests of the new client, such as a group ID
+     *
+     * @return a client with the specified fairness key
+     */
+    public ArcGisHttpClient withFairnessKey(final String key)
+    {
+        return new ArcGisHttpClient(this, key);
+    }
+
+
+    /**
+     * Changes the folder from which mocked responses are read if the library
+     * is configured to read HTTP responses from disk.
+     *
+     * @param folder a folder that contains responses in the layout of the
+     *         {@linkplain ArcGisResponseRecorder}
+     */
+    public static void setMockedResponseFolder(final File folder)
+    {
+        mockedResponses = new ArcGisResponseRecorder(folder);
+    }
+
+
+    /**
+     * Returns the bytes that were transferred by direct requests since the start of the service.
+     *
+     * @return the bytes that were transferred per endpoint
+     */
+    public ArcGisTransferStats getTransferStats()
+    {
+        return TRANSFER_STATS;
+    }
+
+
+    /**
+     * Retrieves an object from a JSON response.
+     *
+     * @param url the URL of the JSON response
+     * @param targetClass the class of the retrieved object
+     * @param <T> the type of the retrieved object
+     *
+     * @return the retrieved object, or null if the request failed
+     */
+    public <T> T getObjectFromUrl(final String url, final Class<T> targetClass)
+    {
+        return getObjectFromUrl(url, (Type) targetClass);
+    }
+
+
+    /**
+     * Retrieves an object from a JSON response, repeating the request
+     * if the host is throttling requests or is temporarily unavailable,
+     * or if the connection failed.
+     *
+     * @param url the URL of the JSON response
+     * @param targetType the type of the retrieved object
+     * @param <T> the type of the retrieved object
+     *
+     * @return the retrieved object, or null if the request failed
+     */
+    public <T> T getObjectFromUrl(final String url, final Type targetType)
+    {
+        // mocked responses are neither rate limited, nor do they need a valid host
+        if (readFromDiskParam.getValue())
+            return readMockedResponse(url, targetType);
+
+        final String host = getHost(url);
+        final String budgetKey = fairnessKey == null ? host : fairnessKey;
+        final int maxAttempts = 1 + Math.max(0, retriesParam.getValue());
+
+        REQUEST_BUDGET.setMaxInFlight(maxInFlightRequestsParam.getValue());
+
+        try {
+            return sendWithRetries(url, getRateLimiter(host), REQUEST_BUDGET, budgetKey, maxAttempts, () -> sendRequest(url, targetType));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (final JsonParseException e) {
+            LOGGER.warn(String.format(ArcGisConstants.HTTP_REQUEST_FAILED, url), e);
+            return null;
+        }
+    }
+
+
+    /**
+     * Opens the decompressed body of a JSON response as a stream, repeating the request
+     * if the host is throttling requests or is temporarily unavailable, or if the
+     * connection failed. The permits of the connection pool and the request budget are
+     * returned as soon as the response headers arrived, because the reader of the stream
+     * may wait for other requests, such as the owners of the streamed maps, before closing it.
+     * If direct requests are disabled, or if responses are cached, recorded, or mocked,
+     * the response is retrieved completely via {@linkplain #getObjectFromUrl(String, Type)}
+     * before it is returned as a stream.
+     *
+     * @param url the URL of the JSON response
+     *
+     * @return a stream of the response body that must be closed, or null if the request failed
+     */
+    public InputStream openStream(final String url)
+    {
+        final boolean isCaching = cacheEntriesParam.getValue() > 0 && cacheKilobytesParam.getValue() > 0;
+
+        if (isCaching
+            || !directRequestsParam.getValue()
+            || recordResponsesParam.getValue()
+            || readFromDiskParam.getValue()) {
+            final JsonElement response = getObjectFromUrl(url, JsonElement.class);
+            return response == null
+                   ? null
+                   : new ByteArrayInputStream(gson.toJson(response).getBytes(StandardCharsets.UTF_8));
+        }
+
+        final String host = getHost(url);
+        final String budgetKey = fairnessKey == null ? host : fairnessKey;
+        final int maxAttempts = 1 + Math.max(0, retriesParam.getValue());
+        REQUEST_BUDGET.setMaxInFlight(maxInFlightRequestsParam.getValue());
+
+        try {
+            return sendWithRetries(url, getRateLimiter(host), REQUEST_BUDGET, budgetKey, maxAttempts, () -> sendStreamRequest(url));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+
+    /**
+     * Sends a single request that accepts compressed responses, and opens its response body.
+     * The connection is returned to the connection pool as soon as the response headers arrived.
+     *
+     * @param url the URL of the JSON response
+     *
+     * @throws IOException thrown when the request failed
+     * @throws InterruptedException thrown when the thread was interrupted while waiting for a connection
+     *
+     * @return a stream of the decompressed response body
+     */
+    private InputStream sendStreamRequest(final String url) throws IOException, InterruptedException
+    {
+        final HttpURLConnection connection = connectionPool.open(
+                                                 url,
+                                                 Collections.singletonMap(ArcGisConstants.ACCEPT_ENCODING_HEADER, ArcGisConstants.ACCEPTED_ENCODINGS));
+
+        try {
+            final int status = connection.getResponseCode();
+
+            if (status != HttpURLConnection.HTTP_OK) {
+                final long retryAfterMillis = parseRetryAfter(connection.getHeaderField(ArcGisConstants.RETRY_AFTER_HEADER));
+                ArcGisConnectionPool.readBody(connection);
+                throw new ArcGisHttpStatusException(status, retryAfterMillis);
+            }
+
+            return new ArcGisResponseStream(
+                       connection.getInputStream(),
+                       connection.getContentEncoding(),
+                       ArcGisEndpoint.fromPath(connection.getURL().getPath()),
+                       TRANSFER_STATS,
+                       () -> { });
+        } finally {
+            connectionPool.release(connection);
+        }
+    }
+
+
+    /**
+     * Sends a request until it succeeds or the maximum number of attempts is reached.
+     * Only responses that indicate that the host is throttling requests or is overloaded
+     * decrease the rate of the host. Failed connections are repeated after a backoff,
+     * but do not decrease the rate, and other HTTP errors and malformed URLs are not repeated at all.
+     *
+     * Each attempt holds a permit of the request budget while it is sent. The latency that is
+     * reported to the rate limiter excludes the time that was spent waiting for the permit.
+     *
+     * @param url the URL of the request
+     * @param rateLimiter the rate limiter of the host of the URL
+     * @param budget the request budget that limits the requests in flight
+     * @param budgetKey the key by which the request is queued in the request budget
+     * @param maxAttempts the maximum number of attempts
+     * @param request a function that sends a single attempt of the request
+     * @param <T> the type of the retrieved object
+     *
+     * @throws InterruptedException thrown when the thread was interrupted while waiting
+     *
+     * @return the retrieved object, or null if the request failed
+     */
+    static <T> T sendWithRetries(final String url, final ArcGisHostRateLimiter rateLimiter, final ArcGisRequestBudget budget, final String budgetKey, final int maxAttempts, final IArcGisRequest<T> request)
+    throws InterruptedException
+    {
+        final String host = getHost(url);
+
+        for (int attempt = 1; ; attempt++) {
+            long retryAfterMillis = -1;
+            rateLimiter.acquire();
+            budget.acquire(host, budgetKey);
+
+            try {
+                final long requestStartTime = System.nanoTime();
+                final T result = request.send();
+
+                if (result != null)
+                    rateLimiter.onSuccess(System.nanoTime() - requestStartTime);
+
+                return result;
+
+            } catch (final ArcGisHttpStatusException e) {
+                if (!e.isRetryable() || attempt >= maxAttempts) {
+                    LOGGER.warn(String.format(ArcGisConstants.HTTP_REQUEST_FAILED, url), e);
+                    return null;
+                }
+
+                retryAfterMillis = e.getRetryAfterMillis();
+                rateLimiter.onThrottled(retryAfterMillis);
+
+            } catch (final MalformedURLException e) {
+                // repeating the request cannot fix the URL
+                LOGGER.warn(String.format(ArcGisConstants.HTTP_REQUEST_FAILED, url), e);
+                return null;
+
+            } catch (final IOException e) {
+                if (attempt >= maxAttempts) {
+                    LOGGER.warn(String.format(ArcGisConstants.HTTP_REQUEST_FAILED, url), e);
+                    return null;
+                }
+            } finally {
+                budget.release();
+            }
+
+            final long delayMillis = retryAfterMillis >= 0 ? retryAfterMillis : getBackoffMillis(attempt);
+            LOGGER.debug(String.format(ArcGisConstants.HTTP_RETRY, url, delayMillis, attempt + 1, maxAttempts));
+            TimeUnit.MILLISECONDS.sleep(delayMillis);
+        }
+    }
+
+
+    /**
+     * Sends a single request, either directly or via the {@linkplain HttpRequester}.
+     *
+     * @param url the URL of the JSON response
+     * @param targetType the type of the retrieved object
+     * @param <T> the type of the retrieved object
+     *
+     * @throws IOException thrown when the request failed
+     * @throws InterruptedException thrown when the thread was interrupted while waiting for a connection
+     *
+     * @return the retrieved object
+     */
+    @SuppressWarnings("unchecked") // the cached object was parsed as the target type
+    private <T> T sendRequest(final String url, final Type targetType) throws IOException, InterruptedException
+    {
+        final int maxEntries = cacheEntriesParam.getValue();
+        final long maxBytes = cacheKilobytesParam.getValue() * 1024L;
+
+        final boolean isRecording = recordResponsesParam.getValue();
+        final boolean isCaching = !isRecording && maxEntries > 0 && maxBytes > 0;
+
+        if (!isCaching && !isRecording && !directRequestsParam.getValue())
+            return sendRequesterRequest(url, targetType);
+
+        if (isCaching)
+            RESPONSE_CACHE.setLimits(maxEntries, maxBytes);
+
+        return (T) sendDirectRequest(url, targetType, isCaching, isRecording);
+    }
+
+
+    /**
+     * Sends a request via the {@linkplain HttpRequester}, which logs failed
+     * requests and returns null. Since the status of a failed request is unknown,
+     * such requests are not repeated.
+     *
+     * @param url the URL of the JSON response
+     * @param targetType the type of the retrieved object
+     * @param <T> the type of the retrieved object
+     *
+     * @return the retrieved object, or null if the request failed
+     */
+    private <T> T sendRequesterRequest(final String url, final Type targetType)
+    {
+        return httpRequester.getObjectFromUrl(url, targetType);
+    }
+
+
+    /**
+     * Reads the mocked response of a URL from the mocked response folder,
+     * or from the {@linkplain HttpRequester} if the folder does not contain it.
+     *
+     * @param url the URL of the JSON response
+     * @param targetType the type of the retrieved object
+     * @param <T> the type of the retrieved object
+     *
+     * @return the retrieved object, or null if the response could not be read
+     */
+    private <T> T readMockedResponse(final String url, final Type targetType)
+    {
+        final File responseFile = mockedResponses.getResponseFile(url);
+
+        if (!responseFile.isFile()) {
+            LOGGER.debug(String.format(ArcGisConstants.MOCKED_RESPONSE_MISSING, url, responseFile));
+            return sendRequesterRequest(url, targetType);
+        }
+
+        try (Reader reader = new InputStreamReader(new FileInputStream(responseFile), StandardCharsets.UTF_8)) {
+            return gson.fromJson(reader, targetType);
+
+        } catch (final IOException | JsonParseException e) {
+            LOGGER.warn(String.format(ArcGisConstants.HTTP_REQUEST_FAILED, url), e);
+            return null;
+        }
+    }
+
+
+    /**
+     * Retrieves the host of a URL, by which requests are rate limited and queued.
+     * URLs without a protocol, which the {@linkplain HttpRequester} accepts as well,
+     * share a common key instead of being dropped.
+     *
+     * @param url the URL of a request
+     *
+     * @return the host of the URL, or a common key if the URL has no valid host
+     */
+    static String getHost(final String url)
+    {
+        try {
+            final String host = new URL(url).getHost();
+            return host.isEmpty() ? ArcGisConstants.UNKNOWN_HOST_KEY : host;
+
+        } catch (final MalformedURLException e) {
+            LOGGER.debug(String.format(ArcGisConstants.UNKNOWN_HOST, url));
+            return ArcGisConstants.UNKNOWN_HOST_KEY;
+        }
+    }
+
+
+    /**
+     * Retrieves the rate limiter of a host, creating it if necessary.
+     *
+     * @param host the host to which requests are sent
+     *
+     * @return the rate limiter of the host
+     */
+    private ArcGisHostRateLimiter getRateLimiter(final String host)
+    {
+        return RATE_LIMITERS.computeIfAbsent(
+                   host,
+                   (final String h) -> new ArcGisHostRateLimiter(
+                       requestsPerSecondParam.getValue(),
+                       maxRequestsPerSecondParam.getValue()));
+    }
+
+
+    /**
+     * Calculates an exponentially growing delay with full jitter, which
+     * prevents concurrent requests from being repeated at the same time.
+     *
+     * @param attempt the number of the failed attempt, starting at 1
+     *
+     * @return a random delay in milliseconds
+     */
+    static long getBackoffMillis(final int attempt)
+    {
+        final long maxDelay = Math.min(
+                                  ArcGisConstants.BACKOFF_MAX_MILLIS,
+                                  ArcGisConstants.BACKOFF_BASE_MILLIS << Math.min(attempt - 1, 16));
+        return ThreadLocalRandom.current().nextLong(maxDelay + 1);
+    }
+
+
+    /**
+     * Parses the value of a Retry-After header, which is either
+     * a number of seconds or an HTTP date. Delays are capped, so that
+     * a single response cannot stall the harvest.
+     *
+     * @param retryAfter the value of a Retry-After header, or null
+     *
+     * @return the delay in milliseconds, or -1 if no valid delay was specified
+     */
+    static long parseRetryAfter(final String retryAfter)
+    {
+        final long retryAfterMillis = parseRetryAfterValue(retryAfter);
+        return retryAfterMillis < 0 ? -1 : Math.min(retryAfterMillis, ArcGisConstants.RETRY_AFTER_MAX_MILLIS);
+    }
+
+
+    /**
+     * Parses the uncapped value of a Retry-After header.
+     *
+     * @param retryAfter the value of a Retry-After header, or null
+     *
+     * @return the delay in milliseconds, or -1 if no valid delay was specified
+     */
+    private static long parseRetryAfterValue(final String retryAfter)
+    {
+        if (retryAfter == null)
+            return -1;
+
+        try {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim()));
+        } catch (final NumberFormatException e) { // NOPMD the value may be a date instead
+        }
+
+        try {
+            final ZonedDateTime retryDate = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, retryDate.toInstant().toEpochMilli() - System.currentTimeMillis());
+        } catch (final DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+
+    /**
+     * Sends a request that accepts compressed responses, and that is
+     * conditional if the response of the URL is cached.
+     *
+     * @param url the URL of the JSON response
+     * @param targetType the type of the retrieved object
+     * @param isCaching if true, the response cache is enabled
+     * @param isRecording if true, the response is recorded
+     *
+     * @throws IOException thrown when the request failed
+     * @throws InterruptedException thrown when the thread was interrupted while waiting for a connection
+     *
+     * @return the retrieved object
+     */
+    private Object sendDirectRequest(final String url, final Type targetType, final boolean isCaching, final boolean isRecording)
+    throws IOException, InterruptedException
+    {
+        final ArcGisCachedResponse cachedResponse = isCaching ? RESPONSE_CACHE.get(url) : null;
+        final Map<String, String> requestHeaders = new HashMap<>();
+        requestHeaders.put(ArcGisConstants.ACCEPT_ENCODING_HEADER, ArcGisConstants.ACCEPTED_ENCODINGS);
+
+        if (cachedResponse != null) {
+            if (cachedResponse.getETag() != null)
+                requestHeaders.put(ArcGisConstants.IF_NONE_MATCH_HEADER, cachedResponse.getETag());
+
+            if (cachedResponse.getLastModified() != null)
+                requestHeaders.put(ArcGisConstants.IF_MODIFIED_SINCE_HEADER, cachedResponse.getLastModified());
+        }
+
+        return connectionPool.send(url, requestHeaders, (final HttpURLConnection connection) ->
+                                   parseResponse(url, targetType, connection, cachedResponse, isCaching, isRecording));
+    }
+
+
+    /**
+     * Parses the response of a request and caches it if it carries validators,
+     * or records it if responses are recorded.
+     *
+     * @param url the URL of the JSON response
+     * @param targetType the type of the retrieved object
+     * @param connection the connection of the request
+     * @param cachedResponse the previously cached response of the URL, or null
+     * @param isCaching if true, the response cache is enabled
+     * @param isRecording if true, the response is recorded
+     *
+     * @throws IOException thrown when the response could not be read
+     *
+     * @return the retrieved object
+     */
+    private Object parseResponse(final String url, final Type targetType, final HttpURLConnection connection, final ArcGisCachedResponse cachedResponse, final boolean isCaching, final boolean isRecording)
+    throws IOException
+    {
+        final long requestTime = System.currentTimeMillis();
+        final long requestStartNanos = System.nanoTime();
+        final int status = connection.getResponseCode();
+        final long headerMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - requestStartNanos);
+
+        if (status == HttpURLConnection.HTTP_NOT_MODIFIED && cachedResponse != null) {
+            ArcGisConnectionPool.readBody(connection);
+            return cachedResponse.getObject(targetType, gson);
+        }
+
+        if (status != HttpURLConnection.HTTP_OK) {
+            final long retryAfterMillis = parseRetryAfter(connection.getHeaderField(ArcGisConstants.RETRY_AFTER_HEADER));
+            ArcGisConnectionPool.readBody(connection);
+            throw new ArcGisHttpStatusException(status, retryAfterMillis);
+        }
+
+        final ArcGisEndpoint endpoint = ArcGisEndpoint.fromPath(connection.getURL().getPath());
+        final String contentEncoding = connection.getContentEncoding();
+        final String eTag = connection.getHeaderField(ArcGisConstants.ETAG_HEADER);
+        final String lastModified = connection.getHeaderField(ArcGisConstants.LAST_MODIFIED_HEADER);
+
+        if (isRecording) {
+            final byte[] body = ArcGisConnectionPool.readBody(connection);
+            final long totalMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - requestStartNanos);
+            recordResponse(url, body, contentEncoding, requestTime, headerMillis, totalMillis);
+            return parseBody(new ByteArrayInputStream(body), contentEncoding, targetType, endpoint);
+        }
+
+        // cacheable bodies are kept as they were transferred, before they are parsed
+        if (isCaching && (eTag != null || lastModified != null)) {
+            final byte[] body = ArcGisConnectionPool.readBody(connection);
+            final Object parsedObject = parseBody(new ByteArrayInputStream(body), contentEncoding, targetType, endpoint);
+            RESPONSE_CACHE.put(url, new ArcGisCachedResponse(eTag, lastModified, contentEncoding, body, targetType, parsedObject));
+            return parsedObject;
+        }
+
+        if (isCaching)
+            RESPONSE_CACHE.remove(url);
+
+        try (InputStream responseStream = connection.getInputStream()) {
+            return parseBody(responseStream, contentEncoding, targetType, endpoint);
+        }
+    }
+
+
+    /**
+     * Records the decompressed body of a response together with its timing.
+     * Failures are logged, but do not fail the request.
+     *
+     * @param url the URL of the JSON response
+     * @param body the response body as it was transferred
+     * @param contentEncoding the value of the Content-Encoding header of the response, or null
+     * @param requestTime the time at which the request was sent, in milliseconds since the epoch
+     * @param headerMillis the number of milliseconds until the response status was received
+     * @param totalMillis the number of milliseconds until the response body was received
+     */
+    private void recordResponse(final String url, final byte[] body, final String contentEncoding, final long requestTime, final long headerMillis, final long totalMillis)
+    {
+        try {
+            final byte[] decompressedBody = ArcGisConnectionPool.readAll(
+                                                ArcGisConnectionPool.decompress(new ByteArrayInputStream(body), contentEncoding));
+            responseRecorder.record(
+                url,
+                decompressedBody,
+                new ArcGisResponseTiming(url, requestTime, headerMillis, totalMillis, contentEncoding, body.length, decompressedBody.length));
+
+        } catch (final IOException e) {
+            LOGGER.warn(String.format(ArcGisConstants.RECORD_FAILED, url), e);
+        }
+    }
+
+
+    /**
+     * Decompresses a response body while it is parsed, and counts the transferred
+     * and decompressed bytes. The body is read completely, so that the connection
+     * can be reused.
+     *
+     * @param body the stream of the response body
+     * @param contentEncoding the value of the Content-Encoding header of the response, or null
+     * @param targetType the type of the retrieved object
+     * @param endpoint the endpoint that sent the response
+     *
+     * @throws IOException thrown when the body could not be read
+     *
+     * @return the retrieved object
+     */
+    private Object parseBody(final InputStream body, final String contentEncoding, final Type targetType, final ArcGisEndpoint endpoint)
+    throws IOException
+    {
+        try (ArcGisResponseStream responseStream = new ArcGisResponseStream(body, contentEncoding, endpoint, TRANSFER_STATS, () -> { })) {
+            return gson.fromJson(new InputStreamReader(responseStream, StandardCharsets.UTF_8), targetType);
+        }
+    }
+}
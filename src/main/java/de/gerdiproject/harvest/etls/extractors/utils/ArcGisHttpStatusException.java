@@ -0,0 +1,83 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import java.io.IOException;
+
+import de.gerdiproject.harvest.arcgis.constants.ArcGisConstants;
+
+/**
+ * This exception is thrown when an ArcGis portal responds with an unexpected HTTP status.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisHttpStatusException extends IOException
+{
+    private static final long serialVersionUID = 4915046379842377301L;
+
+    private final int status;
+    private final long retryAfterMillis;
+
+
+    /**
+     * Constructor that requires the status and the Retry-After value of the response.
+     *
+     * @param status the HTTP status of the response
+     * @param retryAfterMillis the number of milliseconds the portal asked to wait before
+     *         sending another request, or -1 if the response did not ask for a delay
+     */
+    public ArcGisHttpStatusException(final int status, final long retryAfterMillis)
+    {
+        super(String.format(ArcGisConstants.HTTP_STATUS_ERROR, status));
+        this.status = status;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+
+    /**
+     * Returns the HTTP status of the response.
+     *
+     * @return the HTTP status of the response
+     */
+    public int getStatus()
+    {
+        return status;
+    }
+
+
+    /**
+     * Returns the number of milliseconds the portal asked to wait before sending another request.
+     *
+     * @return the requested delay in milliseconds, or -1 if the response did not ask for a delay
+     */
+    public long getRetryAfterMillis()
+    {
+        return retryAfterMillis;
+    }
+
+
+    /**
+     * Checks if the status indicates that the portal is throttling requests or
+     * is temporarily unavailable, in which case the request can be repeated.
+     *
+     * @return true if the request can be repeated
+     */
+    public boolean isRetryable()
+    {
+        return status == ArcGisConstants.HTTP_TOO_MANY_REQUESTS || status >= 500;
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * This class is a memory-compact set of ArcGis item IDs.
+ * ArcGis item IDs consist of 32 hexadecimal digits, which are stored as two
+ * primitive longs in an open addressing hash table, requiring 16 bytes per ID
+ * instead of a String object per ID. IDs of any other format are stored in an
+ * ordinary set, so that the set is always exact.
+ * This class is not thread-safe.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisMapIdSet
+{
+    private static final int HEX_ID_LENGTH = 32;
+    private static final int HEX_RADIX = 16;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Set<String> irregularIds;
+    private long[] table;
+    private int hexIdCount;
+
+
+    /**
+     * Constructor that creates an empty set.
+     */
+    public ArcGisMapIdSet()
+    {
+        this.irregularIds = new HashSet<>();
+        this.table = new long[2 * INITIAL_CAPACITY];
+    }
+
+
+    /**
+     * Adds an ID to the set.
+     *
+     * @param id the ID that is to be added
+     *
+     * @return true if the ID was not yet part of the set
+     */
+    public boolean add(final String id)
+    {
+        if (!isCompactId(id))
+            return irregularIds.add(id);
+
+        final long high = Long.parseUnsignedLong(id.substring(0, HEX_ID_LENGTH / 2), HEX_RADIX);
+        final long low = Long.parseUnsignedLong(id.substring(HEX_ID_LENGTH / 2), HEX_RADIX);
+
+        if (indexOf(high, low) >= 0)
+            return false;
+
+        // keep the load factor at 50% or below
+        if (2 * (hexIdCount + 1) > table.length / 2)
+            resize();
+
+        insert(high, low);
+        hexIdCount++;
+        return true;
+    }
+
+
+    /**
+     * Checks if an ID is part of the set.
+     *
+     * @param id the ID that is to be looked up
+     *
+     * @return true if the ID is part of the set
+     */
+    public boolean contains(final String id)
+    {
+        if (!isCompactId(id))
+            return irregularIds.contains(id);
+
+        final long high = Long.parseUnsignedLong(id.substring(0, HEX_ID_LENGTH / 2), HEX_RADIX);
+        final long low = Long.parseUnsignedLong(id.substring(HEX_ID_LENGTH / 2), HEX_RADIX);
+        return indexOf(high, low) >= 0;
+    }
+
+
+    /**
+     * Returns the number of IDs of the set.
+     *
+     * @return the number of IDs of the set
+     */
+    public int size()
+    {
+        return hexIdCount + irregularIds.size();
+    }
+
+
+    /**
+     * Removes all IDs from the set, and shrinks it to its initial capacity.
+     */
+    public void clear()
+    {
+        irregularIds.clear();
+        table = new long[2 * INITIAL_CAPACITY];
+        hexIdCount = 0;
+    }
+
+
+    /**
+     * Checks if an ID can be stored as two longs. The ID that consists only
+     * of zeros is excluded, because it marks empty slots of the table.
+     *
+     * @param id an ID
+     *
+     * @return true if the ID consists of 32 lower case hexadecimal digits, not all of which are zero
+     */
+    private static boolean isCompactId(final String id)
+    {
+        if (id == null || id.length() != HEX_ID_LENGTH)
+            return false;
+
+        boolean isZero = true;
+
+        for (int i = 0; i < HEX_ID_LENGTH; i++) {
+            final char c = id.charAt(i);
+
+            // upper case digits are excluded, because they would be confused with lower case ones
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f'))
+                return false;
+
+            isZero &= c == '0';
+        }
+
+        return !isZero;
+    }
+
+
+    /**
+     * Looks up the slot of an ID.
+     *
+     * @param high the upper 64 bits of the ID
+     * @param low the lower 64 bits of the ID
+     *
+     * @return the index of the slot in the table, or -1 if the ID is not part of the set
+     */
+    private int indexOf(final long high, final long low)
+    {
+        final int mask = table.length / 2 - 1;
+
+        for (int slot = hash(high, low) & mask; ; slot = (slot + 1) & mask) {
+            final long slotHigh = table[2 * slot];
+            final long slotLow = table[2 * slot + 1];
+
+            if (slotHigh == 0 && slotLow == 0)
+                return -1;
+
+            if (slotHigh == high && slotLow == low)
+                return slot;
+        }
+    }
+
+
+    /**
+     * Inserts an ID into the first free slot, assuming that it is not yet part of the set.
+     *
+     * @param high the upper 64 bits of the ID
+     * @param low the lower 64 bits of the ID
+     */
+    private void insert(final long high, final long low)
+    {
+        final int mask = table.length / 2 - 1;
+        int slot = hash(high, low) & mask;
+
+        while (table[2 * slot] != 0 || table[2 * slot + 1] != 0)
+            slot = (slot + 1) & mask;
+
+        table[2 * slot] = high;
+        table[2 * slot + 1] = low;
+    }
+
+
+    /**
+     * Doubles the number of slots of the table.
+     */
+    private void resize()
+    {
+        final long[] oldTable = table;
+        table = new long[2 * oldTable.length];
+
+        for (int i = 0; i < oldTable.length; i += 2) {
+            if (oldTable[i] != 0 || oldTable[i + 1] != 0)
+                insert(oldTable[i], oldTable[i + 1]);
+        }
+    }
+
+
+    /**
+     * Spreads the bits of an ID over an integer hash.
+     *
+     * @param high the upper 64 bits of the ID
+     * @param low the lower 64 bits of the ID
+     *
+     * @return a hash of the ID
+     */
+    private static int hash(final long high, final long low)
+    {
+        long h = high * 0x9E3779B97F4A7C15L ^ low;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
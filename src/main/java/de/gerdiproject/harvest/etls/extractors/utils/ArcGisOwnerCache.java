@@ -0,0 +1,171 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.gerdiproject.harvest.arcgis.constants.ArcGisConstants;
+import de.gerdiproject.harvest.arcgis.json.ArcGisUser;
+import de.gerdiproject.harvest.utils.data.DiskIO;
+import de.gerdiproject.json.GsonUtils;
+
+/**
+ * This class persists {@linkplain ArcGisUser} profiles on disk, so they
+ * can be reused across harvests. Each profile is stored in its own file
+ * that is named after the username, and expires after a configurable
+ * amount of time.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisOwnerCache
+{
+    private final DiskIO diskIo;
+    private final File cacheFolder;
+    private final long timeToLive;
+    private final AtomicInteger hits;
+    private final AtomicInteger misses;
+    private final AtomicInteger unmodifiedRefreshes;
+
+
+    /**
+     * Constructor that requires the folder of the cache files and the time to live.
+     *
+     * @param cacheFolder the folder in which the profiles are stored
+     * @param timeToLiveHours the number of hours after which cached profiles expire,
+     *         or a number less than 1 if the cache is to be disabled
+     */
+    public ArcGisOwnerCache(final File cacheFolder, final int timeToLiveHours)
+    {
+        this.diskIo = new DiskIO(GsonUtils.createGerdiDocumentGsonBuilder().create(), StandardCharsets.UTF_8);
+        this.cacheFolder = cacheFolder;
+        this.timeToLive = TimeUnit.HOURS.toMillis(timeToLiveHours);
+        this.hits = new AtomicInteger();
+        this.misses = new AtomicInteger();
+        this.unmodifiedRefreshes = new AtomicInteger();
+
+        if (timeToLive > 0)
+            cacheFolder.mkdirs();
+    }
+
+
+    /**
+     * Retrieves a cached profile that has not expired yet.
+     *
+     * @param username the name of the map owner
+     *
+     * @return the cache entry of the owner, or null if there is no valid entry
+     */
+    public ArcGisOwnerCacheEntry get(final String username)
+    {
+        ArcGisOwnerCacheEntry entry = null;
+
+        if (timeToLive > 0) {
+            final File cacheFile = getCacheFile(username);
+
+            if (cacheFile.exists())
+                entry = diskIo.getObject(cacheFile, ArcGisOwnerCacheEntry.class);
+
+            if (entry != null && System.currentTimeMillis() - entry.getRetrievalTime() > timeToLive)
+                entry = null;
+        }
+
+        if (entry == null)
+            misses.incrementAndGet();
+        else
+            hits.incrementAndGet();
+
+        return entry;
+    }
+
+
+    /**
+     * Stores a downloaded profile on disk.
+     * If the profile was cached before and its modification date did not change,
+     * the download is counted as an unmodified refresh. Such profiles are
+     * downloaded nonetheless, because the modification date is only known afterwards.
+     *
+     * @param username the name of the map owner
+     * @param owner the downloaded profile of the owner, or null if the owner does not exist or is private
+     */
+    public void put(final String username, final ArcGisUser owner)
+    {
+        if (timeToLive <= 0)
+            return;
+
+        final File cacheFile = getCacheFile(username);
+
+        // compare the modification date of the expired profile to the downloaded one
+        if (owner != null && cacheFile.exists()) {
+            final ArcGisOwnerCacheEntry oldEntry = diskIo.getObject(cacheFile, ArcGisOwnerCacheEntry.class);
+
+            if (oldEntry != null && oldEntry.getOwner() != null && oldEntry.getOwner().getModified() == owner.getModified())
+                unmodifiedRefreshes.incrementAndGet();
+        }
+
+        diskIo.writeObjectToFile(cacheFile, new ArcGisOwnerCacheEntry(System.currentTimeMillis(), owner));
+    }
+
+
+    /**
+     * Returns the number of profiles that were retrieved from disk.
+     *
+     * @return the number of cache hits
+     */
+    public int getHits()
+    {
+        return hits.get();
+    }
+
+
+    /**
+     * Returns the number of profiles that were missing or expired.
+     *
+     * @return the number of cache misses
+     */
+    public int getMisses()
+    {
+        return misses.get();
+    }
+
+
+    /**
+     * Returns the number of expired profiles that were downloaded again,
+     * but had not been modified since they were cached.
+     *
+     * @return the number of expired profiles that were downloaded without modifications
+     */
+    public int getUnmodifiedRefreshes()
+    {
+        return unmodifiedRefreshes.get();
+    }
+
+
+    /**
+     * Returns the file in which the profile of a specified user is stored.
+     *
+     * @param username the name of the map owner
+     *
+     * @return the file in which the profile is stored
+     */
+    private File getCacheFile(final String username)
+    {
+        return ArcGisCacheFileHelper.getCacheFile(cacheFolder, username, ArcGisConstants.JSON_FILE_EXTENSION);
+    }
+}
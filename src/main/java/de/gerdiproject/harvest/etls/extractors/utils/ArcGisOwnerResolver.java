@@ -0,0 +1,197 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import de.gerdiproject.harvest.arcgis.constants.ArcGisConstants;
+import de.gerdiproject.harvest.arcgis.json.ArcGisMap;
+import de.gerdiproject.harvest.arcgis.json.ArcGisUser;
+
+/**
+ * This class retrieves the profiles of {@linkplain ArcGisMap} owners.
+ * Each distinct owner is requested only once during the lifetime of the resolver,
+ * and requests are sent in the background by a fixed number of daemon threads that
+ * are shared by the resolvers of all ETLs, which bounds the number of threads and
+ * of owner requests that are in flight at the same time, regardless of how many
+ * groups are extracted concurrently.
+ * Owners that do not exist or whose profiles are private are cached as null values.
+ * Profiles are looked up in an {@linkplain ArcGisOwnerCache} before they are downloaded.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisOwnerResolver
+{
+    private static final ExecutorService SHARED_EXECUTOR = Executors.newFixedThreadPool(
+                                                               ArcGisConstants.OWNER_RESOLVER_THREAD_COUNT,
+                                                               new DaemonThreadFactory(ArcGisConstants.OWNER_RESOLVER_THREAD_NAME));
+
+    private final Function<String, ArcGisUser> ownerDownloader;
+    private final ArcGisOwnerCache diskCache;
+    private final Executor executor;
+    private final Map<String, CompletableFuture<ArcGisUser>> owners;
+
+
+    /**
+     * Constructor that requires the {@linkplain ArcGisHttpClient} used for retrieving profiles.
+     *
+     * @param httpClient the {@linkplain ArcGisHttpClient} that sends the profile requests
+     * @param diskCache a persistent cache of profiles that were retrieved in previous harvests
+     */
+    public ArcGisOwnerResolver(final ArcGisHttpClient httpClient, final ArcGisOwnerCache diskCache)
+    {
+        this((final String username) -> downloadOwner(httpClient, username), diskCache, SHARED_EXECUTOR);
+    }
+
+
+    /**
+     * Constructor that requires a function that downloads profiles.
+     *
+     * @param ownerDownloader a function that downloads the profile of a username,
+     *         returning null if the owner does not exist or is private
+     * @param diskCache a persistent cache of profiles that were retrieved in previous harvests
+     * @param executor the executor that retrieves the profiles in the background
+     */
+    public ArcGisOwnerResolver(final Function<String, ArcGisUser> ownerDownloader, final ArcGisOwnerCache diskCache, final Executor executor)
+    {
+        this.ownerDownloader = ownerDownloader;
+        this.diskCache = diskCache;
+        this.executor = executor;
+        this.owners = new ConcurrentHashMap<>();
+    }
+
+
+    /**
+     * Starts resolving the owners of a batch of maps in the background.
+     * Owners that were already requested are skipped.
+     *
+     * @param maps a batch of maps of which the owners are to be resolved
+     */
+    public void prefetch(final Collection<ArcGisMap> maps)
+    {
+        for (final ArcGisMap map : maps)
+            requestOwner(map.getOwner());
+    }
+
+
+    /**
+     * Retrieves the profile of a map owner, waiting for a pending request if necessary.
+     *
+     * @param username the name of the map owner
+     *
+     * @return the profile of the owner, or null if the owner does not exist or is private
+     */
+    public ArcGisUser getOwner(final String username)
+    {
+        final CompletableFuture<ArcGisUser> owner = requestOwner(username);
+
+        if (owner == null)
+            return null;
+
+        try {
+            return owner.join();
+        } catch (final CompletionException e) {
+            // forget failed requests, so they can be retried
+            owners.remove(username, owner);
+
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+
+            throw e;
+        }
+    }
+
+
+    /**
+     * Discards all pending requests of this resolver. Requests that were
+     * not started yet are skipped by the shared background threads.
+     */
+    public void shutdown()
+    {
+        for (final CompletableFuture<ArcGisUser> owner : owners.values())
+            owner.cancel(false);
+
+        owners.clear();
+    }
+
+
+    /**
+     * Returns the future profile of a map owner, sending a request if the
+     * owner was not requested before.
+     *
+     * @param username the name of the map owner
+     *
+     * @return the future profile of the owner, or null if the username is null
+     */
+    private CompletableFuture<ArcGisUser> requestOwner(final String username)
+    {
+        if (username == null)
+            return null;
+
+        return owners.computeIfAbsent(
+                   username,
+                   (final String name) -> CompletableFuture.supplyAsync(() -> retrieveOwner(name), executor));
+    }
+
+
+    /**
+     * Retrieves the profile of a map owner from the disk cache, or
+     * downloads it if it is not cached.
+     *
+     * @param username the name of the map owner
+     *
+     * @return the profile of the owner, or null if the owner does not exist or is private
+     */
+    private ArcGisUser retrieveOwner(final String username)
+    {
+        final ArcGisOwnerCacheEntry cachedOwner = diskCache.get(username);
+
+        if (cachedOwner != null)
+            return cachedOwner.getOwner();
+
+        final ArcGisUser downloadedOwner = ownerDownloader.apply(username);
+        diskCache.put(username, downloadedOwner);
+
+        return downloadedOwner;
+    }
+
+
+    /**
+     * Downloads the profile of a map owner.
+     *
+     * @param httpClient the {@linkplain ArcGisHttpClient} that sends the profile request
+     * @param username the name of the map owner
+     *
+     * @return the profile of the owner, or null if the owner does not exist or is private
+     */
+    private static ArcGisUser downloadOwner(final ArcGisHttpClient httpClient, final String username)
+    {
+        final String url = String.format(ArcGisConstants.USER_PROFILE_URL, username);
+        final ArcGisUser user = httpClient.getObjectFromUrl(url, ArcGisUser.class);
+
+        // ArcGis responds with an error object if a user is private or does not exist
+        return user == null || user.getUsername() == null ? null : user;
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntFunction;
+
+import de.gerdiproject.harvest.arcgis.constants.ArcGisConstants;
+import de.gerdiproject.harvest.arcgis.json.ArcGisMap;
+import de.gerdiproject.harvest.arcgis.json.generic.GenericArcGisResponse;
+
+/**
+ * This class downloads pages of {@linkplain ArcGisMap}s in parallel.
+ * Since the total number of maps is known in advance, the start index of every
+ * page can be calculated without waiting for the preceding page.
+ * Pages are handed out in the order of their start indices. The number of pages
+ * that are downloaded, but not yet handed out, is limited to twice the number of
+ * parallel downloads in order to keep the memory consumption bounded.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisPageFanOut implements IArcGisPageSource
+{
+    private final IntFunction<GenericArcGisResponse<ArcGisMap>> pageLoader;
+    private final ExecutorService executor;
+    private final Deque<CompletableFuture<GenericArcGisResponse<ArcGisMap>>> pendingPages;
+    private final int maxPendingPages;
+    private int totalCount;
+    private int nextScheduledIndex;
+
+
+    /**
+     * Constructor that immediately starts downloading the first pages.
+     *
+     * @param pageLoader a function that downloads the page of a specified start index
+     * @param startIndex the start index of the first page
+     * @param totalCount the total number of maps that are to be downloaded
+     * @param parallelism the maximum number of pages that are downloaded at the same time
+     */
+    public ArcGisPageFanOut(final IntFunction<GenericArcGisResponse<ArcGisMap>> pageLoader, final int startIndex, final int totalCount, final int parallelism)
+    {
+        this.pageLoader = pageLoader;
+        this.totalCount = totalCount;
+        this.nextScheduledIndex = startIndex;
+        this.maxPendingPages = 2 * parallelism;
+        this.executor = Executors.newFixedThreadPool(parallelism, new DaemonThreadFactory(ArcGisConstants.PAGE_FAN_OUT_THREAD_NAME));
+        this.pendingPages = new ArrayDeque<>(maxPendingPages);
+
+        // the first page is always requested, even if the group seemed to be empty
+        schedulePage();
+        fillPipeline();
+    }
+
+
+    @Override
+    public GenericArcGisResponse<ArcGisMap> nextPage()
+    {
+        final CompletableFuture<GenericArcGisResponse<ArcGisMap>> pendingPage = pendingPages.poll();
+
+        if (pendingPage == null)
+            return null;
+
+        final GenericArcGisResponse<ArcGisMap> page;
+
+        try {
+            page = pendingPage.join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+
+            throw e;
+        }
+
+        // maps may have been added since the total was retrieved
+        totalCount = Math.max(totalCount, page.getTotal());
+
+        if (pendingPages.isEmpty() && page.getNextStart() != -1)
+            nextScheduledIndex = Math.max(nextScheduledIndex, page.getNextStart());
+
+        fillPipeline();
+        return page;
+    }
+
+
+    @Override
+    public void shutdown()
+    {
+        executor.shutdownNow();
+        pendingPages.clear();
+    }
+
+
+    /**
+     * Schedules page downloads until all pages are scheduled,
+     * or until the maximum number of pending pages is reached.
+     */
+    private void fillPipeline()
+    {
+        while (pendingPages.size() < maxPendingPages && nextScheduledIndex <= totalCount)
+            schedulePage();
+    }
+
+
+    /**
+     * Schedules the download of the next page.
+     */
+    private void schedulePage()
+    {
+        final int pageStartIndex = nextScheduledIndex;
+        pendingPages.add(CompletableFuture.supplyAsync(() -> pageLoader.apply(pageStartIndex), executor));
+        nextScheduledIndex += ArcGisConstants.MAPS_PER_PAGE;
+    }
+}
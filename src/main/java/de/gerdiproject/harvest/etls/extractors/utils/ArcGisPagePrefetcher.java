@@ -0,0 +1,122 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntFunction;
+
+import de.gerdiproject.harvest.arcgis.constants.ArcGisConstants;
+import de.gerdiproject.harvest.arcgis.json.ArcGisMap;
+import de.gerdiproject.harvest.arcgis.json.generic.GenericArcGisResponse;
+
+/**
+ * This class downloads pages of {@linkplain ArcGisMap}s in the background,
+ * while previously downloaded pages are being processed.
+ * Pages are requested one after another, following the "nextStart" index of each page.
+ * At most a fixed number of pages are downloaded ahead of the page that is processed,
+ * which keeps the memory consumption bounded.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisPagePrefetcher implements IArcGisPageSource
+{
+    private final IntFunction<GenericArcGisResponse<ArcGisMap>> pageLoader;
+    private final ExecutorService executor;
+    private final Deque<CompletableFuture<GenericArcGisResponse<ArcGisMap>>> pendingPages;
+    private final int depth;
+    private CompletableFuture<GenericArcGisResponse<ArcGisMap>> lastScheduledPage;
+
+
+    /**
+     * Constructor that immediately starts downloading the first pages.
+     *
+     * @param pageLoader a function that downloads the page of a specified start index
+     * @param startIndex the start index of the first page
+     * @param depth the number of pages that are downloaded ahead of the processed page
+     */
+    public ArcGisPagePrefetcher(final IntFunction<GenericArcGisResponse<ArcGisMap>> pageLoader, final int startIndex, final int depth)
+    {
+        this.pageLoader = pageLoader;
+        this.depth = depth;
+        this.executor = Executors.newSingleThreadExecutor(new DaemonThreadFactory(ArcGisConstants.PAGE_PREFETCHER_THREAD_NAME));
+        this.pendingPages = new ArrayDeque<>(depth);
+
+        this.lastScheduledPage = CompletableFuture.supplyAsync(() -> pageLoader.apply(startIndex), executor);
+        pendingPages.add(lastScheduledPage);
+        fillPipeline();
+    }
+
+
+    @Override
+    public GenericArcGisResponse<ArcGisMap> nextPage()
+    {
+        final CompletableFuture<GenericArcGisResponse<ArcGisMap>> page = pendingPages.poll();
+        fillPipeline();
+
+        try {
+            return page == null ? null : page.join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+
+            throw e;
+        }
+    }
+
+
+    @Override
+    public void shutdown()
+    {
+        executor.shutdownNow();
+        pendingPages.clear();
+    }
+
+
+    /**
+     * Schedules page downloads until the configured number of pages is pending.
+     * Each download is chained to its preceding page, because only the preceding
+     * page knows the start index of its successor.
+     */
+    private void fillPipeline()
+    {
+        while (pendingPages.size() < depth) {
+            lastScheduledPage = lastScheduledPage.thenApplyAsync(this::loadSuccessor, executor);
+            pendingPages.add(lastScheduledPage);
+        }
+    }
+
+
+    /**
+     * Downloads the page that follows a specified page.
+     *
+     * @param previousPage the page that precedes the page that is to be downloaded
+     *
+     * @return the succeeding page, or null if the previous page was the last one
+     */
+    private GenericArcGisResponse<ArcGisMap> loadSuccessor(final GenericArcGisResponse<ArcGisMap> previousPage)
+    {
+        if (previousPage == null || previousPage.getNextStart() == -1)
+            return null;
+
+        return pageLoader.apply(previousPage.getNextStart());
+    }
+}
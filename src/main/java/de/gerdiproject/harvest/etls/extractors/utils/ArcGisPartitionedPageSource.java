@@ -0,0 +1,140 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import de.gerdiproject.harvest.arcgis.constants.ArcGisConstants;
+import de.gerdiproject.harvest.arcgis.json.ArcGisMap;
+import de.gerdiproject.harvest.arcgis.json.generic.GenericArcGisResponse;
+
+/**
+ * This class pages through multiple search queries in parallel, each of which
+ * covers a part of the maps of a group. Every query is paged sequentially by one
+ * thread, and pages are handed out in the order in which they were downloaded.
+ * The number of pages that are downloaded, but not yet handed out, is limited
+ * to twice the number of parallel downloads in order to keep the memory consumption bounded.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisPartitionedPageSource implements IArcGisPageSource
+{
+    private static final GenericArcGisResponse<ArcGisMap> END_OF_PAGES =
+        new GenericArcGisResponse<>(null, 0, 0, 0, -1, Collections.<ArcGisMap>emptyList());
+
+    private final BiFunction<String, Integer, GenericArcGisResponse<ArcGisMap>> pageLoader;
+    private final ExecutorService executor;
+    private final BlockingQueue<GenericArcGisResponse<ArcGisMap>> downloadedPages;
+    private final AtomicInteger remainingPartitions;
+    private volatile RuntimeException failure;
+    private boolean isExhausted;
+
+
+    /**
+     * Constructor that immediately starts paging through all queries.
+     *
+     * @param pageLoader a function that downloads the page of a specified query and start index
+     * @param partitionQueries the search queries that are to be paged through
+     * @param parallelism the maximum number of queries that are paged through at the same time
+     */
+    public ArcGisPartitionedPageSource(final BiFunction<String, Integer, GenericArcGisResponse<ArcGisMap>> pageLoader, final List<String> partitionQueries, final int parallelism)
+    {
+        this.pageLoader = pageLoader;
+        this.executor = Executors.newFixedThreadPool(parallelism, new DaemonThreadFactory(ArcGisConstants.PARTITION_THREAD_NAME));
+        this.downloadedPages = new LinkedBlockingQueue<>(2 * parallelism);
+        this.remainingPartitions = new AtomicInteger(partitionQueries.size());
+
+        if (partitionQueries.isEmpty())
+            downloadedPages.add(END_OF_PAGES);
+
+        for (final String partitionQuery : partitionQueries)
+            executor.execute(() -> downloadPartition(partitionQuery));
+    }
+
+
+    @Override
+    public GenericArcGisResponse<ArcGisMap> nextPage()
+    {
+        if (isExhausted)
+            return null;
+
+        final GenericArcGisResponse<ArcGisMap> page;
+
+        try {
+            page = downloadedPages.take();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+
+        if (failure != null)
+            throw failure;
+
+        if (page == END_OF_PAGES) {
+            isExhausted = true;
+            return null;
+        }
+
+        return page;
+    }
+
+
+    @Override
+    public void shutdown()
+    {
+        executor.shutdownNow();
+        downloadedPages.clear();
+    }
+
+
+    /**
+     * Downloads all pages of a query, one after the other.
+     * The last partition that finishes marks the end of all pages.
+     *
+     * @param partitionQuery the search query of the partition
+     */
+    private void downloadPartition(final String partitionQuery)
+    {
+        try {
+            int startIndex = 1;
+
+            while (startIndex != -1) {
+                final GenericArcGisResponse<ArcGisMap> page = pageLoader.apply(partitionQuery, startIndex);
+                downloadedPages.put(page);
+                startIndex = page.getNextStart();
+            }
+
+            if (remainingPartitions.decrementAndGet() == 0)
+                downloadedPages.put(END_OF_PAGES);
+
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+        } catch (final RuntimeException e) { // NOPMD the exception is rethrown by the consuming thread
+            failure = e;
+            downloadedPages.clear();
+            downloadedPages.offer(END_OF_PAGES);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class limits the number of HTTP requests that are in flight at the same time,
+ * across all hosts and ETLs. Requests that exceed the limit wait in queues that are
+ * grouped by the host of the request and by a fairness key, such as the ID of the
+ * harvested group. Whenever a request finishes, the freed permit is handed to the
+ * next host in a round-robin fashion, and within that host to the next fairness key.
+ * Hence, a group that sends many requests in parallel cannot starve smaller groups,
+ * and a portal with many groups cannot starve other portals.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisRequestBudget
+{
+    private final Map<String, Map<String, Deque<Ticket>>> waitingTickets;
+    private int maxInFlight;
+    private int inFlight;
+
+
+    /**
+     * Constructor that requires the maximum number of requests in flight.
+     *
+     * @param maxInFlight the maximum number of requests in flight,
+     *          or a number smaller than 1 if the number is not limited
+     */
+    public ArcGisRequestBudget(final int maxInFlight)
+    {
+        this.waitingTickets = new LinkedHashMap<>();
+        this.maxInFlight = maxInFlight;
+    }
+
+
+    /**
+     * Changes the maximum number of requests in flight. If the maximum increases,
+     * waiting requests are permitted immediately. If it decreases, requests in flight
+     * are not affected, but no further requests are permitted until enough of them finished.
+     *
+     * @param maxInFlight the maximum number of requests in flight,
+     *          or a number smaller than 1 if the number is not limited
+     */
+    public synchronized void setMaxInFlight(final int maxInFlight)
+    {
+        if (this.maxInFlight != maxInFlight) {
+            this.maxInFlight = maxInFlight;
+            grantWaitingTickets();
+        }
+    }
+
+
+    /**
+     * Blocks until a request may be sent. Each successful call must be followed
+     * by exactly one call of {@linkplain #release()} when the request is finished.
+     *
+     * @param host the host to which the request is sent
+     * @param fairnessKey a key that identifies the sender of the request
+     *
+     * @throws InterruptedException thrown when the thread was interrupted while waiting
+     */
+    public synchronized void acquire(final String host, final String fairnessKey) throws InterruptedException
+    {
+        if (waitingTickets.isEmpty() && hasFreePermit()) {
+            inFlight++;
+            return;
+        }
+
+        final Ticket ticket = new Ticket();
+        final Map<String, Deque<Ticket>> ticketsByKey =
+            waitingTickets.computeIfAbsent(host, (final String h) -> new LinkedHashMap<>());
+        ticketsByKey.computeIfAbsent(fairnessKey, (final String k) -> new ArrayDeque<>()).add(ticket);
+
+        try {
+            while (!ticket.isGranted)
+                wait();
+
+        } catch (final InterruptedException e) {
+            // pass the permit on if it was granted while the thread was interrupted
+            if (ticket.isGranted)
+                release();
+            else
+                removeTicket(host, fairnessKey, ticket);
+
+            throw e;
+        }
+    }
+
+
+    /**
+     * Marks a request as finished, permitting the next waiting request.
+     */
+    public synchronized void release()
+    {
+        inFlight--;
+        grantWaitingTickets();
+    }
+
+
+    /**
+     * Returns the number of requests that are in flight.
+     *
+     * @return the number of requests that are in flight
+     */
+    public synchronized int getInFlight()
+    {
+        return inFlight;
+    }
+
+
+    /**
+     * Checks if another request may be sent right away.
+     *
+     * @return true if the number of requests in flight is below the maximum
+     */
+    private boolean hasFreePermit()
+    {
+        return maxInFlight < 1 || inFlight < maxInFlight;
+    }
+
+
+    /**
+     * Grants permits to waiting requests until no permits are left,
+     * alternating between hosts and fairness keys.
+     */
+    private void grantWaitingTickets()
+    {
+        boolean hasGranted = false;
+
+        while (hasFreePermit() && !waitingTickets.isEmpty()) {
+            final Ticket ticket = pollNext(waitingTickets);
+            ticket.isGranted = true;
+            inFlight++;
+            hasGranted = true;
+        }
+
+        if (hasGranted)
+            notifyAll();
+    }
+
+
+    /**
+     * Removes the first ticket of the first host and the first fairness key.
+     * The host and the key are moved to the end of their insertion orders
+     * if they have further waiting tickets.
+     *
+     * @param ticketsByHost the waiting tickets of all hosts
+     *
+     * @return the removed ticket
+     */
+    private static Ticket pollNext(final Map<String, Map<String, Deque<Ticket>>> ticketsByHost)
+    {
+        final Iterator<Map.Entry<String, Map<String, Deque<Ticket>>>> hostIter = ticketsByHost.entrySet().iterator();
+        final Map.Entry<String, Map<String, Deque<Ticket>>> hostEntry = hostIter.next();
+        hostIter.remove();
+
+        final Map<String, Deque<Ticket>> ticketsByKey = hostEntry.getValue();
+        final Iterator<Map.Entry<String, Deque<Ticket>>> keyIter = ticketsByKey.entrySet().iterator();
+        final Map.Entry<String, Deque<Ticket>> keyEntry = keyIter.next();
+        keyIter.remove();
+
+        final Ticket ticket = keyEntry.getValue().poll();
+
+        // re-insert the key and the host at the end of the rotation
+        if (!keyEntry.getValue().isEmpty())
+            ticketsByKey.put(keyEntry.getKey(), keyEntry.getValue());
+
+        if (!ticketsByKey.isEmpty())
+            ticketsByHost.put(hostEntry.getKey(), ticketsByKey);
+
+        return ticket;
+    }
+
+
+    /**
+     * Removes a ticket that is no longer waiting.
+     *
+     * @param host the host of the ticket
+     * @param fairnessKey the fairness key of the ticket
+     * @param ticket the ticket that is to be removed
+     */
+    private void removeTicket(final String host, final String fairnessKey, final Ticket ticket)
+    {
+        final Map<String, Deque<Ticket>> ticketsByKey = waitingTickets.get(host);
+        final Deque<Ticket> tickets = ticketsByKey.get(fairnessKey);
+        tickets.remove(ticket);
+
+        if (tickets.isEmpty())
+            ticketsByKey.remove(fairnessKey);
+
+        if (ticketsByKey.isEmpty())
+            waitingTickets.remove(host);
+    }
+
+
+    /**
+     * A request that waits for a permit.
+     *
+     * @author Robin Weiss
+     */
+    private static class Ticket
+    {
+        private boolean isGranted;
+    }
+}
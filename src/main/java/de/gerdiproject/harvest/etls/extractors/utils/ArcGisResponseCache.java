@@ -0,0 +1,148 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class is a thread-safe, in-memory cache of {@linkplain ArcGisCachedResponse}s
+ * that are mapped by their URLs.
+ * If either the number of entries or the total size of all response bodies exceeds
+ * its limit, the least recently used entries are evicted.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisResponseCache
+{
+    private final Map<String, ArcGisCachedResponse> entries;
+    private int maxEntries;
+    private long maxBytes;
+    private long byteSize;
+
+
+    /**
+     * Constructor that requires the limits of the cache.
+     *
+     * @param maxEntries the maximum number of cached responses
+     * @param maxBytes the maximum total size of all cached response bodies
+     */
+    public ArcGisResponseCache(final int maxEntries, final long maxBytes)
+    {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+
+    /**
+     * Changes the limits of the cache, evicting entries if necessary.
+     *
+     * @param maxEntries the maximum number of cached responses
+     * @param maxBytes the maximum total size of all cached response bodies
+     */
+    public synchronized void setLimits(final int maxEntries, final long maxBytes)
+    {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        evict();
+    }
+
+
+    /**
+     * Retrieves the cached response of a URL.
+     *
+     * @param url the URL of the response
+     *
+     * @return the cached response, or null if the URL is not cached
+     */
+    public synchronized ArcGisCachedResponse get(final String url)
+    {
+        return entries.get(url);
+    }
+
+
+    /**
+     * Caches the response of a URL, replacing a previous response of the same URL.
+     * Responses that are larger than the whole cache are not cached.
+     *
+     * @param url the URL of the response
+     * @param response the response that is to be cached
+     */
+    public synchronized void put(final String url, final ArcGisCachedResponse response)
+    {
+        remove(url);
+
+        if (response.getBody().length > maxBytes)
+            return;
+
+        entries.put(url, response);
+        byteSize += response.getBody().length;
+        evict();
+    }
+
+
+    /**
+     * Removes the cached response of a URL.
+     *
+     * @param url the URL of the response
+     */
+    public synchronized void remove(final String url)
+    {
+        final ArcGisCachedResponse removedResponse = entries.remove(url);
+
+        if (removedResponse != null)
+            byteSize -= removedResponse.getBody().length;
+    }
+
+
+    /**
+     * Returns the number of cached responses.
+     *
+     * @return the number of cached responses
+     */
+    public synchronized int size()
+    {
+        return entries.size();
+    }
+
+
+    /**
+     * Returns the total size of all cached response bodies.
+     *
+     * @return the total size of all cached response bodies in bytes
+     */
+    public synchronized long getByteSize()
+    {
+        return byteSize;
+    }
+
+
+    /**
+     * Removes the least recently used entries until both limits are met.
+     */
+    private void evict()
+    {
+        final Iterator<ArcGisCachedResponse> iter = entries.values().iterator();
+
+        while ((entries.size() > maxEntries || byteSize > maxBytes) && iter.hasNext()) {
+            byteSize -= iter.next().getBody().length;
+            iter.remove();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import de.gerdiproject.harvest.arcgis.constants.ArcGisConstants;
+import de.gerdiproject.harvest.utils.data.DiskIO;
+import de.gerdiproject.json.GsonUtils;
+
+/**
+ * This class writes response bodies to files that follow the layout of the mocked
+ * HTTP responses of the library, so that recorded responses can be replayed by tests
+ * and benchmarks without network access. Each response file is accompanied by an
+ * {@linkplain ArcGisResponseTiming} file that describes how long the response took
+ * and how many bytes were transferred.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisResponseRecorder
+{
+    private final DiskIO diskIo;
+    private final File recordFolder;
+
+
+    /**
+     * Constructor that requires the folder in which the responses are recorded.
+     *
+     * @param recordFolder the folder in which the responses are recorded
+     */
+    public ArcGisResponseRecorder(final File recordFolder)
+    {
+        this.diskIo = new DiskIO(GsonUtils.createGerdiDocumentGsonBuilder().create(), StandardCharsets.UTF_8);
+        this.recordFolder = recordFolder;
+    }
+
+
+    /**
+     * Writes a decompressed response body and its timing to the files of its URL,
+     * replacing previous recordings of the same URL.
+     *
+     * @param url the URL of the request
+     * @param body the decompressed response body
+     * @param timing the timing of the response
+     *
+     * @throws IOException thrown when the files could not be written
+     */
+    public void record(final String url, final byte[] body, final ArcGisResponseTiming timing) throws IOException
+    {
+        final File responseFile = getResponseFile(url);
+        responseFile.getParentFile().mkdirs();
+        Files.write(responseFile.toPath(), body);
+
+        final String responsePath = responseFile.getPath();
+        final File timingFile = new File(
+            responsePath.substring(0, responsePath.length() - ArcGisConstants.RESPONSE_FILE_EXTENSION.length())
+            + ArcGisConstants.TIMING_FILE_EXTENSION);
+        diskIo.writeObjectToFile(timingFile, timing);
+    }
+
+
+    /**
+     * Returns the file of a URL. The protocol is omitted, the query is separated
+     * from the path by a '%query%' folder, and every query parameter is a folder of its own.
+     *
+     * @param url the URL of a request
+     *
+     * @return the file in which the response of the URL is recorded
+     */
+    public File getResponseFile(final String url)
+    {
+        final int protocolEnd = url.indexOf(ArcGisConstants.PROTOCOL_SEPARATOR);
+        String path = protocolEnd == -1 ? url : url.substring(protocolEnd + ArcGisConstants.PROTOCOL_SEPARATOR.length());
+
+        final int queryStart = path.indexOf('?');
+
+        if (queryStart != -1)
+            path = path.substring(0, queryStart)
+                   + ArcGisConstants.QUERY_FOLDER
+                   + path.substring(queryStart + 1).replace("&", "/&");
+
+        return new File(recordFolder, path + ArcGisConstants.RESPONSE_FILE_EXTENSION);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * This stream decompresses a response body while it is read, and counts the
+ * transferred and decompressed bytes. When the stream is closed, the remainder
+ * of the body is read, so that the connection can be reused, the bytes are added
+ * to the {@linkplain ArcGisTransferStats}, and the resources that were held for
+ * the request are released.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisResponseStream extends FilterInputStream
+{
+    private final ArcGisCountingInputStream compressedStream;
+    private final ArcGisEndpoint endpoint;
+    private final ArcGisTransferStats transferStats;
+    private final Runnable releaseCallback;
+    private boolean isClosed;
+
+
+    /**
+     * Constructor that requires the response body and the resources that are to be
+     * released when the stream is closed.
+     *
+     * @param body the stream of the response body as it is transferred
+     * @param contentEncoding the value of the Content-Encoding header of the response, or null
+     * @param endpoint the endpoint that sends the response
+     * @param transferStats the counters to which the bytes of the response are added
+     * @param releaseCallback a function that is called once when the stream is closed
+     *
+     * @throws IOException thrown when the header of a compressed body could not be read
+     */
+    public ArcGisResponseStream(final InputStream body, final String contentEncoding, final ArcGisEndpoint endpoint, final ArcGisTransferStats transferStats, final Runnable releaseCallback)
+    throws IOException
+    {
+        this(new ArcGisCountingInputStream(body), contentEncoding, endpoint, transferStats, releaseCallback);
+    }
+
+
+    /**
+     * Private constructor that wraps the counted body in a stream that decompresses it.
+     *
+     * @param compressedStream the counted stream of the response body as it is transferred
+     * @param contentEncoding the value of the Content-Encoding header of the response, or null
+     * @param endpoint the endpoint that sends the response
+     * @param transferStats the counters to which the bytes of the response are added
+     * @param releaseCallback a function that is called once when the stream is closed
+     *
+     * @throws IOException thrown when the header of a compressed body could not be read
+     */
+    private ArcGisResponseStream(final ArcGisCountingInputStream compressedStream, final String contentEncoding, final ArcGisEndpoint endpoint, final ArcGisTransferStats transferStats, final Runnable releaseCallback)
+    throws IOException
+    {
+        super(new ArcGisCountingInputStream(ArcGisConnectionPool.decompress(compressedStream, contentEncoding)));
+        this.compressedStream = compressedStream;
+        this.endpoint = endpoint;
+        this.transferStats = transferStats;
+        this.releaseCallback = releaseCallback;
+    }
+
+
+    @Override
+    public boolean markSupported()
+    {
+        return false;
+    }
+
+
+    @Override
+    public void close() throws IOException
+    {
+        if (isClosed)
+            return;
+
+        isClosed = true;
+        final ArcGisCountingInputStream uncompressedStream = (ArcGisCountingInputStream) in;
+
+        try {
+            // read trailing whitespace and the trailers of compressed bodies
+            uncompressedStream.drain();
+            compressedStream.drain();
+            transferStats.add(endpoint, compressedStream.getCount(), uncompressedStream.getCount());
+        } finally {
+            try {
+                super.close();
+            } finally {
+                releaseCallback.run();
+            }
+        }
+    }
+}
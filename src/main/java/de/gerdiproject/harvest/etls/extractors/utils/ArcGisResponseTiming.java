@@ -0,0 +1,36 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import lombok.Value;
+
+/**
+ * This value object represents the timing of a recorded response.
+ *
+ * @author Robin Weiss
+ */
+@Value
+public class ArcGisResponseTiming
+{
+    private final String url;
+    private final long requestTime;
+    private final long headerMillis;
+    private final long totalMillis;
+    private final String contentEncoding;
+    private final long transferredBytes;
+    private final long bodyBytes;
+}
@@ -0,0 +1,237 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import de.gerdiproject.harvest.arcgis.constants.ArcGisJsonConstants;
+import de.gerdiproject.harvest.arcgis.json.ArcGisMap;
+import de.gerdiproject.harvest.arcgis.json.generic.GenericArcGisResponse;
+
+/**
+ * This class reads a page of an ArcGis search response as a stream, returning each
+ * {@linkplain ArcGisMap} as soon as it is parsed, instead of parsing a whole
+ * {@linkplain GenericArcGisResponse} before the first map can be processed.
+ * The fields that precede the results array are read upon construction.
+ * Fields that follow the results array are read when the last map was returned.
+ * Maps can be parsed a few maps ahead of the consumer, and are passed to a listener
+ * as soon as they are parsed, which allows the consumer to prepare them in advance.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisSearchPageReader implements Iterator<ArcGisMap>, Closeable
+{
+    private final JsonReader jsonReader;
+    private final Gson gson;
+    private final Deque<ArcGisMap> bufferedMaps;
+    private final int lookahead;
+    private final Consumer<ArcGisMap> parseListener;
+
+    private int total;
+    private int nextStart;
+    private boolean hasReadNextStart;
+    private boolean isReadingResults;
+    private boolean isClosed;
+
+
+    /**
+     * Constructor that reads all fields that precede the results array.
+     *
+     * @param reader a reader of the JSON search response
+     * @param gson the Gson instance that parses the maps
+     *
+     * @throws IOException thrown when the response could not be read
+     */
+    public ArcGisSearchPageReader(final Reader reader, final Gson gson) throws IOException
+    {
+        this(reader, gson, 0, (final ArcGisMap map) -> { });
+    }
+
+
+    /**
+     * Constructor that reads all fields that precede the results array,
+     * and that parses maps ahead of the consumer.
+     *
+     * @param reader a reader of the JSON search response
+     * @param gson the Gson instance that parses the maps
+     * @param lookahead the number of maps that are parsed ahead of the map that is returned next
+     * @param parseListener a function that is called with each map as soon as it is parsed
+     *
+     * @throws IOException thrown when the response could not be read
+     */
+    public ArcGisSearchPageReader(final Reader reader, final Gson gson, final int lookahead, final Consumer<ArcGisMap> parseListener)
+    throws IOException
+    {
+        this.jsonReader = new JsonReader(reader);
+        this.gson = gson;
+        this.bufferedMaps = new ArrayDeque<>();
+        this.lookahead = Math.max(0, lookahead);
+        this.parseListener = parseListener;
+        this.total = -1;
+        this.nextStart = -1;
+
+        jsonReader.beginObject();
+        readFields();
+    }
+
+
+    @Override
+    public boolean hasNext()
+    {
+        try {
+            while (isReadingResults && bufferedMaps.size() <= lookahead && jsonReader.hasNext())
+                bufferedMaps.add(parseMap());
+
+            if (!bufferedMaps.isEmpty())
+                return true;
+
+            // read all fields that follow the results array
+            if (isReadingResults) {
+                jsonReader.endArray();
+                isReadingResults = false;
+                readFields();
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return false;
+    }
+
+
+    @Override
+    public ArcGisMap next()
+    {
+        if (!hasNext())
+            throw new NoSuchElementException();
+
+        return bufferedMaps.poll();
+    }
+
+
+    /**
+     * Returns the start index of the next page. If the response did not contain
+     * the index before the results array, all remaining maps are parsed and buffered
+     * until the index is found.
+     *
+     * @return the start index of the next page, or -1 if this is the last page
+     */
+    public int getNextStart()
+    {
+        if (!hasReadNextStart) {
+            try {
+                while (isReadingResults && jsonReader.hasNext())
+                    bufferedMaps.add(parseMap());
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            hasNext();
+        }
+
+        return nextStart;
+    }
+
+
+    /**
+     * Returns the total number of maps that match the search query.
+     *
+     * @return the total number of maps, or -1 if it was not read yet
+     */
+    public int getTotal()
+    {
+        return total;
+    }
+
+
+    @Override
+    public void close() throws IOException
+    {
+        if (!isClosed) {
+            isClosed = true;
+            jsonReader.close();
+        }
+    }
+
+
+    /**
+     * Parses the next map of the results array and passes it to the parse listener.
+     *
+     * @return the parsed map
+     */
+    private ArcGisMap parseMap()
+    {
+        final ArcGisMap map = gson.fromJson(jsonReader, ArcGisMap.class);
+        parseListener.accept(map);
+        return map;
+    }
+
+
+    /**
+     * Reads fields of the search response until the results array begins,
+     * or until the end of the response is reached.
+     *
+     * @throws IOException thrown when the response could not be read
+     */
+    private void readFields() throws IOException
+    {
+        while (jsonReader.hasNext()) {
+            final String fieldName = jsonReader.nextName();
+
+            if (jsonReader.peek() == JsonToken.NULL) {
+                jsonReader.nextNull();
+                continue;
+            }
+
+            switch (fieldName) {
+                case ArcGisJsonConstants.TOTAL:
+                    total = jsonReader.nextInt();
+                    break;
+
+                case ArcGisJsonConstants.NEXT_START:
+                    nextStart = jsonReader.nextInt();
+                    hasReadNextStart = true;
+                    break;
+
+                case ArcGisJsonConstants.RESULTS:
+                    jsonReader.beginArray();
+                    isReadingResults = true;
+                    return;
+
+                default:
+                    jsonReader.skipValue();
+            }
+        }
+
+        // the response was read completely
+        jsonReader.endObject();
+        hasReadNextStart = true;
+        close();
+    }
+}
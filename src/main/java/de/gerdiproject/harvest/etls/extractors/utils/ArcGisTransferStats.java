@@ -0,0 +1,115 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import de.gerdiproject.harvest.arcgis.constants.ArcGisConstants;
+
+/**
+ * This class counts the bytes that were transferred per {@linkplain ArcGisEndpoint},
+ * both as they were sent over the network, and after they were decompressed.
+ * The counters are thread-safe.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisTransferStats
+{
+    private final Map<ArcGisEndpoint, LongAdder> compressedBytes;
+    private final Map<ArcGisEndpoint, LongAdder> uncompressedBytes;
+
+
+    /**
+     * Constructor that creates counters for all endpoints.
+     */
+    public ArcGisTransferStats()
+    {
+        this.compressedBytes = new EnumMap<>(ArcGisEndpoint.class);
+        this.uncompressedBytes = new EnumMap<>(ArcGisEndpoint.class);
+
+        for (final ArcGisEndpoint endpoint : ArcGisEndpoint.values()) {
+            compressedBytes.put(endpoint, new LongAdder());
+            uncompressedBytes.put(endpoint, new LongAdder());
+        }
+    }
+
+
+    /**
+     * Adds the size of a response body to the counters of an endpoint.
+     *
+     * @param endpoint the endpoint that sent the response
+     * @param compressedSize the number of bytes that were transferred
+     * @param uncompressedSize the number of bytes after decompression
+     */
+    public void add(final ArcGisEndpoint endpoint, final long compressedSize, final long uncompressedSize)
+    {
+        compressedBytes.get(endpoint).add(compressedSize);
+        uncompressedBytes.get(endpoint).add(uncompressedSize);
+    }
+
+
+    /**
+     * Returns the number of bytes that were transferred by an endpoint.
+     *
+     * @param endpoint the endpoint of which the bytes are counted
+     *
+     * @return the number of bytes that were transferred by the endpoint
+     */
+    public long getCompressedBytes(final ArcGisEndpoint endpoint)
+    {
+        return compressedBytes.get(endpoint).sum();
+    }
+
+
+    /**
+     * Returns the number of bytes that were received from an endpoint after decompression.
+     *
+     * @param endpoint the endpoint of which the bytes are counted
+     *
+     * @return the number of decompressed bytes of the endpoint
+     */
+    public long getUncompressedBytes(final ArcGisEndpoint endpoint)
+    {
+        return uncompressedBytes.get(endpoint).sum();
+    }
+
+
+    @Override
+    public String toString()
+    {
+        final StringBuilder sb = new StringBuilder();
+
+        for (final ArcGisEndpoint endpoint : ArcGisEndpoint.values()) {
+            final long uncompressed = getUncompressedBytes(endpoint);
+
+            if (uncompressed > 0) {
+                if (sb.length() > 0)
+                    sb.append(", ");
+
+                sb.append(String.format(
+                              ArcGisConstants.TRANSFER_STATS_ENTRY,
+                              endpoint.name().toLowerCase(),
+                              getCompressedBytes(endpoint),
+                              uncompressed));
+            }
+        }
+
+        return sb.toString();
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+import de.gerdiproject.harvest.arcgis.constants.ArcGisConstants;
+import de.gerdiproject.harvest.utils.data.DiskIO;
+import de.gerdiproject.json.GsonUtils;
+
+/**
+ * This class persists the highest modification date of all maps that were
+ * harvested by an ETL. Subsequent harvests can use this watermark in order
+ * to only retrieve maps that were modified since then.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisWatermarkStore
+{
+    private final DiskIO diskIo;
+    private final File storeFolder;
+
+
+    /**
+     * Constructor that requires the folder in which the watermarks are stored.
+     *
+     * @param storeFolder the folder in which the watermarks are stored
+     */
+    public ArcGisWatermarkStore(final File storeFolder)
+    {
+        this.diskIo = new DiskIO(GsonUtils.createGerdiDocumentGsonBuilder().create(), StandardCharsets.UTF_8);
+        this.storeFolder = storeFolder;
+    }
+
+
+    /**
+     * Retrieves the watermark of an ETL.
+     *
+     * @param etlName the name of the ETL
+     *
+     * @return the highest modification date that was harvested by the ETL,
+     * or null if the ETL has not completed a harvest yet
+     */
+    public Long get(final String etlName)
+    {
+        final File watermarkFile = getWatermarkFile(etlName);
+
+        return watermarkFile.exists()
+               ? diskIo.getObject(watermarkFile, Long.class)
+               : null;
+    }
+
+
+    /**
+     * Stores the watermark of an ETL.
+     *
+     * @param etlName the name of the ETL
+     * @param highestModified the highest modification date that was harvested by the ETL
+     */
+    public void put(final String etlName, final long highestModified)
+    {
+        storeFolder.mkdirs();
+        diskIo.writeObjectToFile(getWatermarkFile(etlName), highestModified);
+    }
+
+
+    /**
+     * Returns the file in which the watermark of a specified ETL is stored.
+     *
+     * @param etlName the name of the ETL
+     *
+     * @return the file in which the watermark is stored
+     */
+    private File getWatermarkFile(final String etlName)
+    {
+        return ArcGisCacheFileHelper.getCacheFile(storeFolder, etlName, ArcGisConstants.JSON_FILE_EXTENSION);
+    }
+}
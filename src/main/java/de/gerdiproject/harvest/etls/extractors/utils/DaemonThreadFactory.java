@@ -0,0 +1,53 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@linkplain ThreadFactory} that creates named daemon threads, making sure
+ * that background requests never prevent the service from shutting down.
+ *
+ * @author Robin Weiss
+ */
+public class DaemonThreadFactory implements ThreadFactory
+{
+    private final String namePrefix;
+    private final AtomicInteger threadCount;
+
+
+    /**
+     * Constructor that requires a prefix for the names of created threads.
+     *
+     * @param namePrefix the prefix of thread names, followed by a running number
+     */
+    public DaemonThreadFactory(final String namePrefix)
+    {
+        this.namePrefix = namePrefix;
+        this.threadCount = new AtomicInteger();
+    }
+
+
+    @Override
+    public Thread newThread(final Runnable runnable)
+    {
+        final Thread thread = new Thread(runnable, namePrefix + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import de.gerdiproject.harvest.arcgis.json.ArcGisMap;
+import de.gerdiproject.harvest.arcgis.json.generic.GenericArcGisResponse;
+
+/**
+ * This interface represents a source of {@linkplain ArcGisMap} pages that
+ * are retrieved in the background and handed out in the order of their start indices.
+ *
+ * @author Robin Weiss
+ */
+public interface IArcGisPageSource
+{
+    /**
+     * Retrieves the next page, waiting for its download to finish if necessary.
+     *
+     * @return the next page, or null if the previous page was the last one
+     */
+    GenericArcGisResponse<ArcGisMap> nextPage();
+
+
+    /**
+     * Stops all background downloads. Pending pages are discarded.
+     */
+    void shutdown();
+}
@@ -0,0 +1,42 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import java.io.IOException;
+
+/**
+ * This interface represents a single attempt of a request
+ * that may be repeated by the {@linkplain ArcGisHttpClient}.
+ *
+ * @param <T> the type of the retrieved object
+ *
+ * @author Robin Weiss
+ */
+@FunctionalInterface
+public interface IArcGisRequest<T>
+{
+    /**
+     * Sends the request and retrieves its response.
+     *
+     * @throws IOException thrown when the request failed
+     * @throws InterruptedException thrown when the thread was interrupted while waiting for a connection
+     *
+     * @return the retrieved object, or null if the response could not be retrieved
+     *         and the request should not be repeated
+     */
+    T send() throws IOException, InterruptedException;
+}
@@ -0,0 +1,44 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+
+/**
+ * This interface represents a function that processes the response
+ * of a connection that was opened by an {@linkplain ArcGisConnectionPool}.
+ *
+ * @param <R> the type of the processed response
+ *
+ * @author Robin Weiss
+ */
+@FunctionalInterface
+public interface IArcGisResponseHandler<R>
+{
+    /**
+     * Processes the response of an open connection. The response body must be
+     * read completely, in order to allow the connection to be reused.
+     *
+     * @param connection an open connection
+     *
+     * @throws IOException thrown when the response could not be read
+     *
+     * @return the processed response
+     */
+    R handle(HttpURLConnection connection) throws IOException;
+}
@@ -16,19 +16,24 @@
  */
 package de.gerdiproject.harvest.etls.transformers;
 
-import java.util.Arrays;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
-import java.util.regex.Pattern;
 
 import de.gerdiproject.harvest.arcgis.constants.ArcGisConstants;
-import de.gerdiproject.harvest.arcgis.constants.ArcGisDataCiteConstants;
+import de.gerdiproject.harvest.arcgis.constants.ArcGisParameterConstants;
 import de.gerdiproject.harvest.arcgis.json.ArcGisFeaturedGroup;
 import de.gerdiproject.harvest.arcgis.json.ArcGisMap;
 import de.gerdiproject.harvest.arcgis.json.ArcGisUser;
+import de.gerdiproject.harvest.config.Configuration;
+import de.gerdiproject.harvest.config.parameters.IntegerParameter;
 import de.gerdiproject.harvest.etls.AbstractETL;
 import de.gerdiproject.harvest.etls.extractors.ArcGisMapVO;
+import de.gerdiproject.harvest.etls.transformers.utils.ArcGisDocumentTemplate;
 import de.gerdiproject.harvest.etls.transformers.utils.ArcGisLinkHelper;
+import de.gerdiproject.harvest.etls.transformers.utils.ArcGisParallelTransformation;
+import de.gerdiproject.harvest.etls.transformers.utils.ArcGisValueInterner;
 import de.gerdiproject.json.datacite.Creator;
 import de.gerdiproject.json.datacite.DataCiteJson;
 import de.gerdiproject.json.datacite.Date;
@@ -52,13 +57,28 @@ import de.gerdiproject.json.datacite.nested.PersonName;
 /**
  * This {@linkplain AbstractIteratorTransformer} transforms {@linkplain ArcGisMap}s
  * to {@linkplain DataCiteJson} objects.
+ * The transformation of a single map is thread-safe. If the corresponding parameter
+ * is set, maps are transformed on multiple threads, while the documents are still
+ * returned in the order in which the maps were extracted.
+ * Subjects, resource types and affiliations that recur in many maps can be shared
+ * between the documents of all ETLs via bounded {@linkplain ArcGisValueInterner}s.
+ * The fields that are the same for all maps of the ETL are prepared only once in an
+ * {@linkplain ArcGisDocumentTemplate}, and no empty collections are created per map.
  *
  * @author Robin Weiss
  */
 public class ArcGisTransformer extends AbstractIteratorTransformer<ArcGisMapVO, DataCiteJson>
 {
-    private List<Subject> groupRelatedSubjects;
+    private static final ArcGisValueInterner<Subject> SUBJECTS = new ArcGisValueInterner<>(0);
+    private static final ArcGisValueInterner<Subject> LOCALIZED_SUBJECTS = new ArcGisValueInterner<>(0);
+    private static final ArcGisValueInterner<ResourceType> RESOURCE_TYPES = new ArcGisValueInterner<>(0);
+    private static final ArcGisValueInterner<Affiliation> AFFILIATIONS = new ArcGisValueInterner<>(0);
+
+    private volatile ArcGisDocumentTemplate documentTemplate;
     private final String baseUrl;
+    private final IntegerParameter parallelismParam;
+    private final IntegerParameter internedValuesParam;
+    private ArcGisParallelTransformation<ArcGisMapVO, DataCiteJson> parallelTransformation;
 
 
     /**
@@ -70,6 +90,16 @@ public class ArcGisTransformer extends AbstractIteratorTransformer<ArcGisMapVO,
     {
         super();
         this.baseUrl = baseUrl;
+        this.parallelismParam = Configuration.registerParameter(
+                                    new IntegerParameter(
+                                        ArcGisParameterConstants.TRANSFORM_PARALLELISM_KEY,
+                                        ArcGisParameterConstants.CATEGORY,
+                                        ArcGisParameterConstants.TRANSFORM_PARALLELISM_DEFAULT));
+        this.internedValuesParam = Configuration.registerParameter(
+                                       new IntegerParameter(
+                                           ArcGisParameterConstants.INTERNED_VALUES_KEY,
+                                           ArcGisParameterConstants.CATEGORY,
+                                           ArcGisParameterConstants.INTERNED_VALUES_DEFAULT));
     }
 
 
@@ -80,23 +110,35 @@ public class ArcGisTransformer extends AbstractIteratorTransformer<ArcGisMapVO,
     }
 
 
+    @Override
+    public Iterator<DataCiteJson> transform(final Iterator<ArcGisMapVO> elements) throws TransformerException
+    {
+        setMaxInternedValues(internedValuesParam.getValue());
+
+        final int parallelism = parallelismParam.getValue();
+
+        if (parallelism <= 1)
+            return super.transform(elements);
+
+        clear();
+        parallelTransformation = new ArcGisParallelTransformation<>(elements, this::transformElement, parallelism);
+        return parallelTransformation;
+    }
+
+
     @Override
     protected DataCiteJson transformElement(final ArcGisMapVO vo) throws TransformerException
     {
-        if (this.groupRelatedSubjects == null)
-            this.groupRelatedSubjects = createGroupTags(vo.getFeaturedGroups());
+        final ArcGisDocumentTemplate template = getDocumentTemplate(vo.getFeaturedGroups());
 
         final ArcGisMap map = vo.getMap();
-        final DataCiteJson doc = new DataCiteJson(map.getId());
+        final DataCiteJson doc = template.createDocument(map.getId());
+        final List<AbstractDate> dates = getDates(map);
 
         doc.setLanguage(map.getCulture());
-        doc.setPublisher(ArcGisDataCiteConstants.PUBLISHER);
-        doc.setRepositoryIdentifier(ArcGisDataCiteConstants.REPOSITORY_ID);
-        doc.addResearchDisciplines(ArcGisDataCiteConstants.RESEARCH_DISCIPLINES);
-        doc.addSubjects(groupRelatedSubjects);
-        doc.addSubjects(getSubjects(map));
+        doc.addSubjects(getSubjects(map, dates));
         doc.addTitles(getTitles(map));
-        doc.addDates(getDates(map));
+        doc.addDates(dates.isEmpty() ? null : dates);
         doc.addDescriptions(getDescriptions(map));
         doc.addCreators(getCreators(vo.getOwner()));
         doc.addGeoLocations(getGeoLocations(map));
@@ -122,7 +164,7 @@ public class ArcGisTransformer extends AbstractIteratorTransformer<ArcGisMapVO,
         final String typeName = map.getType();
 
         if (typeName != null)
-            resourceType = new ResourceType(typeName, ResourceTypeGeneral.Model);
+            resourceType = RESOURCE_TYPES.intern(typeName, (final String name) -> new ResourceType(name, ResourceTypeGeneral.Model));
 
         return resourceType;
     }
@@ -133,11 +175,11 @@ public class ArcGisTransformer extends AbstractIteratorTransformer<ArcGisMapVO,
      *
      * @param map a JSON object containing map metadata
      *
-     * @return a list of all titles of the map
+     * @return a list of all titles of the map, or null if the map has no title
      */
     private List<Title> getTitles(final ArcGisMap map)
     {
-        final List<Title> titles = new LinkedList<>();
+        final List<Title> titles = new ArrayList<>(2);
 
         // check if a title exists
         final String titleText = map.getTitle();
@@ -160,7 +202,7 @@ public class ArcGisTransformer extends AbstractIteratorTransformer<ArcGisMapVO,
             titles.add(alternativeTitle);
         }
 
-        return titles;
+        return titles.isEmpty() ? null : titles;
     }
 
 
@@ -169,11 +211,11 @@ public class ArcGisTransformer extends AbstractIteratorTransformer<ArcGisMapVO,
      *
      * @param map a JSON object containing map metadata
      *
-     * @return a list of all map descriptions
+     * @return a list of all map descriptions, or null if the map has no description
      */
     private List<Description> getDescriptions(final ArcGisMap map)
     {
-        final List<Description> descriptions = new LinkedList<>();
+        final List<Description> descriptions = new ArrayList<>(2);
 
         // get full description
         final String descriptionText = map.getDescription();
@@ -193,7 +235,7 @@ public class ArcGisTransformer extends AbstractIteratorTransformer<ArcGisMapVO,
             descriptions.add(snippetDescription);
         }
 
-        return descriptions;
+        return descriptions.isEmpty() ? null : descriptions;
     }
 
 
@@ -206,7 +248,7 @@ public class ArcGisTransformer extends AbstractIteratorTransformer<ArcGisMapVO,
      */
     private List<AbstractDate> getDates(final ArcGisMap map)
     {
-        final List<AbstractDate> dates = new LinkedList<>();
+        final List<AbstractDate> dates = new ArrayList<>(2);
 
         // add the date of the creation of the map
         if (map.getCreated() != null)
@@ -216,14 +258,6 @@ public class ArcGisTransformer extends AbstractIteratorTransformer<ArcGisMapVO,
         if (map.getModified() != null)
             dates.add(new Date(map.getModified(), DateType.Updated));
 
-        // look for years in the map tags
-        if (map.getTags() != null) {
-            for (final String tag : map.getTags()) {
-                if (ArcGisConstants.YEAR_PATTERN.matcher(tag).matches())
-                    dates.add(new Date(tag, DateType.Collected));
-            }
-        }
-
         return dates;
     }
 
@@ -248,9 +282,9 @@ public class ArcGisTransformer extends AbstractIteratorTransformer<ArcGisMapVO,
         final String provider = owner.getProvider();
 
         if (provider != null)
-            creator.addAffiliations(Arrays.asList(new Affiliation(provider)));
+            creator.addAffiliations(Collections.singletonList(AFFILIATIONS.intern(provider, Affiliation::new)));
 
-        return Arrays.asList(creator);
+        return Collections.singletonList(creator);
     }
 
 
@@ -264,17 +298,12 @@ public class ArcGisTransformer extends AbstractIteratorTransformer<ArcGisMapVO,
      */
     private List<Rights> getRightsList(final ArcGisMap map)
     {
-        List<Rights> rightsList = null;
         final String licenseInfo = map.getLicenseInfo();
 
-        if (licenseInfo != null) {
-            final Rights licenseRights = new Rights(licenseInfo);
-
-            rightsList = new LinkedList<>();
-            rightsList.add(licenseRights);
-        }
+        if (licenseInfo == null)
+            return null;
 
-        return rightsList;
+        return Collections.singletonList(new Rights(licenseInfo));
     }
 
 
@@ -289,65 +318,143 @@ public class ArcGisTransformer extends AbstractIteratorTransformer<ArcGisMapVO,
     private List<GeoLocation> getGeoLocations(final ArcGisMap map)
     {
         // get the two points that describe the map boundaries
-        final List<List<Double>> extent = map.getExtent();
+        final double[] extent = map.getExtent();
 
-        if (extent == null || extent.isEmpty())
+        if (extent == null)
             return null;
 
-        final double northWestLongitude = extent.get(0).get(0);
-        final double northWestLatitude = extent.get(0).get(1);
-        final double southEastLongitude = extent.get(1).get(0);
-        final double southEastLatitude = extent.get(1).get(1);
+        final double northWestLongitude = extent[0];
+        final double northWestLatitude = extent[1];
+        final double southEastLongitude = extent[2];
+        final double southEastLatitude = extent[3];
 
         // create box
         final GeoLocation geoBox = new GeoLocation();
         geoBox.setBox(northWestLongitude, southEastLongitude, southEastLatitude, northWestLatitude);
 
-        final List<GeoLocation> geoList = new LinkedList<>();
-        geoList.add(geoBox);
-        return geoList;
+        return Collections.singletonList(geoBox);
     }
 
 
     /**
-     * Creates a {@linkplain Subject} list for a map.
+     * Creates a {@linkplain Subject} list for a map. Tags that are years
+     * are added to the dates of the map instead.
      *
      * @param map a JSON object containing map metadata
-     * @param groupTags a list of tags of the map group that contains the map
-     * @return a JSON array of tags for a map
+     * @param dates the dates of the map, to which the years among its tags are added
+     * @return a JSON array of tags for a map, or null if the map has no subjects
      */
-    private List<Subject> getSubjects(final ArcGisMap map)
+    private List<Subject> getSubjects(final ArcGisMap map, final List<AbstractDate> dates)
     {
-        final List<Subject> subjects = new LinkedList<>();
+        final List<String> tags = map.getTags();
+        final List<String> typeKeywords = map.getTypeKeywords();
+        final List<Subject> subjects = new ArrayList<>(
+            (tags == null ? 0 : tags.size())
+            + (typeKeywords == null ? 0 : typeKeywords.size())
+            + 1);
 
-        final Pattern yearPattern = ArcGisConstants.YEAR_PATTERN;
         final String language = map.getCulture();
 
-        // add tags
-        if (map.getTags() != null) {
-            for (final String tag : map.getTags()) {
-                // only add tag if it is not a year
-                if (!yearPattern.matcher(tag).matches()) {
-                    final Subject s = new Subject(tag);
-                    s.setLang(language);
-                    subjects.add(s);
-                }
+        // add tags, or dates if the tags are years
+        if (tags != null) {
+            for (final String tag : tags) {
+                if (isYear(tag))
+                    dates.add(new Date(tag, DateType.Collected));
+                else
+                    subjects.add(getTagSubject(tag, language));
             }
         }
 
         // add type keywords
-        if (map.getTypeKeywords() != null) {
-            for (final String keyword : map.getTypeKeywords())
-                subjects.add(new Subject(keyword));
+        if (typeKeywords != null) {
+            for (final String keyword : typeKeywords)
+                subjects.add(SUBJECTS.intern(keyword, Subject::new));
         }
 
         // add spatial reference
         final String spatialRefName = map.getSpatialReference();
 
         if (spatialRefName != null)
-            subjects.add(new Subject(spatialRefName));
+            subjects.add(SUBJECTS.intern(spatialRefName, Subject::new));
 
-        return subjects;
+        return subjects.isEmpty() ? null : subjects;
+    }
+
+
+    /**
+     * Retrieves the {@linkplain Subject} of a map tag in the language of the map.
+     *
+     * @param tag a tag of a map
+     * @param language the language of the map, or null if it is unknown
+     *
+     * @return a {@linkplain Subject} that may be shared with other maps
+     */
+    private static Subject getTagSubject(final String tag, final String language)
+    {
+        if (language == null)
+            return SUBJECTS.intern(tag, Subject::new);
+
+        // do not assemble the key of a subject that is not going to be cached
+        if (!LOCALIZED_SUBJECTS.isEnabled())
+            return createLocalizedSubject(tag, language);
+
+        return LOCALIZED_SUBJECTS.intern(
+                   language + ArcGisConstants.INTERNED_LANGUAGE_SEPARATOR + tag,
+                   (final String key) -> createLocalizedSubject(tag, language));
+    }
+
+
+    /**
+     * Creates a {@linkplain Subject} of a map tag in the language of the map.
+     *
+     * @param tag a tag of a map
+     * @param language the language of the map
+     *
+     * @return a new {@linkplain Subject}
+     */
+    private static Subject createLocalizedSubject(final String tag, final String language)
+    {
+        final Subject subject = new Subject(tag);
+        subject.setLang(language);
+        return subject;
+    }
+
+
+    /**
+     * Changes the maximum number of values that are kept in each of the interning caches.
+     * A number below one disables the caches.
+     *
+     * @param maxEntries the maximum number of values per cache
+     */
+    static void setMaxInternedValues(final int maxEntries)
+    {
+        SUBJECTS.setMaxEntries(maxEntries);
+        LOCALIZED_SUBJECTS.setMaxEntries(maxEntries);
+        RESOURCE_TYPES.setMaxEntries(maxEntries);
+        AFFILIATIONS.setMaxEntries(maxEntries);
+    }
+
+
+    /**
+     * Checks if a tag consists of exactly four decimal digits.
+     *
+     * @param tag a tag of a map
+     *
+     * @return true if the tag is a year
+     */
+    static boolean isYear(final String tag)
+    {
+        if (tag.length() != ArcGisConstants.YEAR_LENGTH)
+            return false;
+
+        for (int i = 0; i < ArcGisConstants.YEAR_LENGTH; i++) {
+            final char c = tag.charAt(i);
+
+            if (c < '0' || c > '9')
+                return false;
+        }
+
+        return true;
     }
 
 
@@ -361,30 +468,7 @@ public class ArcGisTransformer extends AbstractIteratorTransformer<ArcGisMapVO,
      */
     private List<WebLink> getWebLinks(final ArcGisMap map)
     {
-        final String mapId = map.getId();
-        final String mapType = map.getType().trim();
-        final String mapUrl = map.getUrl();
-        final String thumbnailPath = map.getThumbnail();
-        final String largeThumbnailPath = map.getLargeThumbnail();
-        final List<String> keywords = map.getTypeKeywords();
-
-        // add links
-        final List<WebLink> webLinks = new LinkedList<>();
-
-        webLinks.add(ArcGisDataCiteConstants.ESRI_LOGO_LINK);
-        webLinks.add(ArcGisLinkHelper.getViewLink(mapId, baseUrl));
-        webLinks.add(ArcGisLinkHelper.getThumbnailLink(mapId, thumbnailPath, largeThumbnailPath, baseUrl));
-        webLinks.add(ArcGisLinkHelper.getSceneViewerLink(mapType, mapId));
-        webLinks.add(ArcGisLinkHelper.getMapViewerLink(mapType, mapId));
-        webLinks.add(ArcGisLinkHelper.getStyleViewerLink(mapType, mapId));
-        webLinks.add(ArcGisLinkHelper.getMetadataLink(mapId, keywords));
-        webLinks.add(ArcGisLinkHelper.getApplicationViewLink(mapType, mapUrl));
-        webLinks.add(ArcGisLinkHelper.getOpenDocumentLink(mapType, mapUrl));
-
-        // remove null links
-        webLinks.removeIf((final WebLink link) -> link == null);
-
-        return webLinks;
+        return ArcGisLinkHelper.getWebLinks(map, baseUrl);
     }
 
 
@@ -397,22 +481,35 @@ public class ArcGisTransformer extends AbstractIteratorTransformer<ArcGisMapVO,
      */
     private List<ResearchData> getResearchData(final ArcGisMap map)
     {
-        final List<ResearchData> files = new LinkedList<>();
-
-        final String mapId = map.getId();
-        final String mapType = map.getType();
+        final List<ResearchData> files = ArcGisLinkHelper.getResearchData(map);
+        return files.isEmpty() ? null : files;
+    }
 
-        final ResearchData arcGisDesktop = ArcGisLinkHelper.getArcGisDesktopLink(mapType, mapId);
 
-        if (arcGisDesktop != null)
-            files.add(arcGisDesktop);
+    /**
+     * Retrieves the {@linkplain ArcGisDocumentTemplate} that contains the fields which are
+     * the same for all maps of the ETL, creating it when the first map is transformed.
+     *
+     * @param groups the featured groups of which the subjects are added to the template
+     *
+     * @return the template of all documents of the ETL
+     */
+    private ArcGisDocumentTemplate getDocumentTemplate(final List<ArcGisFeaturedGroup> groups)
+    {
+        ArcGisDocumentTemplate template = documentTemplate;
 
-        final ResearchData download = ArcGisLinkHelper.getDownloadLink(mapType, mapId, map.getName());
+        if (template == null) {
+            synchronized (this) {
+                template = documentTemplate;
 
-        if (download != null)
-            files.add(download);
+                if (template == null) {
+                    template = new ArcGisDocumentTemplate(createGroupTags(groups));
+                    documentTemplate = template;
+                }
+            }
+        }
 
-        return files.isEmpty() ? null : files;
+        return template;
     }
 
 
@@ -425,7 +522,7 @@ public class ArcGisTransformer extends AbstractIteratorTransformer<ArcGisMapVO,
      */
     private List<Subject> createGroupTags(final List<ArcGisFeaturedGroup> groups)
     {
-        final List<Subject> subjects = new LinkedList<>();
+        final List<Subject> subjects = new ArrayList<>();
 
         // convert each tag of each group to a subject
         if (groups != null) {
@@ -441,6 +538,9 @@ public class ArcGisTransformer extends AbstractIteratorTransformer<ArcGisMapVO,
     @Override
     public void clear()
     {
-        // nothing to clean up
+        if (parallelTransformation != null) {
+            parallelTransformation.shutdown();
+            parallelTransformation = null;
+        }
     }
 }
@@ -0,0 +1,69 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.transformers.utils;
+
+import java.util.Collections;
+import java.util.List;
+
+import de.gerdiproject.harvest.arcgis.constants.ArcGisDataCiteConstants;
+import de.gerdiproject.json.datacite.DataCiteJson;
+import de.gerdiproject.json.datacite.Subject;
+import de.gerdiproject.json.datacite.extension.generic.WebLink;
+
+/**
+ * This class holds the fields that are the same for all documents of an ETL,
+ * so that they are prepared only once and are set on each new document
+ * without creating any collections.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisDocumentTemplate
+{
+    private static final List<WebLink> CONSTANT_WEB_LINKS = Collections.singletonList(ArcGisDataCiteConstants.ESRI_LOGO_LINK);
+
+    private final List<Subject> groupSubjects;
+
+
+    /**
+     * Constructor that requires the subjects of the featured groups of the ETL.
+     *
+     * @param groupSubjects the subjects that are related to the featured groups
+     */
+    public ArcGisDocumentTemplate(final List<Subject> groupSubjects)
+    {
+        this.groupSubjects = groupSubjects.isEmpty() ? null : groupSubjects;
+    }
+
+
+    /**
+     * Creates a document that contains all fields of the template.
+     *
+     * @param identifier the identifier of the document
+     *
+     * @return a new document that contains all fields of the template
+     */
+    public DataCiteJson createDocument(final String identifier)
+    {
+        final DataCiteJson doc = new DataCiteJson(identifier);
+        doc.setPublisher(ArcGisDataCiteConstants.PUBLISHER);
+        doc.setRepositoryIdentifier(ArcGisDataCiteConstants.REPOSITORY_ID);
+        doc.addResearchDisciplines(ArcGisDataCiteConstants.RESEARCH_DISCIPLINES);
+        doc.addSubjects(groupSubjects);
+        doc.addWebLinks(CONSTANT_WEB_LINKS);
+        return doc;
+    }
+}
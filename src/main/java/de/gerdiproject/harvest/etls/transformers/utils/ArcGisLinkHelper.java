@@ -16,10 +16,18 @@
 package de.gerdiproject.harvest.etls.transformers.utils;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 
 import de.gerdiproject.harvest.arcgis.constants.ArcGisDataCiteConstants;
 import de.gerdiproject.harvest.arcgis.constants.LinkAssemblerConstants;
+import de.gerdiproject.harvest.arcgis.json.ArcGisMap;
 import de.gerdiproject.json.datacite.extension.generic.ResearchData;
 import de.gerdiproject.json.datacite.extension.generic.WebLink;
 import de.gerdiproject.json.datacite.extension.generic.enums.WebLinkType;
@@ -28,12 +36,34 @@ import lombok.NoArgsConstructor;
 
 /**
  * A static class for parsing and assembling ArcGis web links for ArcGis documents.
+ * The URL templates are parsed once into {@linkplain ArcGisLinkTemplate}s, and the links
+ * that depend on the type of a map are looked up in tables that are built once per
+ * {@linkplain ArcGisMapType}, so that only the applicable links are assembled for each map.
  *
  * @author Robin Weiss
  */
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class ArcGisLinkHelper
 {
+    private static final ArcGisLinkTemplate VIEW_URL = new ArcGisLinkTemplate(ArcGisDataCiteConstants.VIEW_URL);
+    private static final ArcGisLinkTemplate THUMBNAIL_URL = new ArcGisLinkTemplate(LinkAssemblerConstants.THUMBNAIL_URL);
+    private static final ArcGisLinkTemplate DOWNLOAD_URL = new ArcGisLinkTemplate(LinkAssemblerConstants.DOWNLOAD_URL);
+    private static final ArcGisLinkTemplate STYLE_VIEWER_URL = new ArcGisLinkTemplate(LinkAssemblerConstants.STYLE_VIEWER_URL);
+    private static final ArcGisLinkTemplate METADATA_URL = new ArcGisLinkTemplate(LinkAssemblerConstants.METADATA_URL);
+
+    private static final Map<ArcGisMapType, ArcGisLinkTemplate> MAP_VIEWER_URLS = createMapViewerUrls();
+    private static final Map<ArcGisMapType, ArcGisLinkTemplate> SCENE_VIEWER_URLS = createSceneViewerUrls();
+    private static final Map<ArcGisMapType, ArcGisLinkTemplate> ARC_GIS_DESKTOP_URLS = createArcGisDesktopUrls();
+    private static final Map<ArcGisMapType, String> ARC_GIS_DESKTOP_FILE_TYPES = createArcGisDesktopFileTypes();
+    private static final Set<ArcGisMapType> DOWNLOAD_TYPES =
+        EnumSet.of(ArcGisMapType.LAYER_PACKAGE, ArcGisMapType.CODE_ATTACHMENT, ArcGisMapType.RULE_PACKAGE);
+    private static final Set<ArcGisMapType> APPLICATION_TYPES =
+        EnumSet.of(ArcGisMapType.MOBILE_APP, ArcGisMapType.WEB_APP);
+
+    private static final Map<ArcGisMapType, List<Function<ArcGisMap, WebLink>>> WEB_LINK_BUILDERS = createWebLinkBuilders();
+    private static final Map<ArcGisMapType, List<Function<ArcGisMap, ResearchData>>> RESEARCH_DATA_BUILDERS = createResearchDataBuilders();
+
+
     /**
      * Creates a generic {@linkplain WebLink} that points to a map related page.
      *
@@ -79,6 +109,58 @@ public class ArcGisLinkHelper
     }
 
 
+    /**
+     * Assembles all {@linkplain WebLink}s of a map, including the links that
+     * do not depend on the type of the map, but excluding the Esri logo link,
+     * which is the same for all maps. The links keep the order of the
+     * original transformer.
+     *
+     * @param map the map for which the links are being generated
+     * @param baseUrl the host of the map gallery
+     *
+     * @return a list of weblinks that are related to the map
+     */
+    public static List<WebLink> getWebLinks(final ArcGisMap map, final String baseUrl)
+    {
+        final String mapId = map.getId();
+        final String mapType = map.getType();
+        final List<Function<ArcGisMap, WebLink>> typeLinkBuilders =
+            WEB_LINK_BUILDERS.get(ArcGisMapType.fromString(mapType == null ? null : mapType.trim()));
+
+        final List<WebLink> webLinks = new ArrayList<>(2 + typeLinkBuilders.size());
+        webLinks.add(getViewLink(mapId, baseUrl));
+        addIfNotNull(webLinks, getThumbnailLink(mapId, map.getThumbnail(), map.getLargeThumbnail(), baseUrl));
+
+        for (final Function<ArcGisMap, WebLink> builder : typeLinkBuilders)
+            addIfNotNull(webLinks, builder.apply(map));
+
+        return webLinks;
+    }
+
+
+    /**
+     * Assembles all downloadable files of a map.
+     *
+     * @param map the map for which the files are being generated
+     *
+     * @return a list of {@linkplain ResearchData} that are related to a map, which may be empty
+     */
+    public static List<ResearchData> getResearchData(final ArcGisMap map)
+    {
+        final List<Function<ArcGisMap, ResearchData>> builders = RESEARCH_DATA_BUILDERS.get(ArcGisMapType.fromString(map.getType()));
+
+        if (builders.isEmpty())
+            return Collections.emptyList();
+
+        final List<ResearchData> files = new ArrayList<>(builders.size());
+
+        for (final Function<ArcGisMap, ResearchData> builder : builders)
+            addIfNotNull(files, builder.apply(map));
+
+        return files;
+    }
+
+
     /**
      * Checks if a specified map type provides a {@linkplain WebLink} to access the ArcGis Map Viewer
      * and returns this link.
@@ -90,30 +172,7 @@ public class ArcGisLinkHelper
      */
     public static WebLink getMapViewerLink(final String mapType, final String mapId)
     {
-        String url;
-
-        switch (mapType) {
-            case LinkAssemblerConstants.MAP_SERVICE_TYPE:
-            case LinkAssemblerConstants.IMAGE_SERVICE_TYPE:
-                url = String.format(LinkAssemblerConstants.MAP_VIEWER_URL_MAP_SERVICE, mapId);
-                break;
-
-            case LinkAssemblerConstants.FEATURE_COLLECTION_TYPE:
-            case LinkAssemblerConstants.VECTOR_TILE_SERVICE_TYPE:
-            case LinkAssemblerConstants.FEATURE_SERVICE_TYPE:
-            case LinkAssemblerConstants.WMS_TYPE:
-                url = String.format(LinkAssemblerConstants.MAP_VIEWER_URL_FEATURE_SERVICE, mapId);
-                break;
-
-            case LinkAssemblerConstants.WEB_MAP_TYPE:
-                url = String.format(LinkAssemblerConstants.MAP_VIEWER_URL_WEB_MAP, mapId);
-                break;
-
-            default:
-                return null;
-        }
-
-        return createLink(url, LinkAssemblerConstants.VIEW_URL_NAME, null);
+        return getMapViewerLink(ArcGisMapType.fromString(mapType), mapId);
     }
 
 
@@ -128,25 +187,7 @@ public class ArcGisLinkHelper
      */
     public static WebLink getSceneViewerLink(final String mapType, final String mapId)
     {
-        String url;
-
-        switch (mapType) {
-            case LinkAssemblerConstants.MAP_SERVICE_TYPE:
-            case LinkAssemblerConstants.IMAGE_SERVICE_TYPE:
-            case LinkAssemblerConstants.VECTOR_TILE_SERVICE_TYPE:
-            case LinkAssemblerConstants.FEATURE_SERVICE_TYPE:
-                url = String.format(LinkAssemblerConstants.SCENE_VIEWER_URL_MAP_SERVICE, mapId);
-                break;
-
-            case LinkAssemblerConstants.WEB_SCENE_TYPE:
-                url = String.format(LinkAssemblerConstants.SCENE_VIEWER_URL_WEB_SCENE, mapId);
-                break;
-
-            default:
-                return null;
-        }
-
-        return createLink(url, LinkAssemblerConstants.SCENE_VIEWER_NAME, null);
+        return getSceneViewerLink(ArcGisMapType.fromString(mapType), mapId);
     }
 
 
@@ -161,25 +202,7 @@ public class ArcGisLinkHelper
      */
     public static ResearchData getArcGisDesktopLink(final String mapType, final String mapId)
     {
-        switch (mapType) {
-            case LinkAssemblerConstants.MAP_SERVICE_TYPE:
-            case LinkAssemblerConstants.IMAGE_SERVICE_TYPE:
-            case LinkAssemblerConstants.WMS_TYPE:
-            case LinkAssemblerConstants.FEATURE_SERVICE_TYPE:
-                return createFile(
-                           String.format(LinkAssemblerConstants.ARC_GIS_DESKTOP_URL_MAP_SERVICE, mapId),
-                           LinkAssemblerConstants.ARC_GIS_DESKTOP_FILE_NAME,
-                           LinkAssemblerConstants.ARC_GIS_DESKTOP_FILE_TYPE_MAPSERVICE);
-
-            case LinkAssemblerConstants.WEB_MAP_TYPE:
-                return createFile(
-                           String.format(LinkAssemblerConstants.ARC_GIS_DESKTOP_URL_WEB_MAP, mapId),
-                           LinkAssemblerConstants.ARC_GIS_DESKTOP_FILE_NAME,
-                           LinkAssemblerConstants.ARC_GIS_DESKTOP_FILE_TYPE_WEBMAP);
-
-            default:
-                return null;
-        }
+        return getArcGisDesktopLink(ArcGisMapType.fromString(mapType), mapId);
     }
 
 
@@ -195,11 +218,9 @@ public class ArcGisLinkHelper
      */
     public static ResearchData getDownloadLink(final String mapType, final String mapId, final String mapName)
     {
-        if (mapType.equals(LinkAssemblerConstants.LAYER_PACKAGE_TYPE)
-            || mapType.equals(LinkAssemblerConstants.CODE_ATTACHMENT_TYPE)
-            || mapType.equals(LinkAssemblerConstants.RULE_PACKAGE_TYPE)) {
+        if (DOWNLOAD_TYPES.contains(ArcGisMapType.fromString(mapType))) {
             return createFile(
-                       String.format(LinkAssemblerConstants.DOWNLOAD_URL, mapId),
+                       DOWNLOAD_URL.fill(mapId),
                        mapName.substring(mapName.lastIndexOf('.') + 1),
                        mapType);
         } else
@@ -218,9 +239,9 @@ public class ArcGisLinkHelper
      */
     public static WebLink getStyleViewerLink(final String mapType, final String mapId)
     {
-        if (mapType.equals(LinkAssemblerConstants.VECTOR_TILE_SERVICE_TYPE))
+        if (ArcGisMapType.fromString(mapType) == ArcGisMapType.VECTOR_TILE_SERVICE)
             return createLink(
-                       String.format(LinkAssemblerConstants.STYLE_VIEWER_URL, mapId),
+                       STYLE_VIEWER_URL.fill(mapId),
                        LinkAssemblerConstants.STYLE_VIEWER_NAME,
                        null);
         else
@@ -241,7 +262,7 @@ public class ArcGisLinkHelper
     {
         if (mapTypeKeywords != null && mapTypeKeywords.contains(LinkAssemblerConstants.METADATA_TYPE_KEYWORD))
             return createLink(
-                       String.format(LinkAssemblerConstants.METADATA_URL, mapId),
+                       METADATA_URL.fill(mapId),
                        LinkAssemblerConstants.METADATA_VIEWER_NAME,
                        null);
         else
@@ -260,7 +281,7 @@ public class ArcGisLinkHelper
      */
     public static WebLink getOpenDocumentLink(final String mapType, final String mapUrl)
     {
-        if (mapUrl == null || !mapType.equals(LinkAssemblerConstants.DOCUMENT_LINK_TYPE))
+        if (mapUrl == null || ArcGisMapType.fromString(mapType) != ArcGisMapType.DOCUMENT_LINK)
             return null;
         else
             return createLink(mapUrl, LinkAssemblerConstants.DOCUMENT_VIEWER_NAME, null);
@@ -278,7 +299,7 @@ public class ArcGisLinkHelper
      */
     public static WebLink getApplicationViewLink(final String mapType, final String mapUrl)
     {
-        if (mapUrl == null || !mapType.equals(LinkAssemblerConstants.MOBILE_APP_TYPE) && !mapType.equals(LinkAssemblerConstants.WEB_APP_TYPE))
+        if (mapUrl == null || !APPLICATION_TYPES.contains(ArcGisMapType.fromString(mapType)))
             return null;
         else
             return createLink(mapUrl, LinkAssemblerConstants.APPLICATION_VIEWER_NAME, null);
@@ -298,16 +319,12 @@ public class ArcGisLinkHelper
      */
     public static WebLink getThumbnailLink(final String mapId, final String thumbnailPath, final String largeThumbnailPath, final String baseUrl)
     {
-        if (largeThumbnailPath != null) { // NOPMD less confusing
-            final String url = String.format(LinkAssemblerConstants.THUMBNAIL_URL, baseUrl, mapId, largeThumbnailPath);
-            return createLink(url, LinkAssemblerConstants.THUMBNAIL_NAME, WebLinkType.ThumbnailURL);
+        final String path = largeThumbnailPath != null ? largeThumbnailPath : thumbnailPath;
 
-        } else if (thumbnailPath != null) { // NOPMD less confusing
-            final String url = String.format(LinkAssemblerConstants.THUMBNAIL_URL, baseUrl, mapId, thumbnailPath);
-            return createLink(url, LinkAssemblerConstants.THUMBNAIL_NAME, WebLinkType.ThumbnailURL);
-
-        } else
+        if (path == null)
             return null;
+
+        return createLink(THUMBNAIL_URL.fill(baseUrl, mapId, path), LinkAssemblerConstants.THUMBNAIL_NAME, WebLinkType.ThumbnailURL);
     }
 
 
@@ -321,7 +338,219 @@ public class ArcGisLinkHelper
      */
     public static WebLink getViewLink(final String mapId, final String baseUrl)
     {
-        final String url = String.format(ArcGisDataCiteConstants.VIEW_URL, baseUrl, mapId);
-        return createLink(url, LinkAssemblerConstants.VIEW_URL_NAME, WebLinkType.ViewURL);
+        return createLink(VIEW_URL.fill(baseUrl, mapId), LinkAssemblerConstants.VIEW_URL_NAME, WebLinkType.ViewURL);
+    }
+
+
+    /**
+     * Creates a Map Viewer {@linkplain WebLink} of a map type.
+     *
+     * @param type the type of the ArcGis map
+     * @param mapId the unique identifier of the map
+     *
+     * @return a {@linkplain WebLink} or null if no URL is defined for the map type
+     */
+    private static WebLink getMapViewerLink(final ArcGisMapType type, final String mapId)
+    {
+        final ArcGisLinkTemplate urlTemplate = MAP_VIEWER_URLS.get(type);
+
+        return urlTemplate == null
+               ? null
+               : createLink(urlTemplate.fill(mapId), LinkAssemblerConstants.VIEW_URL_NAME, null);
+    }
+
+
+    /**
+     * Creates a Scene Viewer {@linkplain WebLink} of a map type.
+     *
+     * @param type the type of the ArcGis map
+     * @param mapId the unique identifier of the map
+     *
+     * @return a {@linkplain WebLink} or null if no URL is defined for the map type
+     */
+    private static WebLink getSceneViewerLink(final ArcGisMapType type, final String mapId)
+    {
+        final ArcGisLinkTemplate urlTemplate = SCENE_VIEWER_URLS.get(type);
+
+        return urlTemplate == null
+               ? null
+               : createLink(urlTemplate.fill(mapId), LinkAssemblerConstants.SCENE_VIEWER_NAME, null);
+    }
+
+
+    /**
+     * Creates an ArcGis Desktop {@linkplain ResearchData} of a map type.
+     *
+     * @param type the type of the ArcGis map
+     * @param mapId the unique identifier of the map
+     *
+     * @return a {@linkplain ResearchData} or null if no URL is defined for the map type
+     */
+    private static ResearchData getArcGisDesktopLink(final ArcGisMapType type, final String mapId)
+    {
+        final ArcGisLinkTemplate urlTemplate = ARC_GIS_DESKTOP_URLS.get(type);
+
+        return urlTemplate == null
+               ? null
+               : createFile(urlTemplate.fill(mapId), LinkAssemblerConstants.ARC_GIS_DESKTOP_FILE_NAME, ARC_GIS_DESKTOP_FILE_TYPES.get(type));
+    }
+
+
+    /**
+     * Adds an element to a list, unless it is null.
+     *
+     * @param list the list to which the element is added
+     * @param element the element that is to be added
+     * @param <T> the type of the element
+     */
+    private static <T> void addIfNotNull(final List<T> list, final T element)
+    {
+        if (element != null)
+            list.add(element);
+    }
+
+
+    /**
+     * Assigns the Map Viewer URL templates to the map types that have a Map Viewer link.
+     *
+     * @return a map of map types to URL templates
+     */
+    private static Map<ArcGisMapType, ArcGisLinkTemplate> createMapViewerUrls()
+    {
+        final ArcGisLinkTemplate mapServiceUrl = new ArcGisLinkTemplate(LinkAssemblerConstants.MAP_VIEWER_URL_MAP_SERVICE);
+        final ArcGisLinkTemplate featureServiceUrl = new ArcGisLinkTemplate(LinkAssemblerConstants.MAP_VIEWER_URL_FEATURE_SERVICE);
+
+        final Map<ArcGisMapType, ArcGisLinkTemplate> urls = new EnumMap<>(ArcGisMapType.class);
+        urls.put(ArcGisMapType.MAP_SERVICE, mapServiceUrl);
+        urls.put(ArcGisMapType.IMAGE_SERVICE, mapServiceUrl);
+        urls.put(ArcGisMapType.FEATURE_COLLECTION, featureServiceUrl);
+        urls.put(ArcGisMapType.VECTOR_TILE_SERVICE, featureServiceUrl);
+        urls.put(ArcGisMapType.FEATURE_SERVICE, featureServiceUrl);
+        urls.put(ArcGisMapType.WMS, featureServiceUrl);
+        urls.put(ArcGisMapType.WEB_MAP, new ArcGisLinkTemplate(LinkAssemblerConstants.MAP_VIEWER_URL_WEB_MAP));
+        return urls;
+    }
+
+
+    /**
+     * Assigns the Scene Viewer URL templates to the map types that have a Scene Viewer link.
+     *
+     * @return a map of map types to URL templates
+     */
+    private static Map<ArcGisMapType, ArcGisLinkTemplate> createSceneViewerUrls()
+    {
+        final ArcGisLinkTemplate mapServiceUrl = new ArcGisLinkTemplate(LinkAssemblerConstants.SCENE_VIEWER_URL_MAP_SERVICE);
+
+        final Map<ArcGisMapType, ArcGisLinkTemplate> urls = new EnumMap<>(ArcGisMapType.class);
+        urls.put(ArcGisMapType.MAP_SERVICE, mapServiceUrl);
+        urls.put(ArcGisMapType.IMAGE_SERVICE, mapServiceUrl);
+        urls.put(ArcGisMapType.VECTOR_TILE_SERVICE, mapServiceUrl);
+        urls.put(ArcGisMapType.FEATURE_SERVICE, mapServiceUrl);
+        urls.put(ArcGisMapType.WEB_SCENE, new ArcGisLinkTemplate(LinkAssemblerConstants.SCENE_VIEWER_URL_WEB_SCENE));
+        return urls;
+    }
+
+
+    /**
+     * Assigns the ArcGis Desktop URL templates to the map types that can be opened in ArcGis Desktop.
+     *
+     * @return a map of map types to URL templates
+     */
+    private static Map<ArcGisMapType, ArcGisLinkTemplate> createArcGisDesktopUrls()
+    {
+        final ArcGisLinkTemplate mapServiceUrl = new ArcGisLinkTemplate(LinkAssemblerConstants.ARC_GIS_DESKTOP_URL_MAP_SERVICE);
+
+        final Map<ArcGisMapType, ArcGisLinkTemplate> urls = new EnumMap<>(ArcGisMapType.class);
+        urls.put(ArcGisMapType.MAP_SERVICE, mapServiceUrl);
+        urls.put(ArcGisMapType.IMAGE_SERVICE, mapServiceUrl);
+        urls.put(ArcGisMapType.WMS, mapServiceUrl);
+        urls.put(ArcGisMapType.FEATURE_SERVICE, mapServiceUrl);
+        urls.put(ArcGisMapType.WEB_MAP, new ArcGisLinkTemplate(LinkAssemblerConstants.ARC_GIS_DESKTOP_URL_WEB_MAP));
+        return urls;
+    }
+
+
+    /**
+     * Assigns the ArcGis Desktop file types to the map types that can be opened in ArcGis Desktop.
+     *
+     * @return a map of map types to file types
+     */
+    private static Map<ArcGisMapType, String> createArcGisDesktopFileTypes()
+    {
+        final Map<ArcGisMapType, String> fileTypes = new EnumMap<>(ArcGisMapType.class);
+
+        for (final ArcGisMapType type : ARC_GIS_DESKTOP_URLS.keySet())
+            fileTypes.put(type, LinkAssemblerConstants.ARC_GIS_DESKTOP_FILE_TYPE_MAPSERVICE);
+
+        fileTypes.put(ArcGisMapType.WEB_MAP, LinkAssemblerConstants.ARC_GIS_DESKTOP_FILE_TYPE_WEBMAP);
+        return fileTypes;
+    }
+
+
+    /**
+     * Creates the builders of all {@linkplain WebLink}s that follow the thumbnail link.
+     * Each map type is assigned only the builders of the links it provides,
+     * in the order in which they are listed in a document.
+     *
+     * @return a map of map types to lists of link builders
+     */
+    private static Map<ArcGisMapType, List<Function<ArcGisMap, WebLink>>> createWebLinkBuilders()
+    {
+        final Map<ArcGisMapType, List<Function<ArcGisMap, WebLink>>> builderTable = new EnumMap<>(ArcGisMapType.class);
+
+        for (final ArcGisMapType type : ArcGisMapType.values()) {
+            final List<Function<ArcGisMap, WebLink>> builders = new ArrayList<>();
+
+            if (SCENE_VIEWER_URLS.containsKey(type))
+                builders.add((final ArcGisMap map) -> getSceneViewerLink(type, map.getId()));
+
+            if (MAP_VIEWER_URLS.containsKey(type))
+                builders.add((final ArcGisMap map) -> getMapViewerLink(type, map.getId()));
+
+            if (type == ArcGisMapType.VECTOR_TILE_SERVICE)
+                builders.add((final ArcGisMap map) -> createLink(
+                                 STYLE_VIEWER_URL.fill(map.getId()),
+                                 LinkAssemblerConstants.STYLE_VIEWER_NAME,
+                                 null));
+
+            // the metadata link does not depend on the type, but precedes the application and document links
+            builders.add((final ArcGisMap map) -> getMetadataLink(map.getId(), map.getTypeKeywords()));
+
+            if (APPLICATION_TYPES.contains(type))
+                builders.add((final ArcGisMap map) -> createLink(map.getUrl(), LinkAssemblerConstants.APPLICATION_VIEWER_NAME, null));
+
+            if (type == ArcGisMapType.DOCUMENT_LINK)
+                builders.add((final ArcGisMap map) -> createLink(map.getUrl(), LinkAssemblerConstants.DOCUMENT_VIEWER_NAME, null));
+
+            builderTable.put(type, builders);
+        }
+
+        return builderTable;
+    }
+
+
+    /**
+     * Creates the builders of all {@linkplain ResearchData} that depend on the map type.
+     * Each map type is assigned only the builders of the files it provides.
+     *
+     * @return a map of map types to lists of file builders
+     */
+    private static Map<ArcGisMapType, List<Function<ArcGisMap, ResearchData>>> createResearchDataBuilders()
+    {
+        final Map<ArcGisMapType, List<Function<ArcGisMap, ResearchData>>> builderTable = new EnumMap<>(ArcGisMapType.class);
+
+        for (final ArcGisMapType type : ArcGisMapType.values()) {
+            final List<Function<ArcGisMap, ResearchData>> builders = new ArrayList<>();
+
+            if (ARC_GIS_DESKTOP_URLS.containsKey(type))
+                builders.add((final ArcGisMap map) -> getArcGisDesktopLink(type, map.getId()));
+
+            if (DOWNLOAD_TYPES.contains(type))
+                builders.add((final ArcGisMap map) -> getDownloadLink(map.getType(), map.getId(), map.getName()));
+
+            builderTable.put(type, builders);
+        }
+
+        return builderTable;
     }
 }
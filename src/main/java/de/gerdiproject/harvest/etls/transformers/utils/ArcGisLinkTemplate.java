@@ -0,0 +1,106 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.transformers.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.gerdiproject.harvest.arcgis.constants.ArcGisConstants;
+
+/**
+ * This class is a URL template that is parsed once, and filled by concatenating
+ * its literal parts with the values of its placeholders. It supports the subset
+ * of {@linkplain String#format(String, Object...)} that is used by the link templates,
+ * namely '%s' placeholders and escaped percent signs.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisLinkTemplate
+{
+    private final String[] literals;
+    private final int literalLength;
+
+
+    /**
+     * Constructor that parses a format string.
+     *
+     * @param format a format string that contains '%s' placeholders and '%%' escapes only
+     *
+     * @throws IllegalArgumentException thrown when the format string contains other format specifiers
+     */
+    public ArcGisLinkTemplate(final String format)
+    {
+        final List<String> parsedLiterals = new ArrayList<>();
+        final StringBuilder literal = new StringBuilder();
+
+        for (int i = 0; i < format.length(); i++) {
+            final char c = format.charAt(i);
+
+            if (c != '%') {
+                literal.append(c);
+                continue;
+            }
+
+            final char specifier = i + 1 < format.length() ? format.charAt(++i) : 0;
+
+            if (specifier == '%')
+                literal.append('%');
+
+            else if (specifier == 's') {
+                parsedLiterals.add(literal.toString());
+                literal.setLength(0);
+
+            } else
+                throw new IllegalArgumentException(String.format(ArcGisConstants.UNSUPPORTED_LINK_TEMPLATE, format));
+        }
+
+        parsedLiterals.add(literal.toString());
+
+        this.literals = parsedLiterals.toArray(new String[parsedLiterals.size()]);
+
+        int length = 0;
+
+        for (final String parsedLiteral : literals)
+            length += parsedLiteral.length();
+
+        this.literalLength = length;
+    }
+
+
+    /**
+     * Fills the placeholders of the template.
+     *
+     * @param values the values of the placeholders, in the order of their occurrence
+     *
+     * @return the filled template
+     */
+    public String fill(final String... values)
+    {
+        int length = literalLength;
+
+        // null values are appended as "null", just like String.format() does
+        for (final String value : values)
+            length += String.valueOf(value).length();
+
+        final StringBuilder url = new StringBuilder(length).append(literals[0]);
+
+        for (int i = 1; i < literals.length; i++)
+            url.append(values[i - 1]).append(literals[i]);
+
+        return url.toString();
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.transformers.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import de.gerdiproject.harvest.arcgis.constants.LinkAssemblerConstants;
+
+/**
+ * This enumeration represents the types of ArcGis maps that
+ * have links which other map types do not have.
+ *
+ * @author Robin Weiss
+ */
+public enum ArcGisMapType
+{
+    FEATURE_COLLECTION(LinkAssemblerConstants.FEATURE_COLLECTION_TYPE),
+    VECTOR_TILE_SERVICE(LinkAssemblerConstants.VECTOR_TILE_SERVICE_TYPE),
+    MOBILE_APP(LinkAssemblerConstants.MOBILE_APP_TYPE),
+    WEB_APP(LinkAssemblerConstants.WEB_APP_TYPE),
+    DOCUMENT_LINK(LinkAssemblerConstants.DOCUMENT_LINK_TYPE),
+    WEB_SCENE(LinkAssemblerConstants.WEB_SCENE_TYPE),
+    WEB_MAP(LinkAssemblerConstants.WEB_MAP_TYPE),
+    CODE_ATTACHMENT(LinkAssemblerConstants.CODE_ATTACHMENT_TYPE),
+    MAP_SERVICE(LinkAssemblerConstants.MAP_SERVICE_TYPE),
+    IMAGE_SERVICE(LinkAssemblerConstants.IMAGE_SERVICE_TYPE),
+    FEATURE_SERVICE(LinkAssemblerConstants.FEATURE_SERVICE_TYPE),
+    RULE_PACKAGE(LinkAssemblerConstants.RULE_PACKAGE_TYPE),
+    LAYER_PACKAGE(LinkAssemblerConstants.LAYER_PACKAGE_TYPE),
+    WMS(LinkAssemblerConstants.WMS_TYPE),
+    OTHER(null);
+
+    private static final Map<String, ArcGisMapType> TYPES_BY_NAME = createTypesByName();
+
+    private final String typeName;
+
+
+    /**
+     * Constructor that requires the name of the type as it is used by ArcGis.
+     *
+     * @param typeName the name of the type as it is used by ArcGis
+     */
+    ArcGisMapType(final String typeName)
+    {
+        this.typeName = typeName;
+    }
+
+
+    /**
+     * Determines the type of a map.
+     *
+     * @param typeName the type property of a map
+     *
+     * @return the type of the map, or {@linkplain #OTHER} if the type has no specific links
+     */
+    public static ArcGisMapType fromString(final String typeName)
+    {
+        final ArcGisMapType type = typeName == null ? null : TYPES_BY_NAME.get(typeName);
+        return type == null ? OTHER : type;
+    }
+
+
+    /**
+     * Creates a lookup table of all types by their names.
+     *
+     * @return a map of type names to types
+     */
+    private static Map<String, ArcGisMapType> createTypesByName()
+    {
+        final Map<String, ArcGisMapType> typesByName = new HashMap<>();
+
+        for (final ArcGisMapType type : values()) {
+            if (type.typeName != null)
+                typesByName.put(type.typeName, type);
+        }
+
+        return typesByName;
+    }
+}
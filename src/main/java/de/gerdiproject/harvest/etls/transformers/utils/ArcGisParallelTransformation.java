@@ -0,0 +1,122 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.transformers.utils;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import de.gerdiproject.harvest.arcgis.constants.ArcGisConstants;
+import de.gerdiproject.harvest.etls.extractors.utils.DaemonThreadFactory;
+
+/**
+ * This iterator transforms the elements of another iterator on multiple threads.
+ * Elements are retrieved from the source iterator by the consuming thread only,
+ * and the transformed elements are returned in the order of the source iterator.
+ * The number of elements that are transformed ahead of the returned element is
+ * limited to twice the number of threads in order to keep the memory consumption bounded.
+ *
+ * @param <A> the type of the source elements
+ * @param <B> the type of the transformed elements
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisParallelTransformation<A, B> implements Iterator<B>
+{
+    private final Iterator<A> sourceIterator;
+    private final Function<A, B> transformation;
+    private final ExecutorService executor;
+    private final Deque<CompletableFuture<B>> pendingElements;
+    private final int maxPendingElements;
+
+
+    /**
+     * Constructor that requires the source iterator and the transformation.
+     *
+     * @param sourceIterator the iterator of the elements that are to be transformed
+     * @param transformation a thread-safe function that transforms a single element
+     * @param parallelism the number of threads that transform elements
+     */
+    public ArcGisParallelTransformation(final Iterator<A> sourceIterator, final Function<A, B> transformation, final int parallelism)
+    {
+        this.sourceIterator = sourceIterator;
+        this.transformation = transformation;
+        this.maxPendingElements = 2 * parallelism;
+        this.executor = Executors.newFixedThreadPool(parallelism, new DaemonThreadFactory(ArcGisConstants.TRANSFORMER_THREAD_NAME));
+        this.pendingElements = new ArrayDeque<>(maxPendingElements);
+    }
+
+
+    @Override
+    public boolean hasNext()
+    {
+        fillPipeline();
+
+        if (!pendingElements.isEmpty())
+            return true;
+
+        // the executor is no longer needed if all elements were transformed
+        executor.shutdown();
+        return false;
+    }
+
+
+    @Override
+    public B next()
+    {
+        if (!hasNext())
+            throw new NoSuchElementException();
+
+        try {
+            return pendingElements.poll().join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+
+            throw e;
+        }
+    }
+
+
+    /**
+     * Stops all transformations. Pending elements are discarded.
+     */
+    public void shutdown()
+    {
+        executor.shutdownNow();
+        pendingElements.clear();
+    }
+
+
+    /**
+     * Schedules transformations until the source iterator is exhausted,
+     * or until the maximum number of pending elements is reached.
+     */
+    private void fillPipeline()
+    {
+        while (pendingElements.size() < maxPendingElements && sourceIterator.hasNext()) {
+            final A element = sourceIterator.next();
+            pendingElements.add(CompletableFuture.supplyAsync(() -> transformation.apply(element), executor));
+        }
+    }
+}
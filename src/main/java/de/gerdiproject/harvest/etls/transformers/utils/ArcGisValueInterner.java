@@ -0,0 +1,140 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.transformers.utils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * This class is a thread-safe, bounded cache that hands out a single shared instance
+ * of an immutable value object per key, so that identical values that occur in many
+ * documents can share a single instance.
+ * If the number of entries exceeds its limit, the least recently used entries are evicted.
+ * A limit below one disables the cache, in which case a new value is created on every call.
+ *
+ * @param <V> the type of the interned values, which must not be modified after they were created
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisValueInterner<V>
+{
+    private final Map<String, V> values;
+    private volatile int maxEntries;
+    private long hitCount;
+
+
+    /**
+     * Constructor that requires the limit of the cache.
+     *
+     * @param maxEntries the maximum number of interned values
+     */
+    public ArcGisValueInterner(final int maxEntries)
+    {
+        this.values = new LinkedHashMap<>(16, 0.75f, true);
+        this.maxEntries = maxEntries;
+    }
+
+
+    /**
+     * Changes the limit of the cache, evicting entries if necessary.
+     *
+     * @param maxEntries the maximum number of interned values
+     */
+    public synchronized void setMaxEntries(final int maxEntries)
+    {
+        this.maxEntries = maxEntries;
+        evict();
+    }
+
+
+    /**
+     * Checks if values are cached at all. Callers can use this to skip
+     * assembling composite keys while the cache is disabled.
+     *
+     * @return true if the limit of the cache is at least one
+     */
+    public boolean isEnabled()
+    {
+        return maxEntries > 0;
+    }
+
+
+    /**
+     * Retrieves the shared value of a key, creating it if it is not cached.
+     *
+     * @param key the key that identifies the value
+     * @param factory a function that creates the value of the key
+     *
+     * @return the shared value of the key
+     */
+    public V intern(final String key, final Function<String, V> factory)
+    {
+        if (!isEnabled())
+            return factory.apply(key);
+
+        synchronized (this) {
+            V value = values.get(key);
+
+            if (value == null) {
+                value = factory.apply(key);
+                values.put(key, value);
+                evict();
+            } else
+                hitCount++;
+
+            return value;
+        }
+    }
+
+
+    /**
+     * Returns the number of interned values.
+     *
+     * @return the number of interned values
+     */
+    public synchronized int size()
+    {
+        return values.size();
+    }
+
+
+    /**
+     * Returns how many times a value was shared instead of being created.
+     *
+     * @return the number of calls that returned a cached value
+     */
+    public synchronized long getHitCount()
+    {
+        return hitCount;
+    }
+
+
+    /**
+     * Removes the least recently used entries until the limit is met.
+     */
+    private void evict()
+    {
+        final Iterator<V> iter = values.values().iterator();
+
+        while (values.size() > maxEntries && iter.hasNext()) {
+            iter.next();
+            iter.remove();
+        }
+    }
+}
@@ -15,6 +15,12 @@
  */
 package de.gerdiproject.harvest;
 
+import java.io.File;
+
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.rules.TemporaryFolder;
+
 import de.gerdiproject.harvest.application.AbstractContextListenerTest;
 
 /**
@@ -24,6 +30,21 @@ import de.gerdiproject.harvest.application.AbstractContextListenerTest;
  */
 public class ArcGisContextListenerTest extends AbstractContextListenerTest<ArcGisContextListener>
 {
+    private static final String SNAPSHOT_FILE_NAME = "featuredGroups.json";
+
+    @ClassRule
+    public static final TemporaryFolder SNAPSHOT_FOLDER = new TemporaryFolder();
+
+
+    /**
+     * Prevents the featured groups from being read from or written to the working directory.
+     */
+    @BeforeClass
+    public static void setUpSnapshotFile()
+    {
+        ArcGisContextListener.setGroupSnapshotFile(new File(SNAPSHOT_FOLDER.getRoot(), SNAPSHOT_FILE_NAME));
+    }
+
 
     @Override
     protected int getMaxInitializationTime()
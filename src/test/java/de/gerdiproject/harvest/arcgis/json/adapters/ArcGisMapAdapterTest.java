@@ -0,0 +1,119 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.arcgis.json.adapters;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.google.gson.Gson;
+
+import de.gerdiproject.harvest.arcgis.json.ArcGisMap;
+
+/**
+ * This class provides Unit Tests for the {@linkplain ArcGisMapAdapter}.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisMapAdapterTest
+{
+    private static final double DELTA = 0.00001;
+    private final Gson gson = new Gson();
+
+
+    /**
+     * Tests if fields that are not part of the {@linkplain ArcGisMap} are skipped,
+     * including nested arrays and objects, without affecting the fields that follow them.
+     */
+    @Test
+    public void testSkippedFields()
+    {
+        final ArcGisMap map = gson.fromJson(
+                                  "{\"id\":\"a\",\"categories\":[[\"x\",[1,2]],{\"y\":[3]}],\"numViews\":9000,"
+                                  + "\"screenshots\":[],\"unknown\":{\"nested\":[[[]]]},\"title\":\"Title\","
+                                  + "\"tags\":[\"t1\",\"t2\"],\"snippet\":null}",
+                                  ArcGisMap.class);
+
+        assertEquals("a", map.getId());
+        assertEquals("Title", map.getTitle());
+        assertEquals(Arrays.asList("t1", "t2"), map.getTags());
+        assertNull(map.getSnippet());
+    }
+
+
+    /**
+     * Tests if an extent is flattened when it is read, and restored to
+     * two points when it is written.
+     */
+    @Test
+    public void testExtentRoundTrip()
+    {
+        final String json = "{\"id\":\"a\",\"extent\":[[-139.0257,41.6709],[-52.1452,60.029]]}";
+        final ArcGisMap map = gson.fromJson(json, ArcGisMap.class);
+
+        assertArrayEquals(new double[] {-139.0257, 41.6709, -52.1452, 60.029}, map.getExtent(), DELTA);
+
+        final ArcGisMap writtenMap = gson.fromJson(gson.toJson(map), ArcGisMap.class);
+        assertArrayEquals(map.getExtent(), writtenMap.getExtent(), DELTA);
+        assertEquals(map, writtenMap);
+    }
+
+
+    /**
+     * Tests if additional coordinates and points of an extent are ignored.
+     */
+    @Test
+    public void testLongExtent()
+    {
+        final ArcGisMap map = gson.fromJson("{\"extent\":[[1,2,3],[4,5,6],[7,8]]}", ArcGisMap.class);
+
+        assertArrayEquals(new double[] {1, 2, 4, 5}, map.getExtent(), DELTA);
+    }
+
+
+    /**
+     * Tests if missing, null, empty, and incomplete extents are read as null,
+     * and if maps without an extent are written without it.
+     */
+    @Test
+    public void testMissingExtent()
+    {
+        assertNull(gson.fromJson("{\"id\":\"a\"}", ArcGisMap.class).getExtent());
+        assertNull(gson.fromJson("{\"extent\":null}", ArcGisMap.class).getExtent());
+        assertNull(gson.fromJson("{\"extent\":[]}", ArcGisMap.class).getExtent());
+        assertNull(gson.fromJson("{\"extent\":[[1,2]]}", ArcGisMap.class).getExtent());
+        assertNull(gson.fromJson("{\"extent\":[[1,2],[3]]}", ArcGisMap.class).getExtent());
+
+        final ArcGisMap map = gson.fromJson("{\"id\":\"a\"}", ArcGisMap.class);
+        assertEquals("{\"id\":\"a\"}", gson.toJson(map));
+    }
+
+
+    /**
+     * Tests if null maps are read and written as JSON null.
+     */
+    @Test
+    public void testNullMap()
+    {
+        assertNull(gson.fromJson("null", ArcGisMap.class));
+        assertEquals("null", gson.toJson(null, ArcGisMap.class));
+    }
+}
@@ -19,10 +19,14 @@ package de.gerdiproject.harvest.etls.extractors;
 import java.io.File;
 import java.nio.charset.StandardCharsets;
 
+import org.junit.Rule;
+import org.junit.rules.TemporaryFolder;
+
 import de.gerdiproject.harvest.ArcGisContextListener;
 import de.gerdiproject.harvest.application.ContextListener;
 import de.gerdiproject.harvest.etls.AbstractIteratorETL;
 import de.gerdiproject.harvest.etls.ArcGisETL;
+import de.gerdiproject.harvest.etls.extractors.utils.ArcGisHttpClient;
 import de.gerdiproject.harvest.utils.data.DiskIO;
 import de.gerdiproject.json.GsonUtils;
 import de.gerdiproject.json.datacite.DataCiteJson;
@@ -35,6 +39,19 @@ import de.gerdiproject.json.datacite.DataCiteJson;
 public class ArcGisExtractorTest extends AbstractIteratorExtractorTest<ArcGisMapVO>
 {
     private static final String MOCKED_RESPONSE_FOLDER = "mockedHttpResponses";
+    private static final String SNAPSHOT_FILE_NAME = "featuredGroups.json";
+
+    @Rule
+    public final TemporaryFolder ownerCacheFolder = new TemporaryFolder();
+
+    @Rule
+    public final TemporaryFolder snapshotFolder = new TemporaryFolder();
+
+    @Rule
+    public final TemporaryFolder watermarkFolder = new TemporaryFolder();
+
+    @Rule
+    public final TemporaryFolder checkpointFolder = new TemporaryFolder();
 
     private final DiskIO diskReader = new DiskIO(GsonUtils.createGerdiDocumentGsonBuilder().create(), StandardCharsets.UTF_8);
 
@@ -49,6 +66,18 @@ public class ArcGisExtractorTest extends AbstractIteratorExtractorTest<ArcGisMap
     @Override
     protected ContextListener getContextListener()
     {
+        // direct requests replay the mocked responses before the context is initialized
+        ArcGisHttpClient.setMockedResponseFolder(getMockedHttpResponseFolder());
+
+        // owners must not be served from the cache of a previous test run
+        ArcGisExtractor.setOwnerCacheFolder(ownerCacheFolder.getRoot());
+
+        // featured groups must not be read from or written to the working directory
+        ArcGisContextListener.setGroupSnapshotFile(new File(snapshotFolder.getRoot(), SNAPSHOT_FILE_NAME));
+
+        // the harvest must neither be restricted nor leave behind a watermark or checkpoint
+        ArcGisExtractor.setWatermarkFolder(watermarkFolder.getRoot());
+        ArcGisExtractor.setCheckpointFolder(checkpointFolder.getRoot());
         return new ArcGisContextListener();
     }
 
@@ -0,0 +1,29 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors;
+
+/**
+ * This class provides Unit Tests for the {@linkplain ArcGisExtractor} when it
+ * extracts a group that contains more maps than the search result window allows.
+ * The mocked responses split the group into two ranges of creation dates, the
+ * earlier one of which contains no maps.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisPartitionedExtractorTest extends ArcGisExtractorTest
+{
+}
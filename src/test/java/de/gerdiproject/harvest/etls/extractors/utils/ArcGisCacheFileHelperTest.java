@@ -0,0 +1,61 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+
+import org.junit.Test;
+
+import de.gerdiproject.harvest.arcgis.constants.ArcGisConstants;
+
+/**
+ * This class provides Unit Tests for the {@linkplain ArcGisCacheFileHelper}.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisCacheFileHelperTest
+{
+    private static final File FOLDER = new File("mockedFolder");
+
+
+    /**
+     * Tests if names without special characters are used as file names.
+     */
+    @Test
+    public void testPlainName()
+    {
+        final File file = ArcGisCacheFileHelper.getCacheFile(FOLDER, "MockedName", ArcGisConstants.JSON_FILE_EXTENSION);
+
+        assertEquals(new File(FOLDER, "MockedName" + ArcGisConstants.JSON_FILE_EXTENSION), file);
+    }
+
+
+    /**
+     * Tests if names with path separators are encoded, so that the file
+     * remains inside of the folder.
+     */
+    @Test
+    public void testEncodedName()
+    {
+        final File file = ArcGisCacheFileHelper.getCacheFile(FOLDER, "../Mocked ETL", ArcGisConstants.JOURNAL_FILE_EXTENSION);
+
+        assertEquals(FOLDER, file.getParentFile());
+        assertEquals("..%2FMocked+ETL" + ArcGisConstants.JOURNAL_FILE_EXTENSION, file.getName());
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.gerdiproject.harvest.arcgis.constants.ArcGisConstants;
+
+/**
+ * This class provides Unit Tests for the {@linkplain ArcGisCheckpointStore}.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisCheckpointStoreTest
+{
+    private static final String ETL_NAME = "Mocked ETL";
+    private static final String VERSION = "mockedVersion";
+    private static final String OTHER_VERSION = "otherMockedVersion";
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private ArcGisCheckpointStore store;
+
+
+    /**
+     * Creates a checkpoint store in a temporary folder.
+     */
+    @Before
+    public void before()
+    {
+        store = new ArcGisCheckpointStore(tempFolder.getRoot());
+    }
+
+
+    /**
+     * Tests if there is no checkpoint if no page was appended.
+     */
+    @Test
+    public void testMissingCheckpoint()
+    {
+        assertNull(store.get(ETL_NAME));
+    }
+
+
+    /**
+     * Tests if the pages of a harvest are combined to a single checkpoint.
+     */
+    @Test
+    public void testCombiningPages()
+    {
+        store.append(ETL_NAME, createPage(VERSION, 3, 200L, "a", "b"));
+        store.append(ETL_NAME, createPage(VERSION, 5, 100L, "c", "d"));
+
+        final ArcGisCheckpoint checkpoint = store.get(ETL_NAME);
+
+        assertNotNull(checkpoint);
+        assertEquals(VERSION, checkpoint.getVersion());
+        assertEquals(5, checkpoint.getStartIndex());
+        assertEquals(200L, checkpoint.getHighestModified());
+        assertEquals(new HashSet<>(Arrays.asList("a", "b", "c", "d")), checkpoint.getExtractedMapIds());
+    }
+
+
+    /**
+     * Tests if appending a page only writes the IDs of that page,
+     * instead of rewriting all IDs of the harvest.
+     */
+    @Test
+    public void testAppendingOnlyPageIds()
+    {
+        store.append(ETL_NAME, createPage(VERSION, 3, 100L, "a", "b"));
+        final long firstPageLength = getJournalFile().length();
+
+        store.append(ETL_NAME, createPage(VERSION, 5, 100L, "c", "d"));
+
+        assertEquals(2 * firstPageLength, getJournalFile().length());
+    }
+
+
+    /**
+     * Tests if a page that was only partially written is ignored.
+     *
+     * @throws IOException thrown if the journal file could not be written
+     */
+    @Test
+    public void testIncompletePage() throws IOException
+    {
+        store.append(ETL_NAME, createPage(VERSION, 3, 100L, "a", "b"));
+
+        try (OutputStream journal = new FileOutputStream(getJournalFile(), true)) {
+            journal.write("{\"version\":\"mockedVersion\",\"startIndex\":5,\"extr".getBytes(StandardCharsets.UTF_8));
+        }
+
+        final ArcGisCheckpoint checkpoint = store.get(ETL_NAME);
+
+        assertNotNull(checkpoint);
+        assertEquals(3, checkpoint.getStartIndex());
+        assertEquals(2, checkpoint.getExtractedMapIds().size());
+    }
+
+
+    /**
+     * Tests if a removed checkpoint can no longer be retrieved.
+     */
+    @Test
+    public void testRemove()
+    {
+        store.append(ETL_NAME, createPage(VERSION, 3, 100L, "a"));
+        store.remove(ETL_NAME);
+
+        assertNull(store.get(ETL_NAME));
+    }
+
+
+    /**
+     * Tests if a harvest of the same version of the group resumes at the checkpoint.
+     */
+    @Test
+    public void testResumingSameVersion()
+    {
+        store.append(ETL_NAME, createPage(VERSION, 3, 100L, "a", "b"));
+
+        final ArcGisCheckpoint checkpoint = store.resume(ETL_NAME, VERSION);
+
+        assertNotNull(checkpoint);
+        assertEquals(3, checkpoint.getStartIndex());
+        assertEquals(new HashSet<>(Arrays.asList("a", "b")), checkpoint.getExtractedMapIds());
+    }
+
+
+    /**
+     * Tests if a harvest of the last page can be resumed, without retrieving further pages.
+     */
+    @Test
+    public void testResumingFinishedPages()
+    {
+        store.append(ETL_NAME, createPage(VERSION, 3, 100L, "a", "b"));
+        store.append(ETL_NAME, createPage(VERSION, -1, 100L, "c"));
+
+        final ArcGisCheckpoint checkpoint = store.resume(ETL_NAME, VERSION);
+
+        assertNotNull(checkpoint);
+        assertEquals(-1, checkpoint.getStartIndex());
+        assertEquals(3, checkpoint.getExtractedMapIds().size());
+    }
+
+
+    /**
+     * Tests if the checkpoint of another version of the group is discarded,
+     * so that its pages are not combined with the pages of the new harvest.
+     */
+    @Test
+    public void testResumingOtherVersion()
+    {
+        store.append(ETL_NAME, createPage(OTHER_VERSION, 3, 100L, "a", "b"));
+
+        assertNull(store.resume(ETL_NAME, VERSION));
+
+        store.append(ETL_NAME, createPage(VERSION, 5, 100L, "c"));
+        final ArcGisCheckpoint checkpoint = store.resume(ETL_NAME, VERSION);
+
+        assertNotNull(checkpoint);
+        assertEquals(new HashSet<>(Arrays.asList("c")), checkpoint.getExtractedMapIds());
+    }
+
+
+    /**
+     * Tests if a harvest without a version does not resume.
+     */
+    @Test
+    public void testResumingWithoutVersion()
+    {
+        store.append(ETL_NAME, createPage(VERSION, 3, 100L, "a"));
+
+        assertNull(store.resume(ETL_NAME, null));
+    }
+
+
+    /**
+     * Creates the checkpoint of a single page.
+     *
+     * @param version the version of the group
+     * @param nextStartIndex the start index of the page that follows
+     * @param highestModified the highest modification date of the harvest
+     * @param mapIds the IDs of the maps of the page
+     *
+     * @return the checkpoint of the page
+     */
+    private static ArcGisCheckpoint createPage(final String version, final int nextStartIndex, final long highestModified, final String... mapIds)
+    {
+        return new ArcGisCheckpoint(version, nextStartIndex, highestModified, new HashSet<>(Arrays.asList(mapIds)));
+    }
+
+
+    /**
+     * Returns the journal file of the mocked ETL.
+     *
+     * @return the journal file of the mocked ETL
+     */
+    private File getJournalFile()
+    {
+        return new File(tempFolder.getRoot(), "Mocked+ETL" + ArcGisConstants.JOURNAL_FILE_EXTENSION);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Test;
+
+/**
+ * This class provides Unit Tests for the decompression of response bodies
+ * by the {@linkplain ArcGisConnectionPool}.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisConnectionPoolTest
+{
+    private static final byte[] BODY = "{\"total\":1,\"results\":[{\"id\":\"abc\"}]}".getBytes(StandardCharsets.UTF_8);
+
+
+    /**
+     * Tests if gzip compressed bodies are decompressed.
+     *
+     * @throws IOException thrown when the body could not be decompressed
+     */
+    @Test
+    public void testGzip() throws IOException
+    {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+
+        try (OutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(BODY);
+        }
+
+        assertDecompressed(compressed.toByteArray(), "gzip");
+        assertDecompressed(compressed.toByteArray(), "x-gzip");
+        assertDecompressed(compressed.toByteArray(), " GZIP ");
+    }
+
+
+    /**
+     * Tests if deflate compressed bodies are decompressed.
+     *
+     * @throws IOException thrown when the body could not be decompressed
+     */
+    @Test
+    public void testDeflate() throws IOException
+    {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+
+        try (OutputStream deflate = new DeflaterOutputStream(compressed)) {
+            deflate.write(BODY);
+        }
+
+        assertDecompressed(compressed.toByteArray(), "deflate");
+    }
+
+
+    /**
+     * Tests if bodies without or with an unknown encoding are returned as they are.
+     *
+     * @throws IOException thrown when the body could not be read
+     */
+    @Test
+    public void testIdentity() throws IOException
+    {
+        assertDecompressed(BODY, null);
+        assertDecompressed(BODY, "identity");
+    }
+
+
+    /**
+     * Asserts that a body is decompressed to the expected JSON.
+     *
+     * @param body the body as it was transferred
+     * @param contentEncoding the encoding of the body
+     *
+     * @throws IOException thrown when the body could not be decompressed
+     */
+    private static void assertDecompressed(final byte[] body, final String contentEncoding) throws IOException
+    {
+        final byte[] decompressed = ArcGisConnectionPool.readAll(
+                                        ArcGisConnectionPool.decompress(new ByteArrayInputStream(body), contentEncoding));
+        assertArrayEquals(BODY, decompressed);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+
+/**
+ * This class provides Unit Tests for the {@linkplain ArcGisCountingInputStream}.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisCountingInputStreamTest
+{
+    private static final byte[] BODY = new byte[10000];
+
+
+    /**
+     * Tests if single bytes and byte arrays are counted alike.
+     *
+     * @throws IOException thrown when the stream could not be read
+     */
+    @Test
+    public void testReadCount() throws IOException
+    {
+        try (ArcGisCountingInputStream stream = new ArcGisCountingInputStream(new ByteArrayInputStream(BODY))) {
+            stream.read();
+            stream.read(new byte[100], 0, 100);
+
+            assertEquals(101, stream.getCount());
+        }
+    }
+
+
+    /**
+     * Tests if skipped bytes are counted.
+     *
+     * @throws IOException thrown when the stream could not be read
+     */
+    @Test
+    public void testSkipCount() throws IOException
+    {
+        try (ArcGisCountingInputStream stream = new ArcGisCountingInputStream(new ByteArrayInputStream(BODY))) {
+            stream.skip(500);
+
+            assertEquals(500, stream.getCount());
+        }
+    }
+
+
+    /**
+     * Tests if draining the stream counts all remaining bytes,
+     * and if reading beyond the end of the stream is not counted.
+     *
+     * @throws IOException thrown when the stream could not be read
+     */
+    @Test
+    public void testDrain() throws IOException
+    {
+        try (ArcGisCountingInputStream stream = new ArcGisCountingInputStream(new ByteArrayInputStream(BODY))) {
+            stream.read(new byte[100], 0, 100);
+            stream.drain();
+            stream.read();
+
+            assertEquals(BODY.length, stream.getCount());
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * This class provides Unit Tests for the {@linkplain ArcGisDatePartitioner}.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisDatePartitionerTest
+{
+    private static final int MAX_MAPS_PER_RANGE = 10;
+
+
+    /**
+     * Tests if a range that does not exceed the limit is not split.
+     */
+    @Test
+    public void testSmallRange()
+    {
+        final ArcGisDatePartitioner partitioner = new ArcGisDatePartitioner(this::countMapsPerMillisecond, MAX_MAPS_PER_RANGE);
+        final List<ArcGisDateRange> partitions = partitioner.partition(new ArcGisDateRange(0, 9));
+
+        assertEquals(1, partitions.size());
+    }
+
+
+    /**
+     * Tests if the partitions of a large range are consecutive, cover the whole range,
+     * and do not exceed the limit.
+     */
+    @Test
+    public void testLargeRange()
+    {
+        final ArcGisDatePartitioner partitioner = new ArcGisDatePartitioner(this::countMapsPerMillisecond, MAX_MAPS_PER_RANGE);
+        final List<ArcGisDateRange> partitions = partitioner.partition(new ArcGisDateRange(0, 99));
+
+        long expectedFrom = 0;
+
+        for (final ArcGisDateRange partition : partitions) {
+            assertEquals(expectedFrom, partition.getFrom());
+            assertTrue(countMapsPerMillisecond(partition) <= MAX_MAPS_PER_RANGE);
+            expectedFrom = partition.getTo() + 1;
+        }
+
+        assertEquals(100, expectedFrom);
+    }
+
+
+    /**
+     * Tests if ranges without maps are dropped.
+     */
+    @Test
+    public void testEmptyRanges()
+    {
+        // all maps were created at the last millisecond
+        final ArcGisDatePartitioner partitioner = new ArcGisDatePartitioner(
+            (final ArcGisDateRange range) -> range.getTo() == 99 ? MAX_MAPS_PER_RANGE : 0,
+            MAX_MAPS_PER_RANGE);
+
+        final List<ArcGisDateRange> partitions = partitioner.partition(new ArcGisDateRange(0, 99));
+
+        assertEquals(1, partitions.size());
+        assertEquals(99, partitions.get(0).getTo());
+    }
+
+
+    /**
+     * Counts the maps of a range, assuming that one map was created per millisecond.
+     *
+     * @param range a range of creation dates
+     *
+     * @return the number of maps of the range
+     */
+    private int countMapsPerMillisecond(final ArcGisDateRange range)
+    {
+        return (int) (range.getTo() - range.getFrom() + 1);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Test;
+
+import com.google.gson.Gson;
+
+import de.gerdiproject.harvest.arcgis.constants.ArcGisConstants;
+import de.gerdiproject.harvest.arcgis.json.ArcGisMap;
+import de.gerdiproject.harvest.arcgis.json.generic.GenericArcGisResponse;
+
+/**
+ * This class provides Unit Tests for the {@linkplain ArcGisFingerprintHelper}.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisFingerprintHelperTest
+{
+    private static final String RESPONSE_FORMAT =
+        "{\"query\":\" group:MockedGroupID \",\"total\":%d,\"start\":1,\"num\":1,\"nextStart\":2,"
+        + "\"results\":[{\"id\":\"%s\",\"modified\":%d,\"title\":\"%s\"}]}";
+
+    private final Gson gson = new Gson();
+
+
+    /**
+     * Tests if the fingerprint of an unchanged group is stable,
+     * even if fields that are not part of the fingerprint differ.
+     */
+    @Test
+    public void testStableFingerprint()
+    {
+        assertEquals(
+            fingerprint(42, "a", 1000, "Title"),
+            fingerprint(42, "a", 1000, "Other Title"));
+    }
+
+
+    /**
+     * Tests if the fingerprint changes when a map was modified.
+     */
+    @Test
+    public void testModifiedChangesFingerprint()
+    {
+        assertNotEquals(
+            fingerprint(42, "a", 1000, "Title"),
+            fingerprint(42, "a", 1001, "Title"));
+        assertNotEquals(
+            fingerprint(42, "a", 1000, "Title"),
+            fingerprint(42, "b", 1000, "Title"));
+    }
+
+
+    /**
+     * Tests if the fingerprint changes when maps were added or removed.
+     */
+    @Test
+    public void testTotalChangesFingerprint()
+    {
+        assertNotEquals(
+            fingerprint(42, "a", 1000, "Title"),
+            fingerprint(41, "a", 1000, "Title"));
+    }
+
+
+    /**
+     * Calculates the fingerprint of a search response of a single map.
+     *
+     * @param total the total number of maps of the group
+     * @param id the ID of the most recently modified map
+     * @param modified the modification date of the most recently modified map
+     * @param title the title of the most recently modified map
+     *
+     * @return the fingerprint of the search response
+     */
+    private String fingerprint(final int total, final String id, final long modified, final String title)
+    {
+        final GenericArcGisResponse<ArcGisMap> response = gson.fromJson(
+                                                              String.format(RESPONSE_FORMAT, total, id, modified, title),
+                                                              ArcGisConstants.MAPS_RESPONSE_TYPE);
+        return ArcGisFingerprintHelper.createFingerprint(response);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import de.gerdiproject.harvest.arcgis.constants.ArcGisConstants;
+
+/**
+ * This class provides Unit Tests for the {@linkplain ArcGisHostRateLimiter}.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisHostRateLimiterTest
+{
+    private static final double DELTA = 0.0001;
+
+
+    /**
+     * Tests if the rate is increased additively after a successful response.
+     */
+    @Test
+    public void testAdditiveIncrease()
+    {
+        final ArcGisHostRateLimiter limiter = new ArcGisHostRateLimiter(10, 50);
+        limiter.onSuccess(1000);
+
+        assertEquals(10 + ArcGisConstants.RATE_INCREASE_STEP, limiter.getRate(), DELTA);
+    }
+
+
+    /**
+     * Tests if the rate does not exceed its maximum.
+     */
+    @Test
+    public void testMaximumRate()
+    {
+        final ArcGisHostRateLimiter limiter = new ArcGisHostRateLimiter(10, 10);
+        limiter.onSuccess(1000);
+
+        assertEquals(10, limiter.getRate(), DELTA);
+    }
+
+
+    /**
+     * Tests if the rate is decreased multiplicatively only once
+     * if multiple requests are throttled at the same time.
+     */
+    @Test
+    public void testMultiplicativeDecrease()
+    {
+        final ArcGisHostRateLimiter limiter = new ArcGisHostRateLimiter(10, 50);
+        limiter.onThrottled(-1);
+        limiter.onThrottled(-1);
+
+        assertEquals(10 * ArcGisConstants.RATE_DECREASE_FACTOR, limiter.getRate(), DELTA);
+    }
+
+
+    /**
+     * Tests if the rate does not drop below its minimum.
+     */
+    @Test
+    public void testMinimumRate()
+    {
+        final ArcGisHostRateLimiter limiter = new ArcGisHostRateLimiter(0, 50);
+        limiter.onThrottled(-1);
+
+        assertEquals(ArcGisConstants.MIN_REQUESTS_PER_SECOND, limiter.getRate(), DELTA);
+    }
+}
@@ -0,0 +1,329 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import de.gerdiproject.harvest.arcgis.constants.ArcGisConstants;
+
+/**
+ * This class provides Unit Tests for the retries of the {@linkplain ArcGisHttpClient}.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisHttpClientTest
+{
+    private static final String URL = "https://mo.ck/sharing/rest/search?f=json";
+    private static final String RESULT = "result";
+    private static final String FAIRNESS_KEY = "MockedGroupID";
+    private static final double RATE = 50;
+    private static final double DELTA = 0.0001;
+
+
+    /**
+     * Tests if a request is repeated after the host throttled it,
+     * and if the rate of the host is decreased.
+     *
+     * @throws InterruptedException thrown when the test was interrupted
+     */
+    @Test
+    public void testRetryThrottled() throws InterruptedException
+    {
+        final ArcGisHostRateLimiter rateLimiter = new ArcGisHostRateLimiter(RATE, RATE);
+        final AtomicInteger attempts = new AtomicInteger();
+
+        final String result = ArcGisHttpClient.sendWithRetries(URL, rateLimiter, new ArcGisRequestBudget(0), FAIRNESS_KEY, 3, () -> {
+            if (attempts.incrementAndGet() < 3)
+                throw new ArcGisHttpStatusException(ArcGisConstants.HTTP_TOO_MANY_REQUESTS, 0);
+
+            return RESULT;
+        });
+
+        assertEquals(RESULT, result);
+        assertEquals(3, attempts.get());
+        assertTrue(rateLimiter.getRate() < RATE);
+    }
+
+
+    /**
+     * Tests if a request is given up when the maximum number of attempts is reached.
+     *
+     * @throws InterruptedException thrown when the test was interrupted
+     */
+    @Test
+    public void testGiveUp() throws InterruptedException
+    {
+        final AtomicInteger attempts = new AtomicInteger();
+
+        final String result = ArcGisHttpClient.sendWithRetries(URL, new ArcGisHostRateLimiter(RATE, RATE), new ArcGisRequestBudget(0), FAIRNESS_KEY, 2, () -> {
+            attempts.incrementAndGet();
+            throw new ArcGisHttpStatusException(HttpURLConnection.HTTP_UNAVAILABLE, 0);
+        });
+
+        assertNull(result);
+        assertEquals(2, attempts.get());
+    }
+
+
+    /**
+     * Tests if requests that failed with a client error are neither repeated,
+     * nor decrease the rate of the host.
+     *
+     * @throws InterruptedException thrown when the test was interrupted
+     */
+    @Test
+    public void testNoRetryOfClientError() throws InterruptedException
+    {
+        final ArcGisHostRateLimiter rateLimiter = new ArcGisHostRateLimiter(RATE, RATE);
+        final AtomicInteger attempts = new AtomicInteger();
+
+        final String result = ArcGisHttpClient.sendWithRetries(URL, rateLimiter, new ArcGisRequestBudget(0), FAIRNESS_KEY, 3, () -> {
+            attempts.incrementAndGet();
+            throw new ArcGisHttpStatusException(HttpURLConnection.HTTP_NOT_FOUND, -1);
+        });
+
+        assertNull(result);
+        assertEquals(1, attempts.get());
+        assertEquals(RATE, rateLimiter.getRate(), DELTA);
+    }
+
+
+    /**
+     * Tests if requests whose responses could not be retrieved for an
+     * unknown reason are not repeated.
+     *
+     * @throws InterruptedException thrown when the test was interrupted
+     */
+    @Test
+    public void testNoRetryOfNullResponse() throws InterruptedException
+    {
+        final AtomicInteger attempts = new AtomicInteger();
+
+        final String result = ArcGisHttpClient.sendWithRetries(URL, new ArcGisHostRateLimiter(RATE, RATE), new ArcGisRequestBudget(0), FAIRNESS_KEY, 3, () -> {
+            attempts.incrementAndGet();
+            return null;
+        });
+
+        assertNull(result);
+        assertEquals(1, attempts.get());
+    }
+
+
+    /**
+     * Tests if a request is repeated after its connection failed,
+     * without decreasing the rate of the host.
+     *
+     * @throws InterruptedException thrown when the test was interrupted
+     */
+    @Test
+    public void testRetryConnectionFailure() throws InterruptedException
+    {
+        final ArcGisHostRateLimiter rateLimiter = new ArcGisHostRateLimiter(RATE, RATE);
+        final AtomicInteger attempts = new AtomicInteger();
+
+        final String result = ArcGisHttpClient.sendWithRetries(URL, rateLimiter, new ArcGisRequestBudget(0), FAIRNESS_KEY, 2, () -> {
+            if (attempts.incrementAndGet() < 2)
+                throw new IOException("Connection reset");
+
+            return RESULT;
+        });
+
+        assertEquals(RESULT, result);
+        assertEquals(2, attempts.get());
+        assertEquals(RATE, rateLimiter.getRate(), DELTA);
+    }
+
+
+    /**
+     * Tests if the backoff delay is random, but never exceeds its exponentially
+     * growing bound or the maximum backoff delay.
+     */
+    @Test
+    public void testBackoffBounds()
+    {
+        for (int attempt = 1; attempt <= 20; attempt++) {
+            final long bound = Math.min(
+                                   ArcGisConstants.BACKOFF_MAX_MILLIS,
+                                   ArcGisConstants.BACKOFF_BASE_MILLIS << Math.min(attempt - 1, 16));
+
+            for (int i = 0; i < 100; i++) {
+                final long delay = ArcGisHttpClient.getBackoffMillis(attempt);
+                assertTrue(delay >= 0 && delay <= bound);
+            }
+        }
+    }
+
+
+    /**
+     * Tests if Retry-After values in seconds are converted to milliseconds.
+     */
+    @Test
+    public void testRetryAfterSeconds()
+    {
+        assertEquals(5000, ArcGisHttpClient.parseRetryAfter(" 5 "));
+        assertEquals(0, ArcGisHttpClient.parseRetryAfter("0"));
+    }
+
+
+    /**
+     * Tests if Retry-After dates are converted to the remaining milliseconds.
+     */
+    @Test
+    public void testRetryAfterDate()
+    {
+        final String retryDate = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(10));
+        final long retryAfterMillis = ArcGisHttpClient.parseRetryAfter(retryDate);
+
+        assertTrue(retryAfterMillis > 0 && retryAfterMillis <= 10000);
+        assertEquals(0, ArcGisHttpClient.parseRetryAfter("Wed, 21 Oct 2015 07:28:00 GMT"));
+    }
+
+
+    /**
+     * Tests if long Retry-After delays are capped.
+     */
+    @Test
+    public void testRetryAfterCap()
+    {
+        assertEquals(ArcGisConstants.RETRY_AFTER_MAX_MILLIS, ArcGisHttpClient.parseRetryAfter("86400"));
+    }
+
+
+    /**
+     * Tests if missing, negative, and malformed Retry-After values are ignored.
+     */
+    @Test
+    public void testInvalidRetryAfter()
+    {
+        assertEquals(-1, ArcGisHttpClient.parseRetryAfter(null));
+        assertEquals(-1, ArcGisHttpClient.parseRetryAfter("-5"));
+        assertEquals(-1, ArcGisHttpClient.parseRetryAfter("soon"));
+    }
+
+
+    /**
+     * Tests if requests with malformed URLs are not repeated.
+     *
+     * @throws InterruptedException thrown when the test was interrupted
+     */
+    @Test
+    public void testNoRetryOfMalformedUrl() throws InterruptedException
+    {
+        final AtomicInteger attempts = new AtomicInteger();
+
+        final String result = ArcGisHttpClient.sendWithRetries(URL, new ArcGisHostRateLimiter(RATE, RATE), new ArcGisRequestBudget(0), FAIRNESS_KEY, 3, () -> {
+            attempts.incrementAndGet();
+            throw new MalformedURLException("no protocol");
+        });
+
+        assertNull(result);
+        assertEquals(1, attempts.get());
+    }
+
+
+    /**
+     * Tests if the host of a URL is used as the key of its rate limit.
+     */
+    @Test
+    public void testHost()
+    {
+        assertEquals("mo.ck", ArcGisHttpClient.getHost(URL));
+    }
+
+
+    /**
+     * Tests if URLs without a protocol share a common host key, instead of being dropped.
+     */
+    @Test
+    public void testHostWithoutProtocol()
+    {
+        assertEquals(ArcGisConstants.UNKNOWN_HOST_KEY, ArcGisHttpClient.getHost("mo.ck//sharing/rest/search?f=json"));
+    }
+
+
+    /**
+     * Tests if the permit of the request budget is returned after each attempt.
+     *
+     * @throws InterruptedException thrown when the test was interrupted
+     */
+    @Test
+    public void testBudgetReleasedAfterAttempts() throws InterruptedException
+    {
+        final ArcGisRequestBudget budget = new ArcGisRequestBudget(1);
+        final AtomicInteger attempts = new AtomicInteger();
+
+        final String result = ArcGisHttpClient.sendWithRetries(URL, new ArcGisHostRateLimiter(RATE, RATE), budget, FAIRNESS_KEY, 2, () -> {
+            assertEquals(1, budget.getInFlight());
+
+            if (attempts.incrementAndGet() < 2)
+                throw new IOException("Connection reset");
+
+            return RESULT;
+        });
+
+        assertEquals(RESULT, result);
+        assertEquals(0, budget.getInFlight());
+    }
+
+
+    /**
+     * Tests if the owner of a streamed map can be retrieved while the stream
+     * of its page is still open, even if only one request may be in flight.
+     *
+     * @throws Exception thrown when the owner could not be retrieved in time
+     */
+    @Test
+    public void testOwnerRequestWhileStreaming() throws Exception
+    {
+        final ArcGisRequestBudget budget = new ArcGisRequestBudget(1);
+        final ArcGisHostRateLimiter rateLimiter = new ArcGisHostRateLimiter(RATE, RATE);
+        final ExecutorService ownerResolver = Executors.newSingleThreadExecutor();
+
+        final IArcGisRequest<InputStream> pageRequest = () -> new ByteArrayInputStream(RESULT.getBytes(StandardCharsets.UTF_8));
+        final IArcGisRequest<String> ownerRequest = () -> RESULT;
+
+        try (InputStream page = ArcGisHttpClient.sendWithRetries(URL, rateLimiter, budget, FAIRNESS_KEY, 1, pageRequest)) {
+            final Future<String> owner = ownerResolver.submit(
+                                             () -> ArcGisHttpClient.sendWithRetries(URL, rateLimiter, budget, FAIRNESS_KEY, 1, ownerRequest));
+
+            assertEquals(RESULT, owner.get(5, TimeUnit.SECONDS));
+            assertEquals(RESULT.length(), page.available());
+
+        } finally {
+            ownerResolver.shutdownNow();
+        }
+    }
+}
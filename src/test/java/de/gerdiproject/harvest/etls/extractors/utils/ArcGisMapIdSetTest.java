@@ -0,0 +1,86 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * This class provides Unit Tests for the {@linkplain ArcGisMapIdSet}.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisMapIdSetTest
+{
+    private static final String HEX_ID = "0123456789abcdef0123456789abcdef";
+
+
+    /**
+     * Tests if an ArcGis item ID is only added once.
+     */
+    @Test
+    public void testAddingHexId()
+    {
+        final ArcGisMapIdSet set = new ArcGisMapIdSet();
+
+        assertTrue(set.add(HEX_ID));
+        assertFalse(set.add(HEX_ID));
+        assertTrue(set.contains(HEX_ID));
+        assertEquals(1, set.size());
+    }
+
+
+    /**
+     * Tests if IDs that are not ArcGis item IDs are stored exactly,
+     * and are not confused with similar item IDs.
+     */
+    @Test
+    public void testAddingIrregularIds()
+    {
+        final ArcGisMapIdSet set = new ArcGisMapIdSet();
+        set.add(HEX_ID);
+
+        assertTrue(set.add(HEX_ID.toUpperCase()));
+        assertTrue(set.add("00000000000000000000000000000000"));
+        assertTrue(set.add("mocked"));
+        assertFalse(set.add("mocked"));
+        assertEquals(4, set.size());
+    }
+
+
+    /**
+     * Tests if all IDs are retained when the set grows.
+     */
+    @Test
+    public void testGrowing()
+    {
+        final ArcGisMapIdSet set = new ArcGisMapIdSet();
+
+        for (int i = 1; i <= 10000; i++)
+            set.add(String.format("%032x", i));
+
+        assertEquals(10000, set.size());
+
+        for (int i = 1; i <= 10000; i++)
+            assertTrue(set.contains(String.format("%032x", i)));
+
+        assertFalse(set.contains(String.format("%032x", 10001)));
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.gerdiproject.harvest.arcgis.json.ArcGisUser;
+
+/**
+ * This class provides Unit Tests for the {@linkplain ArcGisOwnerCache}.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisOwnerCacheTest
+{
+    private static final String USERNAME = "Mocked.Owner";
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+
+    /**
+     * Tests if a profile that was put into the cache is retrieved as a cache hit.
+     */
+    @Test
+    public void testCacheHit()
+    {
+        final ArcGisOwnerCache cache = new ArcGisOwnerCache(tempFolder.getRoot(), 1);
+        cache.put(USERNAME, createOwner());
+
+        final ArcGisOwnerCacheEntry entry = cache.get(USERNAME);
+
+        assertNotNull(entry);
+        assertEquals(USERNAME, entry.getOwner().getUsername());
+        assertEquals(1, cache.getHits());
+        assertEquals(0, cache.getMisses());
+    }
+
+
+    /**
+     * Tests if a profile that was never cached is counted as a cache miss.
+     */
+    @Test
+    public void testCacheMiss()
+    {
+        final ArcGisOwnerCache cache = new ArcGisOwnerCache(tempFolder.getRoot(), 1);
+
+        assertNull(cache.get(USERNAME));
+        assertEquals(0, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+
+    /**
+     * Tests if private or missing owners are cached as well.
+     */
+    @Test
+    public void testCachingMissingOwner()
+    {
+        final ArcGisOwnerCache cache = new ArcGisOwnerCache(tempFolder.getRoot(), 1);
+        cache.put(USERNAME, null);
+
+        final ArcGisOwnerCacheEntry entry = cache.get(USERNAME);
+
+        assertNotNull(entry);
+        assertNull(entry.getOwner());
+    }
+
+
+    /**
+     * Tests if a time to live of zero disables the cache.
+     */
+    @Test
+    public void testDisabledCache()
+    {
+        final ArcGisOwnerCache cache = new ArcGisOwnerCache(tempFolder.getRoot(), 0);
+        cache.put(USERNAME, createOwner());
+
+        assertNull(cache.get(USERNAME));
+        assertEquals(1, cache.getMisses());
+    }
+
+
+    /**
+     * Tests if re-caching a profile with an unchanged modification date is counted.
+     */
+    @Test
+    public void testUnmodifiedRefresh()
+    {
+        final ArcGisOwnerCache cache = new ArcGisOwnerCache(tempFolder.getRoot(), 1);
+        cache.put(USERNAME, createOwner());
+        cache.put(USERNAME, createOwner());
+
+        assertEquals(1, cache.getUnmodifiedRefreshes());
+    }
+
+
+    /**
+     * Creates a mocked owner profile.
+     *
+     * @return a mocked owner profile
+     */
+    private static ArcGisUser createOwner()
+    {
+        return new ArcGisUser(
+                   USERNAME,
+                   "Mocky McMock",
+                   "Mocky",
+                   "McMock",
+                   "Mocked Description.",
+                   Arrays.asList("MockedTag"),
+                   "mc",
+                   "MC",
+                   "yes",
+                   "mockedImages/owner-thumbnail.jpg",
+                   946782245000L,
+                   946782245001L,
+                   "MockedProvider");
+    }
+}
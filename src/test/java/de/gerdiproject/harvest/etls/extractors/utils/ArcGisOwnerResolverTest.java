@@ -0,0 +1,293 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.gerdiproject.harvest.arcgis.json.ArcGisMap;
+import de.gerdiproject.harvest.arcgis.json.ArcGisUser;
+
+/**
+ * This class provides Unit Tests for the {@linkplain ArcGisOwnerResolver}.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisOwnerResolverTest
+{
+    private static final String USERNAME = "Mocked.Owner";
+    private static final int THREAD_COUNT = 4;
+    private static final long TIMEOUT_SECONDS = 5;
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private ExecutorService executor;
+    private ArcGisOwnerCache disabledDiskCache;
+    private AtomicInteger downloads;
+
+
+    /**
+     * Creates the background threads and a disk cache that never returns profiles.
+     */
+    @Before
+    public void before()
+    {
+        executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        disabledDiskCache = new ArcGisOwnerCache(tempFolder.getRoot(), 0);
+        downloads = new AtomicInteger();
+    }
+
+
+    /**
+     * Stops the background threads.
+     */
+    @After
+    public void after()
+    {
+        executor.shutdownNow();
+    }
+
+
+    /**
+     * Tests if concurrent requests of the same owner only download the profile once.
+     *
+     * @throws Exception thrown when the owner could not be retrieved in time
+     */
+    @Test
+    public void testConcurrentRequestsAreDeduplicated() throws Exception
+    {
+        final CountDownLatch downloadStarted = new CountDownLatch(1);
+        final CountDownLatch downloadPermitted = new CountDownLatch(1);
+        final ArcGisUser owner = createOwner();
+
+        final ArcGisOwnerResolver resolver = new ArcGisOwnerResolver(
+            countDownloads((final String username) -> {
+                downloadStarted.countDown();
+                awaitQuietly(downloadPermitted);
+                return owner;
+            }),
+            disabledDiskCache,
+            executor);
+
+        final ExecutorService requesters = Executors.newFixedThreadPool(THREAD_COUNT);
+
+        try {
+            final List<Future<ArcGisUser>> results = new ArrayList<>();
+
+            for (int i = 0; i < THREAD_COUNT; i++)
+                results.add(requesters.submit(() -> resolver.getOwner(USERNAME)));
+
+            downloadStarted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            downloadPermitted.countDown();
+
+            for (final Future<ArcGisUser> result : results)
+                assertSame(owner, result.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        } finally {
+            requesters.shutdownNow();
+        }
+
+        assertEquals(1, downloads.get());
+    }
+
+
+    /**
+     * Tests if a prefetched owner is not downloaded again when it is retrieved.
+     */
+    @Test
+    public void testPrefetchedOwnerIsReused()
+    {
+        final ArcGisOwnerResolver resolver = new ArcGisOwnerResolver(
+            countDownloads((final String username) -> createOwner()),
+            disabledDiskCache,
+            executor);
+
+        resolver.prefetch(Arrays.asList(createMap(), createMap()));
+
+        assertEquals(USERNAME, resolver.getOwner(USERNAME).getUsername());
+        assertEquals(1, downloads.get());
+    }
+
+
+    /**
+     * Tests if owners that do not exist or are private are only requested once.
+     */
+    @Test
+    public void testMissingOwnerIsCached()
+    {
+        final ArcGisOwnerResolver resolver = new ArcGisOwnerResolver(
+            countDownloads((final String username) -> null),
+            disabledDiskCache,
+            executor);
+
+        assertNull(resolver.getOwner(USERNAME));
+        assertNull(resolver.getOwner(USERNAME));
+        assertEquals(1, downloads.get());
+    }
+
+
+    /**
+     * Tests if an owner is requested again after its request failed.
+     */
+    @Test
+    public void testFailedRequestIsRetried()
+    {
+        final ArcGisUser owner = createOwner();
+
+        final ArcGisOwnerResolver resolver = new ArcGisOwnerResolver(
+            countDownloads((final String username) -> {
+                if (downloads.get() == 1)
+                    throw new IllegalStateException("Mocked failure");
+
+                return owner;
+            }),
+            disabledDiskCache,
+            executor);
+
+        try {
+            resolver.getOwner(USERNAME);
+            fail("The failure of the request was not propagated");
+        } catch (final IllegalStateException e) { // NOPMD the failure is expected
+        }
+
+        assertSame(owner, resolver.getOwner(USERNAME));
+        assertEquals(2, downloads.get());
+    }
+
+
+    /**
+     * Tests if a profile is retrieved from the disk cache instead of being downloaded.
+     */
+    @Test
+    public void testDiskCacheIsUsed()
+    {
+        final ArcGisOwnerCache diskCache = new ArcGisOwnerCache(tempFolder.getRoot(), 1);
+        diskCache.put(USERNAME, createOwner());
+
+        final ArcGisOwnerResolver resolver = new ArcGisOwnerResolver(
+            countDownloads((final String username) -> createOwner()),
+            diskCache,
+            executor);
+
+        assertEquals(USERNAME, resolver.getOwner(USERNAME).getUsername());
+        assertEquals(0, downloads.get());
+    }
+
+
+    /**
+     * Wraps a download function, so that its calls are counted.
+     *
+     * @param downloader the function that downloads a profile
+     *
+     * @return a function that counts the downloads before calling the wrapped function
+     */
+    private Function<String, ArcGisUser> countDownloads(final Function<String, ArcGisUser> downloader)
+    {
+        return (final String username) -> {
+            downloads.incrementAndGet();
+            return downloader.apply(username);
+        };
+    }
+
+
+    /**
+     * Waits for a latch, restoring the interrupt flag if the thread is interrupted.
+     *
+     * @param latch the latch that is awaited
+     */
+    private static void awaitQuietly(final CountDownLatch latch)
+    {
+        try {
+            latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /**
+     * Creates a mocked map of the mocked owner.
+     *
+     * @return a mocked map
+     */
+    private static ArcGisMap createMap()
+    {
+        return new ArcGisMap(
+                   "1337a1337b1337c1337d1337e1337f42",
+                   USERNAME,
+                   946782245000L,
+                   946782245001L,
+                   "Mocked Name",
+                   "MockedTitle",
+                   null,
+                   null,
+                   null,
+                   null,
+                   null,
+                   null,
+                   null,
+                   null,
+                   null,
+                   null,
+                   null,
+                   null);
+    }
+
+
+    /**
+     * Creates a mocked owner profile.
+     *
+     * @return a mocked owner profile
+     */
+    private static ArcGisUser createOwner()
+    {
+        return new ArcGisUser(
+                   USERNAME,
+                   "Mocky McMock",
+                   "Mocky",
+                   "McMock",
+                   "Mocked Description.",
+                   Arrays.asList("MockedTag"),
+                   "mc",
+                   "MC",
+                   "yes",
+                   "mockedImages/owner-thumbnail.jpg",
+                   946782245000L,
+                   946782245001L,
+                   "MockedProvider");
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * This class provides Unit Tests for the {@linkplain ArcGisRequestBudget}.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisRequestBudgetTest
+{
+    private static final String HOST = "www.arcgis.com";
+    private static final String LARGE_GROUP = "largeGroup";
+    private static final String SMALL_GROUP = "smallGroup";
+
+
+    /**
+     * Tests if requests are permitted without waiting,
+     * as long as the maximum number of requests in flight is not reached.
+     *
+     * @throws InterruptedException thrown when the test was interrupted
+     */
+    @Test
+    public void testFreePermits() throws InterruptedException
+    {
+        final ArcGisRequestBudget budget = new ArcGisRequestBudget(2);
+        budget.acquire(HOST, LARGE_GROUP);
+        budget.acquire(HOST, SMALL_GROUP);
+
+        assertEquals(2, budget.getInFlight());
+    }
+
+
+    /**
+     * Tests if the permits of a released request are handed out alternately
+     * to the waiting requests of different groups, regardless of the order
+     * in which the requests started waiting.
+     *
+     * @throws InterruptedException thrown when the test was interrupted
+     */
+    @Test
+    public void testFairness() throws InterruptedException
+    {
+        final ArcGisRequestBudget budget = new ArcGisRequestBudget(1);
+        final List<String> permittedGroups = Collections.synchronizedList(new ArrayList<>());
+        final List<Thread> waitingThreads = new ArrayList<>();
+
+        budget.acquire(HOST, LARGE_GROUP);
+
+        for (final String group : Arrays.asList(LARGE_GROUP, LARGE_GROUP, LARGE_GROUP, SMALL_GROUP)) {
+            final Thread thread = new Thread(() -> {
+                try {
+                    budget.acquire(HOST, group);
+                    permittedGroups.add(group);
+                    budget.release();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            thread.start();
+            waitingThreads.add(thread);
+
+            // make sure that the threads start waiting one after the other
+            while (thread.getState() != Thread.State.WAITING)
+                Thread.sleep(1);
+        }
+
+        budget.release();
+
+        for (final Thread thread : waitingThreads)
+            thread.join();
+
+        assertEquals(Arrays.asList(LARGE_GROUP, SMALL_GROUP, LARGE_GROUP, LARGE_GROUP), permittedGroups);
+    }
+
+
+    /**
+     * Tests if waiting requests are permitted when the maximum number
+     * of requests in flight is raised.
+     *
+     * @throws InterruptedException thrown when the test was interrupted
+     */
+    @Test
+    public void testRaisedMaximum() throws InterruptedException
+    {
+        final ArcGisRequestBudget budget = new ArcGisRequestBudget(1);
+        budget.acquire(HOST, LARGE_GROUP);
+
+        final Thread waitingThread = new Thread(() -> {
+            try {
+                budget.acquire(HOST, SMALL_GROUP);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waitingThread.start();
+
+        while (waitingThread.getState() != Thread.State.WAITING)
+            Thread.sleep(1);
+
+        budget.setMaxInFlight(2);
+        waitingThread.join();
+
+        assertEquals(2, budget.getInFlight());
+    }
+}
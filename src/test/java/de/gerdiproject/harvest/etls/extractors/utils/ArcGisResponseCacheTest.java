@@ -0,0 +1,117 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+/**
+ * This class provides Unit Tests for the {@linkplain ArcGisResponseCache}.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisResponseCacheTest
+{
+    private static final String URL_A = "http://mo.ck/a";
+    private static final String URL_B = "http://mo.ck/b";
+    private static final String URL_C = "http://mo.ck/c";
+
+
+    /**
+     * Tests if the least recently used response is evicted
+     * when the maximum number of entries is exceeded.
+     */
+    @Test
+    public void testEvictionByEntryCount()
+    {
+        final ArcGisResponseCache cache = new ArcGisResponseCache(2, 1024);
+        cache.put(URL_A, createResponse(10));
+        cache.put(URL_B, createResponse(10));
+
+        // mark A as recently used
+        cache.get(URL_A);
+        cache.put(URL_C, createResponse(10));
+
+        assertNotNull(cache.get(URL_A));
+        assertNull(cache.get(URL_B));
+        assertNotNull(cache.get(URL_C));
+        assertEquals(2, cache.size());
+    }
+
+
+    /**
+     * Tests if the least recently used responses are evicted
+     * when the maximum total body size is exceeded.
+     */
+    @Test
+    public void testEvictionByByteSize()
+    {
+        final ArcGisResponseCache cache = new ArcGisResponseCache(10, 100);
+        cache.put(URL_A, createResponse(40));
+        cache.put(URL_B, createResponse(40));
+        cache.put(URL_C, createResponse(40));
+
+        assertNull(cache.get(URL_A));
+        assertEquals(2, cache.size());
+        assertEquals(80, cache.getByteSize());
+    }
+
+
+    /**
+     * Tests if replacing the response of a URL does not count the old body size.
+     */
+    @Test
+    public void testReplacingResponse()
+    {
+        final ArcGisResponseCache cache = new ArcGisResponseCache(10, 100);
+        cache.put(URL_A, createResponse(40));
+        cache.put(URL_A, createResponse(30));
+
+        assertEquals(1, cache.size());
+        assertEquals(30, cache.getByteSize());
+    }
+
+
+    /**
+     * Tests if responses that are larger than the whole cache are not cached.
+     */
+    @Test
+    public void testOversizedResponse()
+    {
+        final ArcGisResponseCache cache = new ArcGisResponseCache(10, 100);
+        cache.put(URL_A, createResponse(101));
+
+        assertNull(cache.get(URL_A));
+        assertEquals(0, cache.getByteSize());
+    }
+
+
+    /**
+     * Creates a cached response with a body of a specified size.
+     *
+     * @param bodySize the number of bytes of the body
+     *
+     * @return a cached response
+     */
+    private static ArcGisCachedResponse createResponse(final int bodySize)
+    {
+        return new ArcGisCachedResponse("\"etag\"", null, null, new byte[bodySize], String.class, "");
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+
+import org.junit.Test;
+
+/**
+ * This class provides Unit Tests for the {@linkplain ArcGisResponseRecorder}.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisResponseRecorderTest
+{
+    private static final File RECORD_FOLDER = new File("mockedHttpResponses");
+
+
+    /**
+     * Tests if the response of a URL with query parameters is recorded
+     * in the same file that replays mocked responses.
+     */
+    @Test
+    public void testQueryLayout()
+    {
+        final ArcGisResponseRecorder recorder = new ArcGisResponseRecorder(RECORD_FOLDER);
+        final File responseFile = recorder.getResponseFile(
+                                      "http://mo.ck/sharing/rest/search?q=%20group%3AMockedGroupID%20&sortField=title&sortOrder=asc&start=1&num=100&f=json");
+
+        assertEquals(
+            new File(RECORD_FOLDER,
+                     "mo.ck/sharing/rest/search/%query%/q=%20group%3AMockedGroupID%20/&sortField=title/&sortOrder=asc/&start=1/&num=100/&f=json.response"),
+            responseFile);
+    }
+
+
+    /**
+     * Tests if the response of a URL without query parameters is recorded
+     * in a file that is named after the last segment of the path.
+     */
+    @Test
+    public void testPathLayout()
+    {
+        final ArcGisResponseRecorder recorder = new ArcGisResponseRecorder(RECORD_FOLDER);
+        final File responseFile = recorder.getResponseFile("https://mo.ck/sharing/rest/portals/self");
+
+        assertEquals(new File(RECORD_FOLDER, "mo.ck/sharing/rest/portals/self.response"), responseFile);
+    }
+}
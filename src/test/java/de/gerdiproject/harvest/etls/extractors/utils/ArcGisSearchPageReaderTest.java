@@ -0,0 +1,161 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.gson.Gson;
+
+import de.gerdiproject.harvest.arcgis.json.ArcGisMap;
+
+/**
+ * This class provides Unit Tests for the {@linkplain ArcGisSearchPageReader}.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisSearchPageReaderTest
+{
+    private static final String RESULTS = "\"results\":[{\"id\":\"a\"},{\"id\":\"b\"},{\"id\":\"c\"}]";
+    private final Gson gson = new Gson();
+
+
+    /**
+     * Tests if the fields that precede the results array are read
+     * before the first map is returned.
+     *
+     * @throws IOException thrown when the response could not be read
+     */
+    @Test
+    public void testFieldsBeforeResults() throws IOException
+    {
+        final ArcGisSearchPageReader reader = createReader(
+                                                  "{\"total\":250,\"start\":1,\"num\":3,\"nextStart\":4," + RESULTS + "}");
+
+        assertEquals(250, reader.getTotal());
+        assertEquals(4, reader.getNextStart());
+        assertEquals("abc", readIds(reader));
+    }
+
+
+    /**
+     * Tests if the maps are buffered when the start index of the next page
+     * follows the results array, and if all maps are still returned in order.
+     *
+     * @throws IOException thrown when the response could not be read
+     */
+    @Test
+    public void testNextStartAfterResults() throws IOException
+    {
+        final ArcGisSearchPageReader reader = createReader("{\"total\":3," + RESULTS + ",\"nextStart\":-1}");
+
+        assertEquals(-1, reader.getNextStart());
+        assertEquals("abc", readIds(reader));
+    }
+
+
+    /**
+     * Tests if the next start index is read after the last map was returned.
+     *
+     * @throws IOException thrown when the response could not be read
+     */
+    @Test
+    public void testNextStartAfterIteration() throws IOException
+    {
+        final ArcGisSearchPageReader reader = createReader("{" + RESULTS + ",\"nextStart\":101}");
+
+        assertEquals("abc", readIds(reader));
+        assertEquals(101, reader.getNextStart());
+    }
+
+
+    /**
+     * Tests if an empty results array yields no maps.
+     *
+     * @throws IOException thrown when the response could not be read
+     */
+    @Test
+    public void testEmptyResults() throws IOException
+    {
+        final ArcGisSearchPageReader reader = createReader("{\"total\":0,\"nextStart\":-1,\"results\":[]}");
+
+        assertFalse(reader.hasNext());
+        assertEquals(0, reader.getTotal());
+        assertEquals(-1, reader.getNextStart());
+    }
+
+
+    /**
+     * Tests if maps are parsed ahead of the consumer and passed to the listener.
+     *
+     * @throws IOException thrown when the response could not be read
+     */
+    @Test
+    public void testLookahead() throws IOException
+    {
+        final List<ArcGisMap> parsedMaps = new ArrayList<>();
+        final ArcGisSearchPageReader reader = new ArcGisSearchPageReader(
+            new StringReader("{\"nextStart\":-1," + RESULTS + "}"), gson, 1, parsedMaps::add);
+
+        assertTrue(reader.hasNext());
+        assertEquals(2, parsedMaps.size());
+
+        assertEquals("abc", readIds(reader));
+        assertEquals(3, parsedMaps.size());
+    }
+
+
+    /**
+     * Creates a reader of a search response.
+     *
+     * @param json the search response
+     *
+     * @throws IOException thrown when the response could not be read
+     *
+     * @return a reader of the search response
+     */
+    private ArcGisSearchPageReader createReader(final String json) throws IOException
+    {
+        return new ArcGisSearchPageReader(new StringReader(json), gson);
+    }
+
+
+    /**
+     * Reads all remaining maps of a reader and concatenates their IDs.
+     *
+     * @param reader a reader of a search response
+     *
+     * @return the concatenated IDs of the maps
+     */
+    private static String readIds(final ArcGisSearchPageReader reader)
+    {
+        final StringBuilder ids = new StringBuilder();
+
+        while (reader.hasNext())
+            ids.append(reader.next().getId());
+
+        return ids.toString();
+    }
+}
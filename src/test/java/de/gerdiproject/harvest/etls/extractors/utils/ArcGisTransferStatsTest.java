@@ -0,0 +1,77 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * This class provides Unit Tests for the {@linkplain ArcGisTransferStats}
+ * and the {@linkplain ArcGisEndpoint}.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisTransferStatsTest
+{
+    /**
+     * Tests if the bytes of each endpoint are summed up separately.
+     */
+    @Test
+    public void testSumPerEndpoint()
+    {
+        final ArcGisTransferStats stats = new ArcGisTransferStats();
+        stats.add(ArcGisEndpoint.SEARCH, 100, 400);
+        stats.add(ArcGisEndpoint.SEARCH, 50, 200);
+        stats.add(ArcGisEndpoint.USERS, 10, 20);
+
+        assertEquals(150, stats.getCompressedBytes(ArcGisEndpoint.SEARCH));
+        assertEquals(600, stats.getUncompressedBytes(ArcGisEndpoint.SEARCH));
+        assertEquals(10, stats.getCompressedBytes(ArcGisEndpoint.USERS));
+        assertEquals(0, stats.getUncompressedBytes(ArcGisEndpoint.GROUPS));
+    }
+
+
+    /**
+     * Tests if only endpoints that transferred bytes are logged.
+     */
+    @Test
+    public void testToString()
+    {
+        final ArcGisTransferStats stats = new ArcGisTransferStats();
+        stats.add(ArcGisEndpoint.SEARCH, 100, 400);
+        stats.add(ArcGisEndpoint.PORTALS, 5, 5);
+
+        assertEquals("search: 100/400, portals: 5/5", stats.toString());
+    }
+
+
+    /**
+     * Tests if request paths are assigned to their endpoints,
+     * and if unknown paths are assigned to {@linkplain ArcGisEndpoint#OTHER}.
+     */
+    @Test
+    public void testEndpointFromPath()
+    {
+        assertEquals(ArcGisEndpoint.SEARCH, ArcGisEndpoint.fromPath("/sharing/rest/search"));
+        assertEquals(ArcGisEndpoint.USERS, ArcGisEndpoint.fromPath("/sharing/rest/community/users/Mocked.Owner"));
+        assertEquals(ArcGisEndpoint.GROUPS, ArcGisEndpoint.fromPath("/sharing/rest/community/groups"));
+        assertEquals(ArcGisEndpoint.PORTALS, ArcGisEndpoint.fromPath("/sharing/rest/portals/self"));
+        assertEquals(ArcGisEndpoint.OTHER, ArcGisEndpoint.fromPath("/sharing/rest/content/items/123"));
+        assertEquals(ArcGisEndpoint.OTHER, ArcGisEndpoint.fromPath(""));
+    }
+}
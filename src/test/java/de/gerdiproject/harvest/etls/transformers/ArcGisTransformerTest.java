@@ -16,8 +16,11 @@
  */
 package de.gerdiproject.harvest.etls.transformers;
 
+import java.io.File;
 import java.nio.charset.StandardCharsets;
 
+import org.junit.Rule;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.junit.runners.Parameterized.Parameters;
@@ -41,6 +44,10 @@ public class ArcGisTransformerTest extends AbstractIteratorTransformerTest<ArcGi
 {
     private static final String INPUT_FORMAT = "input-%s.json";
     private static final String OUTPUT_FORMAT = "output-%s.json";
+    private static final String SNAPSHOT_FILE_NAME = "featuredGroups.json";
+
+    @Rule
+    public final TemporaryFolder snapshotFolder = new TemporaryFolder();
 
     private final DiskIO diskReader = new DiskIO(GsonUtils.createGerdiDocumentGsonBuilder().create(), StandardCharsets.UTF_8);
     private final String transformInput;
@@ -107,6 +114,8 @@ public class ArcGisTransformerTest extends AbstractIteratorTransformerTest<ArcGi
     @Override
     protected ContextListener getContextListener()
     {
+        // featured groups must not be read from or written to the working directory
+        ArcGisContextListener.setGroupSnapshotFile(new File(snapshotFolder.getRoot(), SNAPSHOT_FILE_NAME));
         return new ArcGisContextListener();
     }
 }
@@ -0,0 +1,134 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.transformers.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+import de.gerdiproject.harvest.arcgis.constants.LinkAssemblerConstants;
+import de.gerdiproject.harvest.arcgis.json.ArcGisMap;
+import de.gerdiproject.json.datacite.extension.generic.WebLink;
+
+/**
+ * This class provides Unit Tests for the {@linkplain ArcGisLinkHelper}.
+ *
+ * @author Robin Weiss
+ */
+@RunWith(Parameterized.class)
+public class ArcGisLinkHelperTest
+{
+    private static final String BASE_URL = "http://www.mo.ck";
+    private static final String MAP_ID = "1337a1337b1337c1337d1337e1337f42";
+    private static final String MAP_URL = "http://www.mo.ck/mockedMap";
+
+    private final String mapType;
+
+
+    @Parameters(name = "map type: {0}")
+    public static Object[] getParameters()
+    {
+        return new Object[] {
+                   LinkAssemblerConstants.FEATURE_COLLECTION_TYPE,
+                   LinkAssemblerConstants.VECTOR_TILE_SERVICE_TYPE,
+                   LinkAssemblerConstants.MOBILE_APP_TYPE,
+                   LinkAssemblerConstants.WEB_APP_TYPE,
+                   LinkAssemblerConstants.DOCUMENT_LINK_TYPE,
+                   LinkAssemblerConstants.WEB_SCENE_TYPE,
+                   LinkAssemblerConstants.WEB_MAP_TYPE,
+                   LinkAssemblerConstants.CODE_ATTACHMENT_TYPE,
+                   LinkAssemblerConstants.MAP_SERVICE_TYPE,
+                   LinkAssemblerConstants.IMAGE_SERVICE_TYPE,
+                   LinkAssemblerConstants.FEATURE_SERVICE_TYPE,
+                   LinkAssemblerConstants.RULE_PACKAGE_TYPE,
+                   LinkAssemblerConstants.LAYER_PACKAGE_TYPE,
+                   LinkAssemblerConstants.WMS_TYPE,
+                   "Mocked Type"
+               };
+    }
+
+
+    /**
+     * Constructor that accepts Unit Test parameters.
+     *
+     * @param mapType the type of the mocked map
+     */
+    public ArcGisLinkHelperTest(final String mapType)
+    {
+        this.mapType = mapType;
+    }
+
+
+    /**
+     * Tests if the links of a map are listed in the same order as they
+     * were listed by the transformer before the link builders were introduced.
+     */
+    @Test
+    public void testWebLinkOrder()
+    {
+        final ArcGisMap map = createMap();
+
+        final List<WebLink> expectedLinks = new ArrayList<>();
+        expectedLinks.add(ArcGisLinkHelper.getViewLink(MAP_ID, BASE_URL));
+        expectedLinks.add(ArcGisLinkHelper.getThumbnailLink(MAP_ID, map.getThumbnail(), map.getLargeThumbnail(), BASE_URL));
+        expectedLinks.add(ArcGisLinkHelper.getSceneViewerLink(mapType, MAP_ID));
+        expectedLinks.add(ArcGisLinkHelper.getMapViewerLink(mapType, MAP_ID));
+        expectedLinks.add(ArcGisLinkHelper.getStyleViewerLink(mapType, MAP_ID));
+        expectedLinks.add(ArcGisLinkHelper.getMetadataLink(MAP_ID, map.getTypeKeywords()));
+        expectedLinks.add(ArcGisLinkHelper.getApplicationViewLink(mapType, MAP_URL));
+        expectedLinks.add(ArcGisLinkHelper.getOpenDocumentLink(mapType, MAP_URL));
+        expectedLinks.removeIf((final WebLink link) -> link == null);
+
+        assertEquals(expectedLinks, ArcGisLinkHelper.getWebLinks(map, BASE_URL));
+    }
+
+
+    /**
+     * Creates a map of the tested type that provides a thumbnail and metadata.
+     *
+     * @return a map of the tested type
+     */
+    private ArcGisMap createMap()
+    {
+        return new ArcGisMap(
+                   MAP_ID,
+                   "MockedOwner",
+                   946782245000L,
+                   946782245001L,
+                   "Mocked Name",
+                   "MockedTitle",
+                   mapType,
+                   Arrays.asList(LinkAssemblerConstants.METADATA_TYPE_KEYWORD),
+                   null,
+                   null,
+                   null,
+                   "thumbnail/ago_downloaded.png",
+                   null,
+                   null,
+                   null,
+                   null,
+                   MAP_URL,
+                   null);
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.transformers.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import de.gerdiproject.harvest.arcgis.constants.LinkAssemblerConstants;
+
+/**
+ * This class provides Unit Tests for the {@linkplain ArcGisLinkTemplate}.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisLinkTemplateTest
+{
+    private static final String MAP_ID = "a1b2c3";
+
+
+    /**
+     * Tests if a template with escaped percent signs yields the same URL as
+     * {@linkplain String#format(String, Object...)}.
+     */
+    @Test
+    public void testEscapedPercentSigns()
+    {
+        final String format = LinkAssemblerConstants.MAP_VIEWER_URL_MAP_SERVICE;
+
+        assertEquals(String.format(format, MAP_ID), new ArcGisLinkTemplate(format).fill(MAP_ID));
+    }
+
+
+    /**
+     * Tests if a template with multiple placeholders yields the same URL as
+     * {@linkplain String#format(String, Object...)}.
+     */
+    @Test
+    public void testMultiplePlaceholders()
+    {
+        final String format = LinkAssemblerConstants.THUMBNAIL_URL;
+
+        assertEquals(
+            String.format(format, "http://mo.ck", MAP_ID, "thumbnail/ago_downloaded.png"),
+            new ArcGisLinkTemplate(format).fill("http://mo.ck", MAP_ID, "thumbnail/ago_downloaded.png"));
+    }
+
+
+    /**
+     * Tests if templates that contain other conversions than '%s' are rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedConversion()
+    {
+        new ArcGisLinkTemplate("http://mo.ck/items/%d");
+    }
+}
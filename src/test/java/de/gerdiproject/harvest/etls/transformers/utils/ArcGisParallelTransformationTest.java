@@ -0,0 +1,103 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.transformers.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+/**
+ * This class provides Unit Tests for the {@linkplain ArcGisParallelTransformation}.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisParallelTransformationTest
+{
+    private static final int ELEMENT_COUNT = 200;
+    private static final int PARALLELISM = 4;
+
+
+    /**
+     * Tests if transformed elements are returned in the order of the source elements,
+     * although the transformations finish in random order.
+     */
+    @Test
+    public void testOrder()
+    {
+        final List<Integer> sourceElements = new ArrayList<>();
+        final List<String> expectedElements = new ArrayList<>();
+
+        for (int i = 0; i < ELEMENT_COUNT; i++) {
+            sourceElements.add(i);
+            expectedElements.add(String.valueOf(i));
+        }
+
+        final ArcGisParallelTransformation<Integer, String> transformation =
+            new ArcGisParallelTransformation<>(sourceElements.iterator(), this::transformSlowly, PARALLELISM);
+
+        final List<String> transformedElements = new ArrayList<>();
+
+        while (transformation.hasNext())
+            transformedElements.add(transformation.next());
+
+        assertEquals(expectedElements, transformedElements);
+    }
+
+
+    /**
+     * Tests if an exception of a transformation is thrown by the iterator.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testFailure()
+    {
+        final List<Integer> sourceElements = new ArrayList<>();
+        sourceElements.add(1);
+
+        final Function<Integer, String> failingTransformation = (final Integer element) -> {
+            throw new IllegalStateException();
+        };
+        final ArcGisParallelTransformation<Integer, String> transformation =
+            new ArcGisParallelTransformation<>(sourceElements.iterator(), failingTransformation, PARALLELISM);
+
+        transformation.next();
+    }
+
+
+    /**
+     * Converts a number to a string after a random delay.
+     *
+     * @param element the number that is to be converted
+     *
+     * @return the string representation of the number
+     */
+    private String transformSlowly(final Integer element)
+    {
+        try {
+            TimeUnit.MICROSECONDS.sleep(ThreadLocalRandom.current().nextInt(500));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        return String.valueOf(element);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ *  Copyright © 2019 Robin Weiss (http://www.gerdi-project.de/)
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package de.gerdiproject.harvest.etls.transformers.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * This class provides Unit Tests for the {@linkplain ArcGisValueInterner}.
+ *
+ * @author Robin Weiss
+ */
+public class ArcGisValueInternerTest
+{
+    /**
+     * Tests if the same instance is returned for equal keys.
+     */
+    @Test
+    public void testSharedInstance()
+    {
+        final ArcGisValueInterner<StringBuilder> interner = new ArcGisValueInterner<>(10);
+        final StringBuilder first = interner.intern("ArcGIS Server", StringBuilder::new);
+
+        assertSame(first, interner.intern(new String("ArcGIS Server"), StringBuilder::new));
+        assertEquals(1, interner.getHitCount());
+    }
+
+
+    /**
+     * Tests if the least recently used value is evicted when the limit is exceeded.
+     */
+    @Test
+    public void testEviction()
+    {
+        final ArcGisValueInterner<StringBuilder> interner = new ArcGisValueInterner<>(2);
+        final StringBuilder data = interner.intern("Data", StringBuilder::new);
+        final StringBuilder service = interner.intern("Service", StringBuilder::new);
+
+        // use "Data" again, so that "Service" becomes the least recently used value
+        interner.intern("Data", StringBuilder::new);
+        interner.intern("Map", StringBuilder::new);
+
+        assertEquals(2, interner.size());
+        assertSame(data, interner.intern("Data", StringBuilder::new));
+        assertNotSame(service, interner.intern("Service", StringBuilder::new));
+    }
+
+
+    /**
+     * Tests if a new value is created on every call if the interner is disabled.
+     */
+    @Test
+    public void testDisabled()
+    {
+        final ArcGisValueInterner<StringBuilder> interner = new ArcGisValueInterner<>(0);
+        final StringBuilder first = interner.intern("Data", StringBuilder::new);
+
+        assertNotSame(first, interner.intern("Data", StringBuilder::new));
+        assertEquals(0, interner.size());
+    }
+
+
+    /**
+     * Tests if the interner reports whether it caches values, depending on its limit.
+     */
+    @Test
+    public void testEnabled()
+    {
+        final ArcGisValueInterner<StringBuilder> interner = new ArcGisValueInterner<>(0);
+        assertFalse(interner.isEnabled());
+
+        interner.setMaxEntries(1);
+        assertTrue(interner.isEnabled());
+    }
+}